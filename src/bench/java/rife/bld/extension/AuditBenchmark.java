@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension;
+
+import org.openjdk.jmh.annotations.*;
+import rife.bld.WebProject;
+import rife.bld.extension.checkstyle.OutputFormat;
+import rife.bld.operations.exceptions.ExitStatusException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete audit of a synthetic corpus with the Sun checks, in a forked JVM or in-process.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+public class AuditBenchmark {
+    @Param({"fork", "inProcess"})
+    private String mode;
+    private CheckstyleOperation op;
+    private File corpus;
+    private File report;
+
+    @Benchmark
+    public void execute() throws IOException, InterruptedException {
+        try {
+            op.execute();
+        } catch (ExitStatusException ignored) {
+            // violations are expected
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        corpus = BenchmarkCorpus.create(20);
+        report = Files.createTempFile("checkstyle-report", ".xml").toFile();
+        op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .format(OutputFormat.XML)
+                .inProcess("inProcess".equals(mode))
+                .outputPath(report)
+                .sourceDir(corpus);
+        op.silent(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkCorpus.delete(corpus);
+        report.delete();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+
+/**
+ * Provides the source tree audited by the benchmarks.
+ * <p>
+ * The tree generated by the {@code corpus} build command is used, if its location is set with the
+ * {@value #PROPERTY} system property, as done by the {@code benchmark} build command. Otherwise, the extension's own
+ * main sources are copied as many times as requested, each copy in its own directory, in a temporary directory.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class BenchmarkCorpus {
+    /**
+     * The system property holding the location of the generated corpus.
+     */
+    public static final String PROPERTY = "checkstyle.corpus";
+    private static final Path SOURCES = Path.of("src/main/java");
+
+    private BenchmarkCorpus() {
+        // no-op
+    }
+
+    /**
+     * Returns the generated corpus or, if not set, creates a new one in a temporary directory.
+     *
+     * @param copies the number of copies of the main sources, if no generated corpus is set
+     * @return the corpus directory
+     */
+    public static File create(int copies) {
+        var generated = System.getProperty(PROPERTY);
+        if (generated != null && !generated.isBlank()) {
+            return new File(generated);
+        }
+        try {
+            var dir = Files.createTempDirectory("checkstyle-corpus");
+            try (var sources = Files.walk(SOURCES)) {
+                var files = sources.filter(Files::isRegularFile).toList();
+                for (var i = 0; i < copies; i++) {
+                    var copy = dir.resolve("copy" + i);
+                    for (var file : files) {
+                        var target = copy.resolve(SOURCES.relativize(file).toString());
+                        Files.createDirectories(target.getParent());
+                        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+            return dir.toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the given corpus, unless it is the generated one.
+     *
+     * @param dir the corpus directory
+     */
+    public static void delete(File dir) {
+        if (dir.getPath().equals(System.getProperty(PROPERTY))) {
+            return;
+        }
+        try (var paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
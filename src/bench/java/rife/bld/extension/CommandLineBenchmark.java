@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension;
+
+import org.openjdk.jmh.annotations.*;
+import rife.bld.WebProject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the command line, with large sets of options, exclusions and source directories.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class CommandLineBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+    private CheckstyleOperation op;
+
+    @Benchmark
+    public List<String> executeConstructProcessCommandList() {
+        return op.executeConstructProcessCommandList();
+    }
+
+    @Setup
+    public void setup() {
+        var exclude = new ArrayList<File>(size);
+        var excludeRegex = new ArrayList<String>(size);
+        var sourceDirs = new ArrayList<File>(size);
+        for (var i = 0; i < size; i++) {
+            exclude.add(new File("src/main/java/excluded" + i));
+            excludeRegex.add(".*Generated" + i + "\\.java");
+            sourceDirs.add(new File("src/module" + i + "/java"));
+        }
+
+        op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .argumentFileThreshold(Integer.MAX_VALUE)
+                .branchMatchingXpath("xpath")
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .debug(true)
+                .exclude(exclude)
+                .excludeRegex(excludeRegex)
+                .executeIgnoredModules(true)
+                .generateXpathSuppression(true)
+                .javadocTree(true)
+                .outputPath("build/checkstyle/report.xml")
+                .propertiesFile("config/checkstyle.properties")
+                .sourceDir(sourceDirs)
+                .suppressionLineColumnNumber("12:5")
+                .treeWithComments(true);
+    }
+}
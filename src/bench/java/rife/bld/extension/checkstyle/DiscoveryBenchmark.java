@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+import rife.bld.extension.BenchmarkCorpus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the discovery of the source files, with and without exclusions and Git ignore rules.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class DiscoveryBenchmark {
+    private File corpus;
+    private ExclusionMatcher exclusions;
+    private Path gitignore;
+    private List<File> roots;
+
+    @Benchmark
+    public List<File> find() {
+        return SourceFileFinder.find(roots, ExclusionMatcher.NONE, Set.of());
+    }
+
+    @Benchmark
+    public List<File> findExcluded() {
+        return SourceFileFinder.find(roots, exclusions, Set.of(".java"));
+    }
+
+    @Benchmark
+    public List<File> findGitignore() {
+        return SourceFileFinder.find(roots, ExclusionMatcher.NONE, Set.of(), true);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        corpus = BenchmarkCorpus.create(100);
+        gitignore = corpus.toPath().resolve(".gitignore");
+        Files.writeString(gitignore, "*1.java\n*Operation.java\n!Gen11.java\n");
+        roots = List.of(corpus);
+
+        // Exclude every fourth leaf directory, and a range of file names
+        var dirs = new ArrayList<Path>();
+        try (var paths = Files.walk(corpus.toPath())) {
+            for (var dir : paths.filter(Files::isDirectory).sorted().toList()) {
+                try (var entries = Files.list(dir)) {
+                    if (entries.noneMatch(Files::isDirectory)) {
+                        dirs.add(dir);
+                    }
+                }
+            }
+        }
+        var exclude = new ArrayList<File>();
+        for (var i = 0; i < dirs.size(); i += 4) {
+            exclude.add(dirs.get(i).toFile());
+        }
+        var excludeRegex = new ArrayList<String>();
+        for (var i = 0; i < 50; i++) {
+            excludeRegex.add("[/\\\\]\\w+" + String.format("%02d", i) + "\\.java$");
+        }
+        exclusions = ExclusionMatcher.compile(exclude, excludeRegex);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(gitignore);
+        BenchmarkCorpus.delete(corpus);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compilation of the exclusions and the matching of paths against them.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class ExclusionMatcherBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+    private List<File> exclude;
+    private List<String> excludeRegex;
+    private ExclusionMatcher matcher;
+    private String[] paths;
+
+    @Benchmark
+    public ExclusionMatcher compile() {
+        return ExclusionMatcher.compile(exclude, excludeRegex);
+    }
+
+    @Benchmark
+    public void isExcluded(Blackhole blackhole) {
+        for (var path : paths) {
+            blackhole.consume(matcher.isExcluded(path));
+        }
+    }
+
+    @Setup
+    public void setup() {
+        exclude = new ArrayList<>(size);
+        excludeRegex = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+            exclude.add(new File("src/main/java/com/example/module" + i));
+            excludeRegex.add("[/\\\\]generated" + i + "[/\\\\]");
+        }
+        matcher = ExclusionMatcher.compile(exclude, excludeRegex);
+
+        paths = new String[1_000];
+        for (var i = 0; i < paths.length; i++) {
+            var dir = (i % 3 == 0) ? "generated" : "module";
+            paths[i] = new File("src/main/java/com/example/" + dir + (i % (size * 2)), "Source" + i + ".java")
+                    .getAbsolutePath();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of an XML report into each output format, and the merging of sharded audit events.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class ReportBenchmark {
+    private static final int FILES = 2_000;
+    private static final int SHARDS = 8;
+    private static final String VERSION = "10.21.2";
+    private static final int VIOLATIONS_PER_FILE = 10;
+    private final List<File> files = new ArrayList<>(FILES);
+    @Param({"XML", "SARIF", "PLAIN"})
+    private OutputFormat format;
+    private byte[] report;
+
+    @Benchmark
+    public void merge() {
+        var writer = new ReportWriter(format, OutputStream.nullOutputStream(), false, VERSION);
+        var merger = new ShardMerger(files, writer);
+        var size = FILES / SHARDS;
+        writer.auditStarted();
+        // Replay the shards in reverse, so the merger has to buffer all but the first
+        for (var i = SHARDS - 1; i >= 0; i--) {
+            var shard = files.subList(i * size, (i + 1) * size);
+            var listener = merger.shardListener(shard);
+            listener.auditStarted();
+            for (var file : shard) {
+                replay(listener, file.getAbsolutePath());
+            }
+            listener.auditFinished();
+        }
+        merger.finish();
+        writer.auditFinished();
+    }
+
+    @Benchmark
+    public String parse() throws IOException {
+        var writer = new ReportWriter(format, OutputStream.nullOutputStream(), false, VERSION);
+        return XmlReportParser.parse(new ByteArrayInputStream(report), writer);
+    }
+
+    /*
+     * Sends the events of a single file.
+     */
+    private static void replay(AuditEventListener listener, String file) {
+        listener.fileStarted(file);
+        for (var j = 0; j < VIOLATIONS_PER_FILE; j++) {
+            listener.violation(new Violation(file, j + 1, j % 80, Severity.values()[j % 3 + 1],
+                    "Line is longer than 80 characters (found " + (80 + j) + ").",
+                    "com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck"));
+        }
+        listener.fileFinished(file);
+    }
+
+    @Setup
+    public void setup() {
+        for (var i = 0; i < FILES; i++) {
+            files.add(new File("/project/src/main/java/com/example/module" + (i % 50), "Source" + i + ".java"));
+        }
+
+        var out = new ByteArrayOutputStream();
+        var writer = new ReportWriter(OutputFormat.XML, out, false, VERSION);
+        writer.auditStarted();
+        for (var file : files) {
+            replay(writer, file.getAbsolutePath());
+        }
+        writer.auditFinished();
+        report = out.toByteArray();
+    }
+}
@@ -18,11 +18,20 @@ package rife.bld.extension;
 
 import rife.bld.BuildCommand;
 import rife.bld.Project;
+import rife.bld.operations.CompileOperation;
+import rife.bld.operations.JavacOptions;
+import rife.bld.operations.RunOperation;
 import rife.bld.publish.PublishDeveloper;
 import rife.bld.publish.PublishLicense;
 import rife.bld.publish.PublishScm;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static rife.bld.dependencies.Repository.*;
 import static rife.bld.dependencies.Scope.compile;
@@ -48,7 +57,9 @@ public class CheckstyleOperationBuild extends Project {
                 .include(dependency("com.puppycrawl.tools", "checkstyle", version(10, 21, 2)))
                 .include(dependency("org.junit.jupiter", "junit-jupiter", version(5, 11, 4)))
                 .include(dependency("org.junit.platform", "junit-platform-console-standalone", version(1, 11, 4)))
-                .include(dependency("org.assertj", "assertj-core", version(3, 27, 3)));
+                .include(dependency("org.assertj", "assertj-core", version(3, 27, 3)))
+                .include(dependency("org.openjdk.jmh", "jmh-core", version(1, 37)))
+                .include(dependency("org.openjdk.jmh", "jmh-generator-annprocess", version(1, 37)));
 
         javadocOperation()
                 .javadocOptions()
@@ -88,6 +99,60 @@ public class CheckstyleOperationBuild extends Project {
         new CheckstyleOperationBuild().start(args);
     }
 
+    @BuildCommand(summary = "Runs the JMH benchmarks, use --args= to pass JMH options")
+    public void benchmark() throws Exception {
+        compile();
+
+        var benchDirectory = new File(buildDirectory(), "bench");
+        var compileOperation = new CompileOperation()
+                .buildTestDirectory(benchDirectory)
+                .compileTestClasspath(compileTestClasspath())
+                .testSourceDirectories(new File(srcDirectory(), "bench/java"));
+        compileOperation.compileOptions().release(javaRelease).process(JavacOptions.Processing.FULL);
+        compileOperation.execute();
+
+        var results = new File(benchDirectory, "results");
+        if (!results.exists() && !results.mkdirs()) {
+            throw new IllegalStateException("Unable to create: " + results);
+        }
+        var resultFile = new File(results, "jmh-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        var corpus = corpusGenerator();
+        corpus.execute();
+
+        var classpath = new ArrayList<String>();
+        classpath.add(benchDirectory.getAbsolutePath());
+        classpath.addAll(testClasspath());
+        var runOperation = new RunOperation()
+                .fromProject(this)
+                .classpath(classpath)
+                .mainClass("org.openjdk.jmh.Main")
+                .runOptions("-rf", "json", "-rff", resultFile.getAbsolutePath());
+        // Inherited by the forked benchmark JVMs
+        runOperation.javaOptions().property("checkstyle.corpus", corpus.outputDirectory().toString());
+        runOperation.execute();
+    }
+
+    @BuildCommand(summary = "Generates a synthetic corpus, configured with the corpus.* properties")
+    public void corpus() throws Exception {
+        corpusGenerator().execute();
+    }
+
+    private CorpusGenerator corpusGenerator() {
+        return new CorpusGenerator()
+                .outputDirectory(Path.of(property("corpus.dir", new File(buildDirectory(), "corpus").getPath()))
+                        .toAbsolutePath())
+                .seed(Long.parseLong(property("corpus.seed", "42")))
+                .files(Integer.parseInt(property("corpus.files", "1000")))
+                .members(Integer.parseInt(property("corpus.members", "10")))
+                .distribution(CorpusGenerator.SizeDistribution.valueOf(
+                        property("corpus.distribution", "log_normal").toUpperCase(Locale.ROOT)))
+                .depth(Integer.parseInt(property("corpus.depth", "3")))
+                .javadocDensity(Double.parseDouble(property("corpus.javadoc", "1.0")))
+                .violationDensity(Double.parseDouble(property("corpus.violations", "0.1")));
+    }
+
     @BuildCommand(summary = "Runs PMD analysis")
     public void pmd() throws Exception {
         new PmdOperation()
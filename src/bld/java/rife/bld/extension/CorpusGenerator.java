@@ -0,0 +1,525 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension;
+
+import rife.bld.operations.AbstractOperation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a deterministic tree of Java sources, to benchmark and test the extension at scale.
+ * <p>
+ * The same seed and settings always produce the same files. Each file holds a single final class, with a number of
+ * methods following the configured size distribution, spread over packages of up to 100 files, nested to the
+ * configured depth. Every package also gets a {@code package-info.java}.
+ * <p>
+ * The code is clean with regard to {@code sun_checks.xml}, except for the fields and methods left undocumented, per
+ * the Javadoc density, and the violations injected in methods, per the violation density: long lines, magic numbers,
+ * non-final parameters, to-do comments, trailing spaces and missing braces.
+ * <p>
+ * The settings, along with the number of undocumented members and injected violations, are saved in
+ * {@code corpus.properties} at the root of the tree. An existing tree generated with the same settings is kept as is.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class CorpusGenerator extends AbstractOperation<CorpusGenerator> {
+    /**
+     * The name of the file holding the settings of a generated tree.
+     */
+    public static final String PROPERTIES_FILE = "corpus.properties";
+    private static final int FILES_PER_PACKAGE = 100;
+    private static final Logger LOGGER = Logger.getLogger(CorpusGenerator.class.getName());
+    private static final int MAX_MEMBERS = 1_000;
+    private static final String ROOT_PACKAGE = "gen";
+    private int depth_ = 3;
+    private SizeDistribution distribution_ = SizeDistribution.LOG_NORMAL;
+    private int files_ = 1_000;
+    private double javadocDensity_ = 1.0;
+    private int members_ = 10;
+    private Path outputDirectory_;
+    private long seed_ = 42L;
+    private double violationDensity_ = 0.1;
+
+    /*
+     * Validates a density.
+     */
+    private static double density(String name, double density) {
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("The " + name + " density must be between 0 and 1: " + density);
+        }
+        return density;
+    }
+
+    /*
+     * Deletes the given directory and its content, if any.
+     */
+    private static void delete(Path dir) throws IOException {
+        if (Files.exists(dir)) {
+            try (var paths = Files.walk(dir)) {
+                for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the depth of the packages below the root package.
+     * <p>
+     * Default is {@code 3}
+     *
+     * @param depth the depth, at least {@code 1}
+     * @return the generator
+     */
+    public CorpusGenerator depth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The depth must be at least 1: " + depth);
+        }
+        depth_ = depth;
+        return this;
+    }
+
+    /**
+     * Returns the depth of the packages.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return depth_;
+    }
+
+    /**
+     * Sets the distribution of the number of methods per file.
+     * <p>
+     * Default is {@link SizeDistribution#LOG_NORMAL}
+     *
+     * @param distribution the distribution
+     * @return the generator
+     */
+    public CorpusGenerator distribution(SizeDistribution distribution) {
+        distribution_ = distribution;
+        return this;
+    }
+
+    /**
+     * Returns the distribution of the number of methods per file.
+     *
+     * @return the distribution
+     */
+    public SizeDistribution distribution() {
+        return distribution_;
+    }
+
+    /**
+     * Generates the tree, unless it was already generated with the same settings.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void execute() throws IOException {
+        if (outputDirectory_ == null) {
+            throw new IllegalStateException("The output directory must be set.");
+        }
+
+        var settings = settings();
+        var propertiesFile = outputDirectory_.resolve(PROPERTIES_FILE);
+        if (Files.isRegularFile(propertiesFile)) {
+            var existing = new Properties();
+            try (var reader = Files.newBufferedReader(propertiesFile, StandardCharsets.UTF_8)) {
+                existing.load(reader);
+            }
+            if (settings.entrySet().stream().allMatch(e -> e.getValue().equals(existing.get(e.getKey())))) {
+                if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                    LOGGER.info("The corpus is up to date: " + outputDirectory_);
+                }
+                return;
+            }
+        }
+
+        if (Files.isDirectory(outputDirectory_) && !Files.exists(propertiesFile)) {
+            try (var entries = Files.list(outputDirectory_)) {
+                if (entries.findAny().isPresent()) {
+                    throw new IOException("The output directory is not a generated corpus: " + outputDirectory_);
+                }
+            }
+        }
+        delete(outputDirectory_);
+        var packages = (files_ + FILES_PER_PACKAGE - 1) / FILES_PER_PACKAGE;
+        var fanout = 2;
+        while (Math.pow(fanout, depth_) < packages) {
+            fanout++;
+        }
+        var undocumented = new AtomicLong();
+        var violations = new AtomicLong();
+        var base = fanout;
+        try {
+            IntStream.range(0, packages).parallel().forEach(p -> {
+                var segments = packageSegments(p, base);
+                try {
+                    var dir = outputDirectory_.resolve(String.join("/", segments));
+                    Files.createDirectories(dir);
+                    Files.writeString(dir.resolve("package-info.java"), packageInfo(segments),
+                            StandardCharsets.UTF_8);
+                    var last = Math.min(files_, (p + 1) * FILES_PER_PACKAGE);
+                    for (var i = p * FILES_PER_PACKAGE; i < last; i++) {
+                        var source = new Source(i, String.join(".", segments));
+                        Files.writeString(dir.resolve(source.className_ + ".java"), source.generate(),
+                                StandardCharsets.UTF_8);
+                        undocumented.addAndGet(source.undocumented_);
+                        violations.addAndGet(source.violations_);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        settings.setProperty("undocumented", String.valueOf(undocumented.get()));
+        settings.setProperty("violations", String.valueOf(violations.get()));
+        try (var writer = Files.newBufferedWriter(propertiesFile, StandardCharsets.UTF_8)) {
+            settings.store(writer, "Generated corpus");
+        }
+
+        if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+            LOGGER.info(String.format("Generated %d files, with %d undocumented members and %d violations, in: %s",
+                    files_, undocumented.get(), violations.get(), outputDirectory_));
+        }
+    }
+
+    /**
+     * Sets the number of files to generate, excluding the package-info files.
+     * <p>
+     * Default is {@code 1000}
+     *
+     * @param files the file count, at least {@code 1}
+     * @return the generator
+     */
+    public CorpusGenerator files(int files) {
+        if (files < 1) {
+            throw new IllegalArgumentException("The file count must be at least 1: " + files);
+        }
+        files_ = files;
+        return this;
+    }
+
+    /**
+     * Returns the number of files to generate.
+     *
+     * @return the file count
+     */
+    public int files() {
+        return files_;
+    }
+
+    /**
+     * Sets the probability of a field or method being documented.
+     * <p>
+     * Default is {@code 1.0}
+     *
+     * @param density the density, between {@code 0} and {@code 1}
+     * @return the generator
+     */
+    public CorpusGenerator javadocDensity(double density) {
+        javadocDensity_ = density("Javadoc", density);
+        return this;
+    }
+
+    /**
+     * Returns the probability of a field or method being documented.
+     *
+     * @return the density
+     */
+    public double javadocDensity() {
+        return javadocDensity_;
+    }
+
+    /**
+     * Sets the mean number of methods per file.
+     * <p>
+     * Default is {@code 10}
+     *
+     * @param members the mean method count, at least {@code 1}
+     * @return the generator
+     */
+    public CorpusGenerator members(int members) {
+        if (members < 1) {
+            throw new IllegalArgumentException("The member count must be at least 1: " + members);
+        }
+        members_ = members;
+        return this;
+    }
+
+    /**
+     * Returns the mean number of methods per file.
+     *
+     * @return the mean method count
+     */
+    public int members() {
+        return members_;
+    }
+
+    /**
+     * Sets the directory to generate the tree in.
+     * <p>
+     * Its content is replaced, unless it was already generated with the same settings.
+     *
+     * @param dir the directory
+     * @return the generator
+     */
+    public CorpusGenerator outputDirectory(Path dir) {
+        outputDirectory_ = dir;
+        return this;
+    }
+
+    /**
+     * Returns the directory to generate the tree in.
+     *
+     * @return the directory
+     */
+    public Path outputDirectory() {
+        return outputDirectory_;
+    }
+
+    /*
+     * Returns the package segments of the given package index.
+     */
+    private List<String> packageSegments(int index, int fanout) {
+        var segments = new ArrayList<String>(depth_ + 1);
+        segments.add(ROOT_PACKAGE);
+        var divisor = 1L;
+        for (var level = 1; level < depth_; level++) {
+            divisor *= fanout;
+        }
+        for (var level = 0; level < depth_; level++) {
+            segments.add("p" + (index / divisor) % fanout);
+            divisor = Math.max(1L, divisor / fanout);
+        }
+        return segments;
+    }
+
+    /*
+     * Returns the content of a package-info file.
+     */
+    private String packageInfo(List<String> segments) {
+        return "/**\n * Generated package " + segments.get(segments.size() - 1) + ".\n */\npackage "
+                + String.join(".", segments) + ";\n";
+    }
+
+    /**
+     * Sets the seed of the generator.
+     * <p>
+     * Default is {@code 42}
+     *
+     * @param seed the seed
+     * @return the generator
+     */
+    public CorpusGenerator seed(long seed) {
+        seed_ = seed;
+        return this;
+    }
+
+    /**
+     * Returns the seed of the generator.
+     *
+     * @return the seed
+     */
+    public long seed() {
+        return seed_;
+    }
+
+    /*
+     * Returns the settings identifying the generated tree.
+     */
+    private Properties settings() {
+        var settings = new Properties();
+        settings.setProperty("depth", String.valueOf(depth_));
+        settings.setProperty("distribution", distribution_.name());
+        settings.setProperty("files", String.valueOf(files_));
+        settings.setProperty("javadocDensity", String.valueOf(javadocDensity_));
+        settings.setProperty("members", String.valueOf(members_));
+        settings.setProperty("seed", String.valueOf(seed_));
+        settings.setProperty("violationDensity", String.valueOf(violationDensity_));
+        return settings;
+    }
+
+    /**
+     * Sets the probability of a violation being injected in a method.
+     * <p>
+     * Default is {@code 0.1}
+     *
+     * @param density the density, between {@code 0} and {@code 1}
+     * @return the generator
+     */
+    public CorpusGenerator violationDensity(double density) {
+        violationDensity_ = density("violation", density);
+        return this;
+    }
+
+    /**
+     * Returns the probability of a violation being injected in a method.
+     *
+     * @return the density
+     */
+    public double violationDensity() {
+        return violationDensity_;
+    }
+
+    /**
+     * The distribution of the number of methods per file.
+     */
+    public enum SizeDistribution {
+        /**
+         * Every file has the mean number of methods.
+         */
+        FIXED,
+        /**
+         * The number of methods is uniformly distributed between 1 and twice the mean.
+         */
+        UNIFORM,
+        /**
+         * The number of methods follows a log-normal distribution, with many small files and a long tail of large
+         * ones, as found in most code bases.
+         */
+        LOG_NORMAL
+    }
+
+    /*
+     * A generated source file, seeded by its index so files can be generated in any order.
+     */
+    private final class Source {
+        private final String className_;
+        private final String package_;
+        private final SplittableRandom random_;
+        private final StringBuilder sb_ = new StringBuilder(4096);
+        private int undocumented_;
+        private int violations_;
+
+        Source(int index, String packageName) {
+            className_ = "Gen" + index;
+            package_ = packageName;
+            random_ = new SplittableRandom(seed_ * 0x9E3779B97F4A7C15L + index);
+        }
+
+        /*
+         * Generates the content of the file.
+         */
+        String generate() {
+            var methods = methodCount();
+            var fields = methods / 4 + 1;
+
+            sb_.append("/*\n * Generated corpus, seed ").append(seed_).append(".\n */\n\n");
+            sb_.append("package ").append(package_).append(";\n\n");
+            sb_.append("/**\n * Generated class ").append(className_).append(".\n */\n");
+            sb_.append("public final class ").append(className_).append(" {\n");
+            for (var f = 0; f < fields; f++) {
+                if (javadoc()) {
+                    sb_.append("    /**\n     * The total number ").append(f).append(".\n     */\n");
+                }
+                sb_.append("    private int total").append(f).append(";\n\n");
+            }
+            for (var m = 0; m < methods; m++) {
+                method(m, "total" + (m % fields));
+                if (m < methods - 1) {
+                    sb_.append('\n');
+                }
+            }
+            sb_.append("}\n");
+            return sb_.toString();
+        }
+
+        /*
+         * Returns whether the next member is documented, counting those that are not.
+         */
+        private boolean javadoc() {
+            if (random_.nextDouble() < javadocDensity_) {
+                return true;
+            }
+            undocumented_++;
+            return false;
+        }
+
+        /*
+         * Appends a method, possibly with a violation.
+         */
+        private void method(int index, String field) {
+            var violation = -1;
+            if (random_.nextDouble() < violationDensity_) {
+                violation = random_.nextInt(6);
+                violations_++;
+            }
+
+            if (javadoc()) {
+                sb_.append("    /**\n     * Adds the given amount, step ").append(index).append(".\n     *\n")
+                        .append("     * @param amount the amount to add\n")
+                        .append("     * @return the new total\n     */\n");
+            }
+            sb_.append("    public int add").append(index).append('(')
+                    .append(violation == 2 ? "" : "final ").append("int amount) {\n");
+            switch (violation) {
+                case 0 -> sb_.append("        // This comment is much longer than the eighty characters")
+                        .append(" allowed per line.\n");
+                case 3 -> sb_.append("        // TODO: remove\n");
+                case 4 -> sb_.append("        ").append(field).append(" += 1; \n");
+                default -> {
+                    // no violation
+                }
+            }
+            if (violation == 5) {
+                sb_.append("        if (amount < 0) return ").append(field).append(";\n");
+            } else {
+                sb_.append("        if (amount < 0) {\n            ").append(field).append(" -= amount;\n")
+                        .append("        } else {\n            ").append(field).append(" += amount;\n")
+                        .append("        }\n");
+            }
+            sb_.append("        return ").append(field).append(violation == 1 ? " * 42" : " * 2").append(";\n")
+                    .append("    }\n");
+        }
+
+        /*
+         * Returns the number of methods of the file.
+         */
+        private int methodCount() {
+            var count = switch (distribution_) {
+                case FIXED -> members_;
+                case UNIFORM -> 1 + random_.nextInt(members_ * 2);
+                case LOG_NORMAL -> {
+                    // Sigma of 1, with mu set so the mean is the requested member count
+                    var gaussian = Math.sqrt(-2 * Math.log(1 - random_.nextDouble()))
+                            * Math.cos(2 * Math.PI * random_.nextDouble());
+                    yield (int) Math.round(Math.exp(Math.log(members_) - 0.5 + gaussian));
+                }
+            };
+            return Math.max(1, Math.min(MAX_MEMBERS, count));
+        }
+    }
+}
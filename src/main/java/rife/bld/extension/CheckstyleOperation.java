@@ -17,15 +17,27 @@
 package rife.bld.extension;
 
 import rife.bld.BaseProject;
-import rife.bld.extension.checkstyle.OutputFormat;
+import rife.bld.dependencies.DependencyResolver;
+import rife.bld.dependencies.VersionResolution;
+import rife.bld.dependencies.exceptions.DependencyException;
+import rife.bld.extension.checkstyle.*;
 import rife.bld.operations.AbstractProcessOperation;
 import rife.bld.operations.exceptions.ExitStatusException;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,13 +48,176 @@ import java.util.logging.Logger;
  * @since 1.0
  */
 public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOperation> {
+    /**
+     * The exit status when the audit was stopped because the {@link #maxErrors(int) maximum number of errors} or
+     * {@link #maxWarnings(int) warnings} was reached.
+     *
+     * @since 1.1
+     */
+    public static final int EXIT_THRESHOLD_EXCEEDED = 254;
+    /**
+     * The default length of the forked command line, in characters, above which its arguments are passed through an
+     * argument file.
+     *
+     * @since 1.1
+     */
+    public static final int DEFAULT_ARGUMENT_FILE_THRESHOLD = 32_000;
     private static final Logger LOGGER = Logger.getLogger(CheckstyleOperation.class.getName());
+    private final Set<Path> argumentFiles_ = ConcurrentHashMap.newKeySet();
     private final Collection<String> excludeRegex_ = new ArrayList<>();
     private final Collection<File> exclude_ = new ArrayList<>();
+    private final List<Path> flightRecordings_ = new CopyOnWriteArrayList<>();
+    private final Set<Process> forks_ = ConcurrentHashMap.newKeySet();
+    private final List<String> jvmOptions_ = new ArrayList<>();
+    private final List<AuditEventListener> listeners_ = new ArrayList<>();
     private final Map<String, String> options_ = new ConcurrentHashMap<>();
     private final Set<File> sourceDir_ = new TreeSet<>();
 
+    private int argumentFileThreshold_ = DEFAULT_ARGUMENT_FILE_THRESHOLD;
+    private List<File> auditedFiles_;
+    private Path baseline_;
+    private int changedLinesContext_;
+    private boolean changedLinesOnly_;
+    private String changedSince_;
+    private boolean classDataSharing_;
+    private volatile List<String> classDataSharingOptions_;
+    private CheckstyleResult.Collector collector_;
+    private boolean daemon_;
+    private Duration daemonIdleTimeout_ = Duration.ofMinutes(30);
+    private ExclusionMatcher exclusionMatcher_;
+    private Path flightRecording_;
+    private List<String> forkCommand_;
+    private volatile List<String> forkedJvmOptions_;
+    private boolean inProcess_;
+    private boolean incremental_;
+    private File javaHome_;
+    private JvmProfile jvmProfile_;
+    private int maxErrors_;
+    private int maxWarnings_;
+    private Path metricsFile_;
+    private boolean minimalClasspath_;
+    private int parallelism_ = 1;
+    private boolean profileChecks_;
+    private int profileTop_ = 10;
     private BaseProject project_;
+    private boolean respectGitignore_;
+    private CheckstyleResult result_;
+    private Path sourceFilesFrom_;
+    private boolean timing_;
+    private Level timingLevel_ = Level.INFO;
+    private TraceWriter trace_;
+    private Path traceFile_;
+    private boolean updateBaseline_;
+
+    /**
+     * Sets the length of the forked command line, in characters, above which the arguments following the JVM options
+     * are passed to the Checkstyle process through a Java {@code @argfile}, rather than directly.
+     * <p>
+     * This avoids the operating system limits on the command line length when auditing many files.
+     *
+     * @param length the maximum command line length, {@code 0} to always use an argument file
+     * @return the checkstyle operation
+     * @see #DEFAULT_ARGUMENT_FILE_THRESHOLD
+     */
+    public CheckstyleOperation argumentFileThreshold(int length) {
+        argumentFileThreshold_ = Math.max(0, length);
+        return this;
+    }
+
+    /**
+     * Returns the length of the forked command line above which an argument file is used.
+     *
+     * @return the maximum command line length
+     */
+    public int argumentFileThreshold() {
+        return argumentFileThreshold_;
+    }
+
+    /*
+     * Writes the given arguments to a new argument file, followed by the files listed in the given file, if any.
+     */
+    private ArgumentFile argumentFile(List<String> args, Path listFile) throws IOException {
+        var dir = new File(project_.buildDirectory(), "checkstyle").toPath();
+        Files.createDirectories(dir);
+        var argumentFile = Files.createTempFile(dir, "args-", ".txt");
+        argumentFiles_.add(argumentFile);
+        var count = 0;
+        var bytes = 0L;
+        try (var writer = Files.newBufferedWriter(argumentFile)) {
+            for (var arg : args) {
+                writer.write(quoteArgument(arg));
+                writer.newLine();
+            }
+            if (listFile != null) {
+                // The listed files are copied as they are read, rather than kept in memory
+                try (var files = SourceFileFinder.stream(listFile, exclusionMatcher())) {
+                    for (var it = files.iterator(); it.hasNext(); ) {
+                        var file = it.next();
+                        writer.write(quoteArgument(file.getPath()));
+                        writer.newLine();
+                        count++;
+                        bytes += file.length();
+                    }
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+        return new ArgumentFile(argumentFile, count, bytes);
+    }
+
+    /**
+     * Only reports the violations missing from the given baseline, so stricter rules can be adopted without fixing all
+     * the existing violations at once.
+     * <p>
+     * If the baseline file doesn't exist, or is being {@link #updateBaseline(boolean) updated}, it is written with all
+     * the current violations, none of which are reported. It is only written by a full audit, all the violations are
+     * otherwise reported. The violations are fingerprinted by file, check, message and the content of their line,
+     * ignoring whitespace, rather than by line number, so they remain baselined when the surrounding code changes.
+     * Exceptions thrown while processing a file are never baselined.
+     * <p>
+     * The audit events are collected in order to filter the violations, which requires forking with an XML report
+     * when not running in-process.
+     *
+     * @param file the baseline file, or {@code null} to report all violations
+     * @return the checkstyle operation
+     * @see Baseline
+     */
+    public CheckstyleOperation baseline(Path file) {
+        baseline_ = file;
+        return this;
+    }
+
+    /**
+     * Only reports the violations missing from the given baseline.
+     *
+     * @param file the baseline file
+     * @return the checkstyle operation
+     * @see #baseline(Path)
+     */
+    public CheckstyleOperation baseline(File file) {
+        return baseline(file.toPath());
+    }
+
+    /**
+     * Only reports the violations missing from the given baseline.
+     *
+     * @param file the baseline file
+     * @return the checkstyle operation
+     * @see #baseline(Path)
+     */
+    public CheckstyleOperation baseline(String file) {
+        return baseline(Path.of(file));
+    }
+
+    /**
+     * Returns the baseline file of the violations not to report.
+     *
+     * @return the baseline file, or {@code null}
+     */
+    public Path baseline() {
+        return baseline_;
+    }
 
     /**
      * Shows Abstract Syntax Tree(AST) branches that match given XPath query.
@@ -57,6 +232,158 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return this;
     }
 
+    /*
+     * Records the size of the files to audit, if needed for the metrics.
+     */
+    private void bytesRead(List<File> files) {
+        if (metricsFile_ != null && collector_ != null) {
+            var bytes = 0L;
+            for (var file : files) {
+                bytes += file.length();
+            }
+            collector_.bytesRead(bytes);
+        }
+    }
+
+    /**
+     * Specifies the number of lines around the changed lines whose violations should also be reported.
+     *
+     * @param lines the number of context lines, {@code 0} by default
+     * @return the checkstyle operation
+     * @see #changedLinesOnly(boolean)
+     */
+    public CheckstyleOperation changedLinesContext(int lines) {
+        changedLinesContext_ = Math.max(0, lines);
+        return this;
+    }
+
+    /**
+     * Returns the number of lines around the changed lines whose violations are also reported.
+     *
+     * @return the number of context lines
+     */
+    public int changedLinesContext() {
+        return changedLinesContext_;
+    }
+
+    /**
+     * Only reports the violations located on lines added or modified since the merge base of the
+     * {@link #changedSince(String) base reference} and {@code HEAD}, or since {@code HEAD} if none is specified.
+     * <p>
+     * The changed lines are determined from the hunks of the local Git repository's diff, including uncommitted
+     * changes. Only the changed source files are audited, their violations are filtered as they are reported,
+     * regardless of the {@link #format(OutputFormat) output format}.
+     *
+     * @param changedLinesOnly {@code true} to only report violations on changed lines
+     * @return the checkstyle operation
+     * @see #changedLinesContext(int)
+     */
+    public CheckstyleOperation changedLinesOnly(boolean changedLinesOnly) {
+        changedLinesOnly_ = changedLinesOnly;
+        return this;
+    }
+
+    /**
+     * Only audits the source files changed since the merge base of the given reference and {@code HEAD}.
+     * <p>
+     * The changed, added and renamed files, including uncommitted changes, are queried from the local Git repository
+     * and audited if they would otherwise be, that is if found in the {@link #sourceDir(String...) source directories}
+     * or the {@link #sourceFilesFrom(Path) file list}, with the same exclusions and file extensions. Files are matched
+     * by their real path. Checkstyle is not run at all if no relevant file changed.
+     *
+     * @param baseRef the base reference, such as a branch, tag or commit
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation changedSince(String baseRef) {
+        changedSince_ = isNotBlank(baseRef) ? baseRef : null;
+        return this;
+    }
+
+    /**
+     * Returns the base reference of the changed source files to audit.
+     *
+     * @return the base reference, or {@code null} if all the source files are audited
+     */
+    public String changedSince() {
+        return changedSince_;
+    }
+
+    /*
+     * Returns the classpath used to run Checkstyle, expanding the library directories into their jars.
+     */
+    private List<File> checkstyleClasspath() {
+        var jars = new ArrayList<File>();
+        for (var dir : List.of(project_.libTestDirectory(), project_.libCompileDirectory())) {
+            var files = dir.listFiles((d, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+            if (files != null) {
+                Arrays.sort(files);
+                jars.addAll(List.of(files));
+            }
+        }
+
+        var isBuiltinOnly = (minimalClasspath_ || classDataSharing_) && isBuiltinOnly(jars);
+        if (minimalClasspath_ && isBuiltinOnly) {
+            var minimal = minimalClasspath(jars);
+            if (minimal != null) {
+                return minimal;
+            }
+        }
+
+        var classpath = new ArrayList<>(jars);
+        // Only jars can be archived, the build directories are only needed by custom modules
+        if (!classDataSharing_ || !isBuiltinOnly) {
+            classpath.add(project_.buildMainDirectory());
+            classpath.add(project_.buildTestDirectory());
+        }
+        return classpath;
+    }
+
+    /*
+     * Returns the resolver of the Checkstyle dependency of the project, or null if not declared.
+     */
+    private DependencyResolver checkstyleResolver() {
+        for (var scope : project_.dependencies().values()) {
+            for (var dependency : scope) {
+                if ("com.puppycrawl.tools".equals(dependency.groupId())
+                        && "checkstyle".equals(dependency.artifactId())) {
+                    return new DependencyResolver(new VersionResolution(project_.properties()),
+                            project_.artifactRetriever(), project_.repositories(), dependency);
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Returns the Checkstyle version, based on the name of its jar, or null if not found.
+     */
+    private String checkstyleVersion() {
+        for (var entry : checkstyleClasspath()) {
+            var name = entry.getName();
+            if (name.startsWith("checkstyle-") && name.endsWith(".jar") && !name.endsWith("-sources.jar")) {
+                return name.substring("checkstyle-".length(), name.length() - ".jar".length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates and reuses a class data sharing archive to speed up the startup of the forked Checkstyle JVM.
+     * <p>
+     * The archive is created by the first run and stored in the project's build directory, named after the Java
+     * runtime and the exact classpath. It is created again whenever either of them changes.
+     * <p>
+     * Requires Java 13 or later, and a configuration only using modules provided by Checkstyle, since only jars can be
+     * archived and the project's build directories are otherwise added to the classpath.
+     *
+     * @param classDataSharing {@code true} to use class data sharing
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation classDataSharing(boolean classDataSharing) {
+        classDataSharing_ = classDataSharing;
+        return this;
+    }
+
     /**
      * Specifies the location of the file that defines the configuration modules. The location can either be a
      * filesystem location, or a name passed to the {@link ClassLoader#getResource(String) ClassLoader.getResource() }
@@ -96,6 +423,56 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return configurationFile(file.toFile().getAbsolutePath());
     }
 
+    /**
+     * Runs Checkstyle through a long-lived local daemon, reused across invocations.
+     * <p>
+     * The daemon is started on first use and keeps Checkstyle loaded, with its configuration parsed and the JIT warmed
+     * up, between runs. It is automatically restarted whenever the Checkstyle jars or the configuration file change,
+     * and shuts itself down after being idle for the {@link #daemonIdleTimeout(Duration) idle timeout}.
+     * <p>
+     * The same options as the {@link #inProcess(boolean) in-process} mode are supported, Checkstyle will be forked
+     * whenever other options are specified.
+     *
+     * @param daemon {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation daemon(boolean daemon) {
+        daemon_ = daemon;
+        return this;
+    }
+
+    /**
+     * Sets the time after which an idle daemon shuts itself down.
+     * <p>
+     * Defaults to 30 minutes.
+     *
+     * @param timeout the idle timeout
+     * @return the checkstyle operation
+     * @see #daemon(boolean)
+     */
+    public CheckstyleOperation daemonIdleTimeout(Duration timeout) {
+        if (timeout != null && !timeout.isNegative() && !timeout.isZero()) {
+            daemonIdleTimeout_ = timeout;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the time after which an idle daemon shuts itself down.
+     *
+     * @return the idle timeout
+     */
+    public Duration daemonIdleTimeout() {
+        return daemonIdleTimeout_;
+    }
+
+    /*
+     * Returns the daemon state file, located in the project's build directory.
+     */
+    private File daemonStateFile() {
+        return new File(project_.buildDirectory(), "checkstyle/daemon.properties");
+    }
+
     /**
      * Prints all debug logging of Checkstyle utility.
      *
@@ -111,6 +488,77 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return this;
     }
 
+    /*
+     * Returns the Git reference to diff against, or null if all the source files are audited.
+     */
+    private String diffBase() {
+        if (changedSince_ == null && changedLinesOnly_) {
+            return "HEAD";
+        }
+        return changedSince_;
+    }
+
+    /*
+     * Reports the number of duplicate source files or directories skipped.
+     */
+    private void duplicates(int count) {
+        if (count > 0) {
+            if (collector_ != null) {
+                collector_.duplicates(count);
+            }
+            if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info(String.format("Skipped %d duplicate source files or directories.", count));
+            }
+        }
+    }
+
+    /*
+     * Returns the requested features relying on the audit events, which Checkstyle's own report can't provide.
+     */
+    private List<String> eventFeatures() {
+        var features = new ArrayList<String>();
+        if (baseline_ != null) {
+            features.add("baseline");
+        }
+        if (changedLinesOnly_) {
+            features.add("changedLinesOnly");
+        }
+        if (changedSince_ != null) {
+            features.add("changedSince");
+        }
+        if (incremental_) {
+            features.add("incremental");
+        }
+        if (!listeners_.isEmpty()) {
+            features.add("listeners");
+        }
+        if (maxErrors_ > 0) {
+            features.add("maxErrors");
+        }
+        if (maxWarnings_ > 0) {
+            features.add("maxWarnings");
+        }
+        if (metricsFile_ != null) {
+            features.add("metricsFile");
+        }
+        if (parallelism_ > 1) {
+            features.add("parallelism");
+        }
+        if (profileChecks_) {
+            features.add("profileChecks");
+        }
+        if (respectGitignore_) {
+            features.add("respectGitignore");
+        }
+        if (timing_) {
+            features.add("timing");
+        }
+        if (traceFile_ != null) {
+            features.add("traceFile");
+        }
+        return features;
+    }
+
     /**
      * Directory/file to exclude from Checkstyle. The path can be the full, absolute path, or relative to the current
      * path. Multiple excludes are allowed.
@@ -157,6 +605,7 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
      */
     public CheckstyleOperation exclude(Collection<File> paths) {
         exclude_.addAll(paths);
+        exclusionMatcher_ = null;
         return this;
     }
 
@@ -192,9 +641,26 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
      */
     public CheckstyleOperation excludeRegex(Collection<String> regex) {
         excludeRegex_.addAll(regex);
+        exclusionMatcher_ = null;
         return this;
     }
 
+    /**
+     * Returns the exclusions, compiled for matching the source files.
+     * <p>
+     * The exclusions are only compiled once, and reused across executions until more are added.
+     *
+     * @return the compiled exclusions
+     * @throws java.util.regex.PatternSyntaxException if an exclusion pattern is invalid
+     */
+    public ExclusionMatcher exclusionMatcher() {
+        if (exclusionMatcher_ == null) {
+            exclusionMatcher_ = ExclusionMatcher.compile(exclude_,
+                    excludeRegex_.stream().filter(this::isNotBlank).toList());
+        }
+        return exclusionMatcher_;
+    }
+
     /**
      * Directory/file to exclude from Checkstyle. The path can be the full, absolute path, or relative to the current
      * path. Multiple excludes are allowed.
@@ -209,75 +675,790 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
 
     @Override
     public void execute() throws IOException, InterruptedException, ExitStatusException {
-        if (project_ == null) {
-            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
-                LOGGER.severe("A project must be specified.");
+        var collector = new CheckstyleResult.Collector();
+        var start = System.nanoTime();
+        var exitCode = ExitStatusException.EXIT_FAILURE;
+        collector_ = collector;
+        forkedJvmOptions_ = null;
+        classDataSharingOptions_ = null;
+        auditedFiles_ = null;
+        flightRecordings_.clear();
+        trace_ = null;
+        if (traceFile_ != null) {
+            try {
+                trace_ = new TraceWriter(traceFile_);
+            } catch (IOException e) {
+                if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                    LOGGER.warning("Unable to create the trace file: " + e.getMessage());
+                }
+            }
+        }
+        var isAudited = false;
+        try {
+            if (project_ == null) {
+                if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                    LOGGER.severe("A project must be specified.");
+                }
+                throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+            } else if (!InProcessChecker.isSupported(options_.keySet())) {
+                var features = eventFeatures();
+                if (!features.isEmpty()) {
+                    if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                        var unsupported = options_.keySet().stream()
+                                .filter(option -> !InProcessChecker.isSupported(List.of(option))).toList();
+                        LOGGER.warning(String.format("The %s option(s) are only supported by the command line, "
+                                + "forking without: %s.", String.join(" ", unsupported), String.join(", ", features)));
+                    }
+                } else if ((inProcess_ || daemon_) && LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine("The specified options are only supported by the command line, forking instead.");
+                }
+                executeFork();
+            } else if (isEventAudit()) {
+                executeEventAudit();
+            } else if (inProcess_ || daemon_) {
+                executeInProcess();
+            } else {
+                executeFork();
+            }
+            exitCode = ExitStatusException.EXIT_SUCCESS;
+            isAudited = true;
+        } catch (ExitStatusException e) {
+            exitCode = e.getExitStatus();
+            isAudited = auditedFiles_ != null;
+            throw e;
+        } finally {
+            if (profileChecks_ && isAudited && auditedFiles_ != null) {
+                executeProfile(auditedFiles_);
+            }
+            if (flightRecording_ != null) {
+                summarizeFlightRecordings();
+            }
+            auditedFiles_ = null;
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+            collector.phase("total", elapsed);
+            result_ = collector.build(exitCode);
+            collector_ = null;
+            if (trace_ != null) {
+                trace_.span(TraceWriter.MAIN_TRACK, "total", start, start + elapsed.toNanos());
+                try {
+                    trace_.close();
+                    if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                        LOGGER.info("Checkstyle trace saved to: " + traceFile_);
+                    }
+                } catch (IOException e) {
+                    if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                        LOGGER.warning("Unable to write the trace file: " + e.getMessage());
+                    }
+                }
+                trace_ = null;
+            }
+            if (metricsFile_ != null) {
+                try {
+                    OpenMetrics.write(metricsFile_, result_);
+                } catch (IOException e) {
+                    if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                        LOGGER.warning("Unable to write the metrics file: " + e.getMessage());
+                    }
+                }
+            }
+            for (var argumentFile : argumentFiles_) {
+                argumentFiles_.remove(argumentFile);
+                argumentFile.toFile().delete();
+            }
+            if (forkedJvmOptions_ != null && LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info(String.format("Checkstyle ran with the %s JVM profile %s in %d ms.",
+                        jvmProfile_ == null ? "default" : jvmProfile_.name(), forkedJvmOptions_,
+                        elapsed.toMillis()));
+            }
+            if (timing_ && LOGGER.isLoggable(timingLevel_) && !silent()) {
+                var times = result_.phaseTimes();
+                var sb = new StringBuilder("Checkstyle phase times:");
+                for (var phase : List.of(PhaseTimer.STARTUP, PhaseTimer.CONFIGURATION, "discovery",
+                        PhaseTimer.PROCESS, PhaseTimer.CHECKS, PhaseTimer.REPORT, "total")) {
+                    var time = times.get(phase);
+                    if (time != null) {
+                        sb.append(' ').append(phase).append('=').append(time.toMillis()).append("ms");
+                    }
+                }
+                LOGGER.log(timingLevel_, sb.toString());
             }
-            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
-        } else {
-            super.execute();
         }
     }
 
     /**
-     * Part of the {@link #execute} operation, constructs the command list
-     * to use for building the process.
+     * Part of the {@link #execute} operation, audits the given files and notifies the given listener of the audit
+     * events.
+     * <p>
+     * The audit is performed in-process, through the daemon or by decoding the XML report of a forked Checkstyle
+     * process as it is being written.
+     *
+     * @param files    the files to audit
+     * @param listener the listener to notify
+     * @throws IOException          if an error occurs while running Checkstyle
+     * @throws InterruptedException if interrupted while waiting for the forked process
      */
-    @Override
-    protected List<String> executeConstructProcessCommandList() {
-        final List<String> args = new ArrayList<>();
-
-        if (project_ != null) {
-            if (sourceDir_.isEmpty()) {
-                sourceDir_.add(project_.srcMainJavaDirectory());
-                sourceDir_.add(project_.srcTestJavaDirectory());
-            }
-            args.add(javaTool());
-
-            args.add("-cp");
-            args.add(String.format("%s:%s:%s:%s", new File(project_.libTestDirectory(), "*"),
-                    new File(project_.libCompileDirectory(), "*"), project_.buildMainDirectory(),
-                    project_.buildTestDirectory()));
-            args.add("com.puppycrawl.tools.checkstyle.Main");
+    protected void executeAuditEvents(List<File> files, AuditEventListener listener)
+            throws IOException, InterruptedException {
+        if (files.isEmpty()) {
+            listener.auditStarted();
+            listener.auditFinished();
+            return;
+        }
 
-            options_.forEach((k, v) -> {
-                args.add(k);
-                if (!v.isEmpty()) {
-                    args.add(v);
-                }
-            });
+        var options = new HashMap<>(options_);
+        options.remove("-o");
+        options.put("-f", OutputFormat.XML.label);
 
-            if (!exclude_.isEmpty()) {
-                for (var e : exclude_) {
-                    if (e.exists()) {
-                        args.add("-e " + e.getAbsolutePath());
+        if (daemon_) {
+            var start = System.nanoTime();
+            try {
+                var track = trace_ == null ? null : trace_.track(listener);
+                AuditEventListener target = track != null ? track : listener;
+                var in = new PipedInputStream(65536);
+                var failure = new AtomicReference<Exception>();
+                var parser = new Thread(() -> {
+                    try (in) {
+                        XmlReportParser.parse(in, target);
+                        in.transferTo(OutputStream.nullOutputStream());
+                    } catch (IOException | RuntimeException e) {
+                        failure.set(e);
                     }
+                }, "checkstyle-daemon-report");
+                parser.start();
+                try (var out = new PipedOutputStream(in)) {
+                    executeDaemon(files, options, out);
+                } catch (IOException e) {
+                    // The report was abandoned by the parser
+                    if (failure.get() == null) {
+                        throw e;
+                    }
+                } finally {
+                    parser.join();
+                }
+                if (failure.get() instanceof IOException e) {
+                    throw e;
+                } else if (failure.get() instanceof RuntimeException e) {
+                    throw e;
+                }
+                if (track != null) {
+                    track.finish();
+                }
+            } finally {
+                // Failed audits are timed too
+                if (timing_ && collector_ != null) {
+                    collector_.phase(PhaseTimer.PROCESS, Duration.ofNanos(System.nanoTime() - start));
                 }
             }
-
-            if (!excludeRegex_.isEmpty()) {
-                for (var e : excludeRegex_) {
-                    if (isNotBlank(e)) {
-                        args.add("-x " + e);
-                    }
+        } else if (inProcess_) {
+            var start = System.nanoTime();
+            var recording = startFlightRecording();
+            try (var checker = new InProcessChecker(checkstyleClasspath())) {
+                if (timing_ || trace_ != null) {
+                    start = phase(PhaseTimer.STARTUP, start);
+                    checker.configure(options);
+                    phase(PhaseTimer.CONFIGURATION, start);
                 }
+                executeAuditShards(files, listener, (shard, l) -> checker.audit(options, shard, l));
+            } finally {
+                stopFlightRecording(recording);
             }
+            if (metricsFile_ != null && collector_ != null) {
+                collector_.peakRss(PeakRssSampler.peakRss(ProcessHandle.current().pid()));
+            }
+        } else {
+            executeAuditShards(files, listener, (shard, l) -> executeForkEvents(options, shard, l));
+        }
+    }
+
+    /*
+     * Audits the files, split into concurrently audited shards according to the parallelism.
+     */
+    private void executeAuditShards(List<File> files, AuditEventListener listener, ShardAudit audit)
+            throws IOException, InterruptedException {
+        var shards = ShardPlanner.split(files, parallelism_);
+        if (shards.size() <= 1) {
+            executeTimedAudit(audit, files, listener);
+            return;
+        }
 
-            args.addAll(sourceDir_.stream().map(File::getAbsolutePath).toList());
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Auditing %d file(s) in %d shards.", files.size(), shards.size()));
+        }
 
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, String.join(" ", args));
+        listener.auditStarted();
+        var merger = new ShardMerger(files, listener);
+        var executor = Executors.newFixedThreadPool(shards.size());
+        try {
+            var completion = new ExecutorCompletionService<Void>(executor);
+            for (var shard : shards) {
+                completion.submit(() -> {
+                    executeTimedAudit(audit, shard, merger.shardListener(shard));
+                    return null;
+                });
+            }
+            // Wait in completion order, so that a failed shard cancels the others right away
+            for (var i = 0; i < shards.size(); i++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException io) {
+                        throw io;
+                    } else if (e.getCause() instanceof RuntimeException re) {
+                        throw re;
+                    }
+                    throw new IOException(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            forks_.forEach(Process::destroyForcibly);
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES) && LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.warning("Some audit shards could not be stopped.");
             }
         }
-
-        return args;
+        var start = System.nanoTime();
+        merger.finish();
+        listener.auditFinished();
+        if (trace_ != null) {
+            trace_.span(TraceWriter.MAIN_TRACK, PhaseTimer.REPORT, start, System.nanoTime());
+        }
     }
 
-    /**
-     * Configures the {@link BaseProject}.
+    /*
+     * Profiles the check modules in-process on the audited files, reporting the most expensive ones.
      */
-    @Override
-    public CheckstyleOperation fromProject(BaseProject project) {
+    private void executeProfile(List<File> files) {
+        if (!InProcessChecker.isSupported(options_.keySet())) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("The check modules can't be profiled with the specified options.");
+            }
+            return;
+        }
+        var start = System.nanoTime();
+        try (var checker = new InProcessChecker(checkstyleClasspath())) {
+            var profile = checker.profile(options_, files);
+            var json = new File(project_.buildDirectory(), "checkstyle/profile.json").toPath();
+            Files.createDirectories(json.getParent());
+            Files.writeString(json, profile.toJson(profileTop_));
+            if (collector_ != null) {
+                collector_.profile(profile);
+            }
+            if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info(profile.toText(profileTop_) + System.lineSeparator() + "Profile saved to: " + json);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.log(Level.WARNING, "Unable to profile the check modules: " + e.getMessage(), e);
+            }
+        }
+        phase("profile", start);
+    }
+
+    /*
+     * Runs the audit, timing and tracing its phases if enabled.
+     */
+    private void executeTimedAudit(ShardAudit audit, List<File> files, AuditEventListener listener)
+            throws IOException, InterruptedException {
+        var start = System.nanoTime();
+        var collector = collector_;
+        // The report of a forked Checkstyle is buffered, its events don't tell when the checks started
+        var timer = timing_ && collector != null && inProcess_ ? new PhaseTimer(listener, collector::phase) : null;
+        var track = trace_ == null ? null : trace_.track(timer == null ? listener : timer);
+        try {
+            audit.run(files, track != null ? track : timer != null ? timer : listener);
+            if (track != null) {
+                track.finish();
+            }
+            if (timer != null) {
+                timer.mark(PhaseTimer.REPORT);
+            }
+        } finally {
+            // Failed forks are timed too
+            if (timer == null && timing_ && collector != null) {
+                collector.phase(PhaseTimer.PROCESS, Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /*
+     * Forks Checkstyle with the discovered source files, writing its report directly.
+     */
+    private void executeFork() throws IOException, InterruptedException, ExitStatusException {
+        setDefaultSourceDirs();
+        // The listed files are streamed to the argument file
+        auditedFiles_ = findSourceFiles(false);
+        if (auditedFiles_.isEmpty() && !isAnyListed()) {
+            // Checkstyle requires at least one file
+            if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info("No source files found.");
+            }
+            return;
+        }
+        try {
+            forkCommand_ = forkCommand(auditedFiles_);
+            super.execute();
+        } catch (ExitStatusException e) {
+            if (!ClassDataSharing.dumpFailed(classDataSharingOptions_)) {
+                throw e;
+            }
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Unable to create the class data sharing archive, running Checkstyle without it.");
+            }
+            forkCommand_ = forkCommand(auditedFiles_);
+            super.execute();
+        } finally {
+            forkCommand_ = null;
+        }
+    }
+
+    /*
+     * Forks Checkstyle and decodes its XML report, as it is being written.
+     */
+    private void executeForkEvents(Map<String, String> options, List<File> files, AuditEventListener listener)
+            throws IOException, InterruptedException {
+        var command = processCommand(options, files, null);
+        var process = new ProcessBuilder(command)
+                .directory(workDirectory())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        forks_.add(process);
+        var sampler = metricsFile_ == null ? null : new PeakRssSampler(listener, process.pid());
+        var isCompleted = false;
+        try (var in = process.getInputStream()) {
+            process.getOutputStream().close();
+            XmlReportParser.parse(in, sampler == null ? listener : sampler);
+            in.transferTo(OutputStream.nullOutputStream());
+            process.waitFor();
+            isCompleted = true;
+            // The report was decoded, only the archive is lost
+            ClassDataSharing.dumpFailed(command);
+            if (sampler != null && collector_ != null) {
+                collector_.peakRss(sampler.peakRss());
+            }
+        } finally {
+            forks_.remove(process);
+            if (!isCompleted) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Part of the {@link #execute} operation, runs Checkstyle through the daemon.
+     *
+     * @param files   the files to audit
+     * @param options the command line options
+     * @param out     the output stream to write the report to, if no output file is specified
+     * @return the number of errors
+     * @throws IOException if the daemon could not be started, or the audit failed
+     */
+    protected int executeDaemon(List<File> files, Map<String, String> options, OutputStream out)
+            throws IOException {
+        var classpath = checkstyleClasspath();
+        var fingerprint = new Fingerprint().add(javaLauncher()).add(String.valueOf(jvmProfile_))
+                .add(String.join(" ", jvmOptions_));
+        try {
+            fingerprint.add(new File(CheckstyleDaemon.class.getProtectionDomain().getCodeSource().getLocation()
+                    .toURI()));
+        } catch (URISyntaxException | SecurityException e) {
+            fingerprint.add(e.getMessage());
+        }
+        classpath.forEach(fingerprint::add);
+        var config = options_.get("-c");
+        if (config != null && new File(config).isFile()) {
+            fingerprint.add(new File(config));
+        } else {
+            fingerprint.add(config);
+        }
+
+        var stateFile = daemonStateFile();
+        if (!CheckstyleDaemon.isRunning(stateFile, fingerprint.toString())) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Starting the Checkstyle daemon.");
+            }
+            var bytes = 0L;
+            if (jvmProfile_ == JvmProfile.THROUGHPUT) {
+                for (var file : files) {
+                    bytes += file.length();
+                }
+            }
+            CheckstyleDaemon.start(stateFile, javaLauncher(), jvmOptions(files.size(), bytes), daemonIdleTimeout_,
+                    fingerprint.toString());
+        }
+
+        // The daemon doesn't share the current working directory
+        var daemonOptions = new HashMap<>(options);
+        daemonOptions.computeIfPresent("-o", (k, v) -> new File(v).getAbsolutePath());
+        for (var option : List.of("-c", "-p")) {
+            daemonOptions.computeIfPresent(option,
+                    (k, v) -> new File(v).exists() ? new File(v).getAbsolutePath() : v);
+        }
+        return CheckstyleDaemon.audit(stateFile, classpath, daemonOptions, files, out);
+    }
+
+    /**
+     * Part of the {@link #execute} operation, audits the source files through the audit events, which are then
+     * written in the requested format.
+     *
+     * @throws IOException          if an error occurs while writing the report
+     * @throws InterruptedException if interrupted while waiting for the forked process
+     * @throws ExitStatusException  if errors were found or Checkstyle could not be run
+     */
+    protected void executeEventAudit() throws IOException, InterruptedException, ExitStatusException {
+        var start = System.nanoTime();
+        setDefaultSourceDirs();
+
+        var files = findSourceFiles();
+        Map<String, int[]> changedLines = null;
+        var baseRef = diffBase();
+        if (baseRef != null) {
+            try {
+                // Matched by real path, the files keep the form they were found in
+                files = SourceFileFinder.retain(files, GitDiff.changedFiles(workDirectory(), baseRef));
+                if (changedLinesOnly_) {
+                    changedLines = GitDiff.changedLines(workDirectory(), baseRef, files);
+                }
+            } catch (IOException e) {
+                if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                    LOGGER.severe(e.getMessage());
+                }
+                throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+            }
+            if (files.isEmpty() && LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info("No source files changed since: " + baseRef);
+            }
+        }
+        var version = checkstyleVersion();
+        auditedFiles_ = files;
+        start = phase("discovery", start);
+
+        int errors;
+        ViolationThreshold threshold = null;
+        try (var report = reportWriter(version)) {
+            AuditEventListener listener = report;
+            if (maxErrors_ > 0 || maxWarnings_ > 0) {
+                threshold = new ViolationThreshold(maxErrors_, maxWarnings_);
+            }
+            if (collector_ != null || threshold != null || !listeners_.isEmpty()) {
+                var all = new ArrayList<AuditEventListener>(listeners_.size() + 3);
+                all.add(report);
+                if (collector_ != null) {
+                    all.add(collector_);
+                }
+                all.addAll(listeners_);
+                if (threshold != null) {
+                    all.add(threshold);
+                }
+                listener = new CompositeListener(all);
+            }
+            if (changedLines != null) {
+                listener = new ChangedLinesFilter(listener, changedLines, changedLinesContext_);
+            }
+            BaselineFilter baselineFilter = null;
+            var isRecording = false;
+            if (baseline_ != null) {
+                var exists = Files.exists(baseline_);
+                isRecording = updateBaseline_ || !exists;
+                if (isRecording && isPartialAudit()) {
+                    if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                        LOGGER.warning("The baseline is only recorded by a full audit, the violations of the "
+                                + "other files would be missing: " + baseline_);
+                    }
+                    isRecording = false;
+                }
+                if (isRecording || exists) {
+                    baselineFilter = new BaselineFilter(listener, isRecording ? null : Baseline.load(baseline_),
+                            workDirectory().toPath());
+                    listener = baselineFilter;
+                }
+            }
+            try {
+                if (incremental_) {
+                    var index = IncrementalIndex.load(new File(project_.buildDirectory(),
+                            "checkstyle/incremental.idx"), incrementalFingerprint(version));
+                    var invalidated = index.invalidated(files);
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.fine(String.format("Incremental audit: %d file(s) checked, %d file(s) unchanged.",
+                                index.misses(), index.hits()));
+                    }
+                    if (collector_ != null) {
+                        collector_.cache(index.hits(), index.misses());
+                    }
+                    bytesRead(invalidated);
+                    // The checked files are reported as they are audited, followed by the unchanged files
+                    listener.auditStarted();
+                    executeAuditEvents(invalidated, index.recorder(listener));
+                    index.save();
+                    var checked = new HashSet<>(invalidated);
+                    index.replay(files.stream().filter(file -> !checked.contains(file)).toList(), listener);
+                    listener.auditFinished();
+                } else {
+                    bytesRead(files);
+                    executeAuditEvents(files, listener);
+                }
+            } catch (IOException | RuntimeException e) {
+                if (threshold == null || !threshold.isExceeded()) {
+                    throw e;
+                }
+                // Complete the report with the violations found so far
+                listener.auditFinished();
+            }
+            errors = report.errorCount();
+            if (baselineFilter != null) {
+                saveBaseline(baselineFilter, isRecording);
+            }
+            phase("audit", start);
+        } catch (IOException e) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            }
+            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+        }
+
+        if (threshold != null && threshold.isExceeded()) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.severe(String.format("Checkstyle stopped after %d errors and %d warnings.",
+                        threshold.errors(), threshold.warnings()));
+            }
+            if (collector_ != null) {
+                collector_.aborted();
+            }
+            throw new ExitStatusException(EXIT_THRESHOLD_EXCEEDED);
+        }
+        if (errors > 0 && LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+            LOGGER.severe("Checkstyle ends with " + errors + " errors.");
+        }
+        ExitStatusException.throwOnFailure(errors);
+    }
+
+    /**
+     * Part of the {@link #execute} operation, runs Checkstyle within the current JVM or through the daemon.
+     *
+     * @throws ExitStatusException if errors were found or Checkstyle could not be run
+     */
+    protected void executeInProcess() throws ExitStatusException {
+        var start = System.nanoTime();
+        setDefaultSourceDirs();
+        var files = findSourceFiles();
+        start = phase("discovery", start);
+
+        int errors;
+        try {
+            if (daemon_) {
+                errors = executeDaemon(files, options_, System.out);
+            } else {
+                var recording = startFlightRecording();
+                try (var checker = new InProcessChecker(checkstyleClasspath())) {
+                    errors = checker.audit(options_, files, System.out, collector_);
+                } finally {
+                    stopFlightRecording(recording);
+                }
+            }
+            phase("audit", start);
+        } catch (IOException e) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            }
+            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+        }
+
+        if (errors > 0 && LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+            LOGGER.severe("Checkstyle ends with " + errors + " errors.");
+        }
+        ExitStatusException.throwOnFailure(errors);
+    }
+
+    /**
+     * Part of the {@link #execute} operation, constructs the command list
+     * to use for building the process.
+     */
+    @Override
+    protected List<String> executeConstructProcessCommandList() {
+        if (project_ == null) {
+            return new ArrayList<>();
+        }
+        if (forkCommand_ != null) {
+            return forkCommand_;
+        }
+        try {
+            setDefaultSourceDirs();
+            return forkCommand(findSourceFiles(false));
+        } catch (ExitStatusException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Audits only the files that changed since the previous run.
+     * <p>
+     * An index of the audited files, along with their size, last modification time, content hash and violations, is
+     * kept in the project's build directory. Only new or changed files are checked, the violations of the other files
+     * are replayed from the index, in any {@link #format(OutputFormat) format}. The index is invalidated whenever the
+     * configuration file, properties file or Checkstyle version changes.
+     * <p>
+     * The changed files are reported as they are audited, followed by the unchanged files.
+     * <p>
+     * Modules referencing other files, such as suppression filters, are not tracked. The index should be cleared, by
+     * cleaning the build directory, whenever these files are modified.
+     *
+     * @param incremental {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation incremental(boolean incremental) {
+        incremental_ = incremental;
+        return this;
+    }
+
+    /*
+     * Returns the fingerprint of the configuration and Checkstyle version, used to invalidate the incremental index.
+     */
+    private String incrementalFingerprint(String version) {
+        var fingerprint = new Fingerprint().add(version).add(String.valueOf(options_.containsKey("-E")));
+        for (var option : List.of("-c", "-p")) {
+            var value = options_.get(option);
+            if (value != null && new File(value).isFile()) {
+                fingerprint.add(new File(value));
+            } else {
+                fingerprint.add(value);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Stops the audit as soon as an error is found.
+     * <p>
+     * This is equivalent to {@link #maxErrors(int) maxErrors(1)}.
+     *
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation failFast() {
+        return maxErrors(1);
+    }
+
+    /*
+     * Constructs the command line to fork Checkstyle with the given files and the listed ones, logging any argument
+     * file that could not be written.
+     */
+    private List<String> forkCommand(List<File> files) throws ExitStatusException {
+        try {
+            return processCommand(options_, files, sourceFilesFrom_);
+        } catch (IOException | IllegalArgumentException e) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.severe("Unable to write the argument file: " + e.getMessage());
+            }
+            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+        }
+    }
+
+    /*
+     * Lists the source files to audit, logging any unreadable file list or invalid exclusion pattern.
+     */
+    private List<File> findSourceFiles() throws ExitStatusException {
+        return findSourceFiles(true);
+    }
+
+    /*
+     * Lists the source files to audit, optionally including the listed files.
+     */
+    private List<File> findSourceFiles(boolean isListed) throws ExitStatusException {
+        try {
+            var roots = SourceFileFinder.collapse(sourceDir_);
+            var files = SourceFileFinder.find(roots, exclusionMatcher(), fileExtensions(), respectGitignore_);
+            if (isListed && sourceFilesFrom_ != null) {
+                files.addAll(SourceFileFinder.read(sourceFilesFrom_, exclusionMatcher()));
+            }
+            duplicates(sourceDir_.size() - roots.size() + SourceFileFinder.deduplicate(files));
+            return files;
+        } catch (IOException | IllegalArgumentException e) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.severe(e.getMessage());
+            }
+            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+        }
+    }
+
+    /*
+     * Returns the file extensions the configuration is restricted to, so other files are not even listed.
+     */
+    private Set<String> fileExtensions() {
+        var config = options_.get("-c");
+        return config == null ? Set.of() : SourceFileFinder.fileExtensions(new File(config));
+    }
+
+    /**
+     * Records Checkstyle with the Java Flight Recorder to the given file, and logs a summary of the recording.
+     * <p>
+     * A forked Checkstyle is recorded from the start of its JVM, each {@link #parallelism(int) parallel} process
+     * getting its own file numbered after the given one, such as {@code checkstyle-2.jfr}. In-process, the current JVM
+     * is recorded for the duration of the audit. Recording through the {@link #daemon(boolean) daemon} is not
+     * supported.
+     * <p>
+     * The summary lists the total garbage collection pauses, the allocation rate, the peak heap usage and the hottest
+     * methods. It is also available from the {@link #result() result}, while the recordings can be opened with JDK
+     * Mission Control for further analysis.
+     *
+     * @param file the recording file, or {@code null} to disable recording
+     * @return the checkstyle operation
+     * @see FlightSummary
+     */
+    public CheckstyleOperation flightRecording(Path file) {
+        flightRecording_ = file;
+        return this;
+    }
+
+    /**
+     * Records Checkstyle with the Java Flight Recorder to the given file, and logs a summary of the recording.
+     *
+     * @param file the recording file
+     * @return the checkstyle operation
+     * @see #flightRecording(Path)
+     */
+    public CheckstyleOperation flightRecording(File file) {
+        return flightRecording(file.toPath());
+    }
+
+    /**
+     * Records Checkstyle with the Java Flight Recorder to the given file, and logs a summary of the recording.
+     *
+     * @param file the recording file
+     * @return the checkstyle operation
+     * @see #flightRecording(Path)
+     */
+    public CheckstyleOperation flightRecording(String file) {
+        return flightRecording(Path.of(file));
+    }
+
+    /**
+     * Returns the file Checkstyle is recorded to.
+     *
+     * @return the recording file, or {@code null}
+     */
+    public Path flightRecording() {
+        return flightRecording_;
+    }
+
+    /*
+     * Returns the file of the next recording, numbering those after the first one.
+     */
+    private synchronized Path flightRecordingFile() {
+        var file = flightRecording_.toAbsolutePath();
+        var count = flightRecordings_.size();
+        if (count > 0) {
+            var name = file.getFileName().toString();
+            var dot = name.lastIndexOf('.');
+            var suffix = "-" + (count + 1);
+            file = file.resolveSibling(dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix);
+        }
+        flightRecordings_.add(file);
+        return file;
+    }
+
+    /**
+     * Configures the {@link BaseProject}.
+     */
+    @Override
+    public CheckstyleOperation fromProject(BaseProject project) {
         project_ = project;
         return this;
     }
@@ -318,40 +1499,533 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
      * Used only with the {@link #configurationFile(String) configurationFile} option. Output location can be specified
      * with the {@link #outputPath(String) output} option.
      *
-     * @param xPathSuppression {@code true} or {@code false}
+     * @param xPathSuppression {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation generateXpathSuppression(boolean xPathSuppression) {
+        if (xPathSuppression) {
+            options_.put("-g", "");
+        } else {
+            options_.remove("-g");
+        }
+        return this;
+    }
+
+    /**
+     * Runs Checkstyle within the current JVM, instead of forking a new Java process.
+     * <p>
+     * Checkstyle is loaded through an isolated class loader using the same classpath as the forked process, which
+     * avoids the JVM startup cost on every run. The tree, xpath and suppression options are only available from the
+     * command line, Checkstyle will be forked whenever they are specified.
+     *
+     * @param inProcess {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation inProcess(boolean inProcess) {
+        inProcess_ = inProcess;
+        return this;
+    }
+
+    /*
+     * Determines whether the configuration only uses modules provided by Checkstyle.
+     */
+    private boolean isBuiltinOnly(List<File> jars) {
+        var checkstyleJar = CheckstyleClasspath.findCheckstyleJar(jars);
+        var config = options_.get("-c");
+        if (checkstyleJar == null || config == null
+                || !CheckstyleClasspath.isBuiltinOnly(new File(config), checkstyleJar)) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Custom modules may be configured, using the full classpath.");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Determines whether the audit must go through the audit events.
+     */
+    private boolean isEventAudit() {
+        return !eventFeatures().isEmpty();
+    }
+
+    /**
+     * Returns whether only the violations located on changed lines are reported.
+     *
+     * @return {@code true} if only violations on changed lines are reported
+     */
+    public boolean isChangedLinesOnly() {
+        return changedLinesOnly_;
+    }
+
+    /**
+     * Returns whether a class data sharing archive is used to speed up the startup of the forked Checkstyle JVM.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isClassDataSharing() {
+        return classDataSharing_;
+    }
+
+    /**
+     * Returns whether Checkstyle is run through the daemon.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isDaemon() {
+        return daemon_;
+    }
+
+    /**
+     * Returns whether only the files that changed since the previous run are audited.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isIncremental() {
+        return incremental_;
+    }
+
+    /**
+     * Returns whether Checkstyle is run within the current JVM.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isInProcess() {
+        return inProcess_;
+    }
+
+    /**
+     * Returns whether only Checkstyle and its runtime dependencies are put on the classpath used to run it.
+     *
+     * @return {@code true} if the minimal classpath is used
+     */
+    public boolean isMinimalClasspath() {
+        return minimalClasspath_;
+    }
+
+    /**
+     * Returns whether the check modules are profiled.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isProfileChecks() {
+        return profileChecks_;
+    }
+
+    /**
+     * Returns whether the files and directories ignored by Git are skipped.
+     *
+     * @return {@code true} if the Git ignore rules are honored
+     */
+    public boolean isRespectGitignore() {
+        return respectGitignore_;
+    }
+
+    /**
+     * Returns whether the time spent in each phase of the execution is recorded.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isTiming() {
+        return timing_;
+    }
+
+    /**
+     * Returns whether the baseline is rewritten with the current violations.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isUpdateBaseline() {
+        return updateBaseline_;
+    }
+
+    /*
+     * Determines whether any readable source file is listed in the file, logging any unreadable file list.
+     */
+    private boolean isAnyListed() throws ExitStatusException {
+        if (sourceFilesFrom_ == null) {
+            return false;
+        }
+        try (var files = SourceFileFinder.stream(sourceFilesFrom_, exclusionMatcher())) {
+            return files.findAny().isPresent();
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            if (LOGGER.isLoggable(Level.SEVERE) && !silent()) {
+                LOGGER.severe(e.getMessage());
+            }
+            throw new ExitStatusException(ExitStatusException.EXIT_FAILURE);
+        }
+    }
+
+    /*
+     * Determines if a string is not blank.
+     */
+    private boolean isNotBlank(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    /*
+     * Determines whether only some of the source files are audited, such as those changed since a Git reference or
+     * only listed in a file.
+     */
+    private boolean isPartialAudit() {
+        return diffBase() != null || sourceFilesFrom_ != null && sourceDir_.isEmpty();
+    }
+
+    /**
+     * Specifies the home directory of the Java runtime used to fork Checkstyle, instead of the
+     * {@link #javaTool(String) java tool}.
+     *
+     * @param javaHome the Java home directory
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation javaHome(String javaHome) {
+        return javaHome(isNotBlank(javaHome) ? new File(javaHome) : null);
+    }
+
+    /**
+     * Specifies the home directory of the Java runtime used to fork Checkstyle, instead of the
+     * {@link #javaTool(String) java tool}.
+     *
+     * @param javaHome the Java home directory
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation javaHome(File javaHome) {
+        javaHome_ = javaHome;
+        return this;
+    }
+
+    /**
+     * Specifies the home directory of the Java runtime used to fork Checkstyle, instead of the
+     * {@link #javaTool(String) java tool}.
+     *
+     * @param javaHome the Java home directory
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation javaHome(Path javaHome) {
+        return javaHome(javaHome != null ? javaHome.toFile() : null);
+    }
+
+    /**
+     * Returns the home directory of the Java runtime used to fork Checkstyle.
+     *
+     * @return the Java home directory, or {@code null} if the {@link #javaTool() java tool} is used
+     */
+    public File javaHome() {
+        return javaHome_;
+    }
+
+    /*
+     * Returns the Java launcher used to fork Checkstyle.
+     */
+    private String javaLauncher() {
+        if (javaHome_ != null) {
+            return new File(new File(javaHome_, "bin"), "java").getPath();
+        }
+        return javaTool();
+    }
+
+    /**
+     * This option is used to print the Parse Tree of the Javadoc comment. The file has to contain only Javadoc comment
+     * content excluding '&#47;**' and '*&#47;' at the beginning and at the end respectively. It can only be used on a
+     * single file and cannot be combined with other options.
+     *
+     * @param isTree {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation javadocTree(boolean isTree) {
+        if (isTree) {
+            options_.put("-j", "");
+        } else {
+            options_.remove("-j");
+        }
+        return this;
+    }
+
+    /**
+     * Adds a listener notified of the audit events as they occur, while Checkstyle is running.
+     * <p>
+     * When forking, the events are decoded from the Checkstyle output as it is being written. The listeners are
+     * notified in the order they were added, after the report, and never concurrently.
+     *
+     * @param listener the listener
+     * @return the checkstyle operation
+     * @see #onViolation(Consumer)
+     */
+    public CheckstyleOperation listener(AuditEventListener listener) {
+        if (listener != null) {
+            listeners_.add(listener);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the audit event listeners.
+     *
+     * @return the listeners
+     */
+    public List<AuditEventListener> listeners() {
+        return listeners_;
+    }
+
+    /**
+     * Only puts Checkstyle and its runtime dependencies on the classpath used to run it.
+     * <p>
+     * The required jars are selected from the project's test and compile libraries. If the project declares the
+     * Checkstyle dependency, its runtime dependencies are resolved by bld. Otherwise, the dependencies declared in the
+     * Maven POM embedded in the Checkstyle jar and its dependencies are followed. The resolved list is cached in the
+     * project's build directory until the libraries change.
+     * <p>
+     * The project's build directories, and all of its libraries, are only added if the configuration uses modules not
+     * provided by Checkstyle, such as custom checks, or if the dependencies could not be resolved, such as when a jar
+     * embeds no POM.
+     *
+     * @param minimalClasspath {@code true} to use the minimal classpath
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation minimalClasspath(boolean minimalClasspath) {
+        minimalClasspath_ = minimalClasspath;
+        return this;
+    }
+
+    /*
+     * Resolves the minimal classpath, or returns null if the full classpath is required.
+     */
+    private List<File> minimalClasspath(List<File> jars) {
+        try {
+            var classpath = CheckstyleClasspath.resolve(jars, checkstyleResolver(),
+                    new File(project_.buildDirectory(), "checkstyle/classpath.txt"));
+            if (classpath.isEmpty()) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine("The Checkstyle dependencies are unknown, using the full classpath.");
+                }
+                return null;
+            }
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("Using %d of %d jar(s) to run Checkstyle.", classpath.size(),
+                        jars.size()));
+            }
+            return classpath;
+        } catch (IOException | DependencyException e) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Unable to resolve the Checkstyle classpath: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Adds options to the JVM used to fork Checkstyle, such as {@code -Xmx2g}.
+     * <p>
+     * The options are added after those of the {@link #jvmProfile(JvmProfile) JVM profile}, and therefore take
+     * precedence.
+     *
+     * @param options the JVM options
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation jvmOptions(String... options) {
+        return jvmOptions(List.of(options));
+    }
+
+    /**
+     * Adds options to the JVM used to fork Checkstyle, such as {@code -Xmx2g}.
+     * <p>
+     * The options are added after those of the {@link #jvmProfile(JvmProfile) JVM profile}, and therefore take
+     * precedence.
+     *
+     * @param options the JVM options
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation jvmOptions(Collection<String> options) {
+        options.stream().filter(this::isNotBlank).forEach(jvmOptions_::add);
+        return this;
+    }
+
+    /**
+     * Returns the options added to the JVM used to fork Checkstyle.
+     *
+     * @return the JVM options
+     */
+    public List<String> jvmOptions() {
+        return jvmOptions_;
+    }
+
+    /*
+     * Returns the JVM options of the profile, sized for the given number and size of source files, followed by the raw
+     * JVM options.
+     */
+    private List<String> jvmOptions(int files, long bytes) {
+        var options = new ArrayList<String>();
+        if (jvmProfile_ != null) {
+            options.addAll(jvmProfile_.jvmOptions(files, bytes));
+        }
+        options.addAll(jvmOptions_);
+        return options;
+    }
+
+    /**
+     * Tunes the JVM used to fork Checkstyle, or to start the daemon, according to the given profile.
+     * <p>
+     * The profile and the resulting JVM options are logged once Checkstyle has run, along with its execution time.
+     *
+     * @param profile the JVM profile, or {@code null} to use the JVM defaults
+     * @return the checkstyle operation
+     * @see #jvmOptions(String...)
+     */
+    public CheckstyleOperation jvmProfile(JvmProfile profile) {
+        jvmProfile_ = profile;
+        return this;
+    }
+
+    /**
+     * Returns the profile of the JVM used to fork Checkstyle.
+     *
+     * @return the JVM profile, or {@code null} if the JVM defaults are used
+     */
+    public JvmProfile jvmProfile() {
+        return jvmProfile_;
+    }
+
+    /**
+     * Stops the audit once the given number of errors is reached.
+     * <p>
+     * The violations are counted as they are reported: the Checkstyle process is terminated, or the in-process audit
+     * interrupted, as soon as the threshold is reached. The report is then completed with the violations found so far
+     * and the operation fails with the {@link #EXIT_THRESHOLD_EXCEEDED} exit status.
+     *
+     * @param maxErrors the maximum number of errors, {@code 0} for no limit
+     * @return the checkstyle operation
+     * @see #failFast()
+     */
+    public CheckstyleOperation maxErrors(int maxErrors) {
+        maxErrors_ = Math.max(0, maxErrors);
+        return this;
+    }
+
+    /**
+     * Returns the number of errors stopping the audit.
+     *
+     * @return the maximum number of errors, {@code 0} for no limit
+     */
+    public int maxErrors() {
+        return maxErrors_;
+    }
+
+    /**
+     * Stops the audit once the given number of warnings is reached.
+     *
+     * @param maxWarnings the maximum number of warnings, {@code 0} for no limit
+     * @return the checkstyle operation
+     * @see #maxErrors(int)
+     */
+    public CheckstyleOperation maxWarnings(int maxWarnings) {
+        maxWarnings_ = Math.max(0, maxWarnings);
+        return this;
+    }
+
+    /**
+     * Returns the number of warnings stopping the audit.
+     *
+     * @return the maximum number of warnings, {@code 0} for no limit
+     */
+    public int maxWarnings() {
+        return maxWarnings_;
+    }
+
+    /**
+     * Writes the metrics of each execution to the given file, in the OpenMetrics text format.
+     * <p>
+     * The file is atomically replaced after each execution, so it can be read at any time, such as by the Prometheus
+     * node exporter textfile collector. The metrics include the files audited and their size, the violations by
+     * severity and check module, the phase durations, the peak resident set size of Checkstyle on Linux, and the
+     * cache hit rate of {@link #incremental(boolean) incremental} audits. The audit events are collected to do so,
+     * which requires forking with an XML report when not running in-process.
+     *
+     * @param file the metrics file, typically with a {@code .prom} extension
+     * @return the checkstyle operation
+     * @see OpenMetrics
+     */
+    public CheckstyleOperation metricsFile(Path file) {
+        metricsFile_ = file;
+        return this;
+    }
+
+    /**
+     * Writes the metrics of each execution to the given file, in the OpenMetrics text format.
+     *
+     * @param file the metrics file
+     * @return the checkstyle operation
+     * @see #metricsFile(Path)
+     */
+    public CheckstyleOperation metricsFile(File file) {
+        return metricsFile(file.toPath());
+    }
+
+    /**
+     * Writes the metrics of each execution to the given file, in the OpenMetrics text format.
+     *
+     * @param file the metrics file
+     * @return the checkstyle operation
+     * @see #metricsFile(Path)
+     */
+    public CheckstyleOperation metricsFile(String file) {
+        return metricsFile(Path.of(file));
+    }
+
+    /**
+     * Returns the file the metrics are written to.
+     *
+     * @return the metrics file, or {@code null} if none
+     */
+    public Path metricsFile() {
+        return metricsFile_;
+    }
+
+    /**
+     * Adds an action performed when the audit of a file is finished.
+     *
+     * @param action the action, receiving the absolute path of the file
      * @return the checkstyle operation
+     * @see #listener(AuditEventListener)
      */
-    public CheckstyleOperation generateXpathSuppression(boolean xPathSuppression) {
-        if (xPathSuppression) {
-            options_.put("-g", "");
-        } else {
-            options_.remove("-g");
-        }
-        return this;
+    public CheckstyleOperation onFileFinished(Consumer<String> action) {
+        return listener(new AuditEventListener() {
+            @Override
+            public void fileFinished(String file) {
+                action.accept(file);
+            }
+        });
     }
 
-    /*
-     * Determines if a string is not blank.
+    /**
+     * Adds an action performed when the audit of a file starts.
+     *
+     * @param action the action, receiving the absolute path of the file
+     * @return the checkstyle operation
+     * @see #listener(AuditEventListener)
      */
-    private boolean isNotBlank(String s) {
-        return s != null && !s.isBlank();
+    public CheckstyleOperation onFileStarted(Consumer<String> action) {
+        return listener(new AuditEventListener() {
+            @Override
+            public void fileStarted(String file) {
+                action.accept(file);
+            }
+        });
     }
 
     /**
-     * This option is used to print the Parse Tree of the Javadoc comment. The file has to contain only Javadoc comment
-     * content excluding '&#47;**' and '*&#47;' at the beginning and at the end respectively. It can only be used on a
-     * single file and cannot be combined with other options.
+     * Adds an action performed when a violation is found.
      *
-     * @param isTree {@code true} or {@code false}
+     * @param action the action, receiving the violation
      * @return the checkstyle operation
+     * @see #listener(AuditEventListener)
      */
-    public CheckstyleOperation javadocTree(boolean isTree) {
-        if (isTree) {
-            options_.put("-j", "");
-        } else {
-            options_.remove("-j");
-        }
-        return this;
+    public CheckstyleOperation onViolation(Consumer<Violation> action) {
+        return listener(new AuditEventListener() {
+            @Override
+            public void violation(Violation violation) {
+                action.accept(violation);
+            }
+        });
     }
 
     /**
@@ -402,6 +2076,197 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return outputPath(file.toFile().getAbsolutePath());
     }
 
+    /*
+     * Constructs the command line to run Checkstyle with the given options and source files, followed by the files
+     * listed in the given file, if any.
+     */
+    private List<String> processCommand(Map<String, String> options, List<File> files, Path listFile)
+            throws IOException {
+        // The launcher only expands argument files up to the main class, so everything from the classpath on goes in
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-cp");
+        // The archived classes are only mapped if the classpath matches the one they were dumped with
+        if (minimalClasspath_ || classDataSharing_) {
+            arguments.add(String.join(File.pathSeparator,
+                    checkstyleClasspath().stream().map(File::getPath).toList()));
+        } else {
+            arguments.add(String.format("%s:%s:%s:%s", new File(project_.libTestDirectory(), "*"),
+                    new File(project_.libCompileDirectory(), "*"), project_.buildMainDirectory(),
+                    project_.buildTestDirectory()));
+        }
+        arguments.add("com.puppycrawl.tools.checkstyle.Main");
+
+        options.forEach((k, v) -> {
+            arguments.add(k);
+            if (!v.isEmpty()) {
+                arguments.add(v);
+            }
+        });
+
+        // Exclusions are applied while discovering the files, rather than by Checkstyle
+        var count = files.size();
+        var bytes = 0L;
+        for (var file : files) {
+            arguments.add(file.getAbsolutePath());
+            if (jvmProfile_ == JvmProfile.THROUGHPUT) {
+                bytes += file.length();
+            }
+        }
+
+        // The listed files can't be counted before they are read, so they always go through an argument file
+        ArgumentFile argumentFile = null;
+        if (listFile != null) {
+            argumentFile = argumentFile(arguments, listFile);
+            count += argumentFile.files();
+            bytes += argumentFile.bytes();
+        }
+
+        final List<String> args = new ArrayList<>();
+        args.add(javaLauncher());
+
+        if (classDataSharing_) {
+            var classpath = checkstyleClasspath();
+            var cds = ClassDataSharing.jvmOptions(new File(project_.buildDirectory(), "checkstyle/cds"),
+                    javaHome_ != null ? javaHome_ : ClassDataSharing.javaHome(javaTool()), classpath);
+            if (cds.isEmpty() && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(ClassDataSharing.isSupported(classpath)
+                        ? "Class data sharing is not available."
+                        : "Class data sharing is not supported with custom modules.");
+            }
+            classDataSharingOptions_ = cds;
+            args.addAll(cds);
+        }
+
+        if (jvmProfile_ != null || !jvmOptions_.isEmpty()) {
+            var jvmOptions = jvmOptions(count, bytes);
+            forkedJvmOptions_ = jvmOptions;
+            args.addAll(jvmOptions);
+        }
+
+        if (flightRecording_ != null) {
+            try {
+                args.addAll(FlightRecording.jvmOptions(flightRecordingFile()));
+            } catch (IOException e) {
+                if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                    LOGGER.warning("Unable to record Checkstyle: " + e.getMessage());
+                }
+            }
+        }
+
+        if (argumentFile == null) {
+            var length = 0L;
+            for (var arg : args) {
+                length += arg.length() + 1;
+            }
+            for (var arg : arguments) {
+                length += arg.length() + 1;
+            }
+            if (length > argumentFileThreshold_) {
+                argumentFile = argumentFile(arguments, null);
+            }
+        }
+        if (argumentFile != null) {
+            args.add('@' + argumentFile.path().toString());
+        } else {
+            args.addAll(arguments);
+        }
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, String.join(" ", args));
+        }
+
+        return args;
+    }
+
+    /*
+     * Quotes an argument for a Java argument file.
+     */
+    private static String quoteArgument(String arg) {
+        return '"' + arg.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")
+                .replace("\r", "\\r") + '"';
+    }
+
+    /**
+     * Sets the number of Checkstyle processes, or in-process checkers, auditing the source files concurrently.
+     * <p>
+     * The source files are split into shards of similar total size, keeping the files of a directory together, and
+     * the resulting reports are merged into a single one, identical to the report of a serial run. Audits through the daemon are not parallelized.
+     * <p>
+     * Defaults to {@code 1}.
+     *
+     * @param parallelism the number of concurrent audits
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation parallelism(int parallelism) {
+        parallelism_ = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Returns the number of Checkstyle processes, or in-process checkers, auditing the source files concurrently.
+     *
+     * @return the parallelism
+     */
+    public int parallelism() {
+        return parallelism_;
+    }
+
+    /**
+     * Profiles the check modules once the audit is done, measuring the CPU time each of them spends across all the
+     * files and per file.
+     * <p>
+     * The {@link #profileTop(int) most expensive} check modules and slowest files are logged, saved in JSON to
+     * {@code checkstyle/profile.json} in the project's build directory, and available from the
+     * {@link CheckstyleResult#checkProfile() result}. The profile is always measured in-process, auditing the files
+     * once per check module, so it takes much longer than the audit itself.
+     *
+     * @param profileChecks {@code true} to profile the check modules
+     * @return the checkstyle operation
+     * @see InProcessChecker#profile(Map, List)
+     */
+    public CheckstyleOperation profileChecks(boolean profileChecks) {
+        profileChecks_ = profileChecks;
+        return this;
+    }
+
+    /**
+     * Sets the number of check modules and files reported by the {@link #profileChecks(boolean) profile}.
+     * <p>
+     * Default is {@code 10}
+     *
+     * @param top the number of check modules and files to report
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation profileTop(int top) {
+        if (top > 0) {
+            profileTop_ = top;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of check modules and files reported by the profile.
+     *
+     * @return the number of check modules and files
+     */
+    public int profileTop() {
+        return profileTop_;
+    }
+
+    /*
+     * Records the time elapsed in a phase of the execution, returning the start time of the next phase.
+     */
+    private long phase(String name, long start) {
+        var now = System.nanoTime();
+        if (collector_ != null) {
+            collector_.phase(name, Duration.ofNanos(now - start));
+        }
+        if (trace_ != null) {
+            trace_.span(TraceWriter.MAIN_TRACK, name, start, now);
+        }
+        return now;
+    }
+
     /**
      * Sets the property files to load.
      *
@@ -435,6 +2300,54 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return propertiesFile(file.toFile().getAbsolutePath());
     }
 
+    /*
+     * Creates the writer for the report, in the requested format and location.
+     */
+    private ReportWriter reportWriter(String version) throws IOException {
+        var format = OutputFormat.PLAIN;
+        for (var f : OutputFormat.values()) {
+            if (f.label.equals(options_.get("-f"))) {
+                format = f;
+            }
+        }
+
+        var output = options_.get("-o");
+        if (output == null) {
+            return new ReportWriter(format, System.out, false, version);
+        } else {
+            return new ReportWriter(format, Files.newOutputStream(Path.of(output)), true, version);
+        }
+    }
+
+    /**
+     * Skips the files and directories ignored by Git when looking for the source files to check.
+     * <p>
+     * The {@code .gitignore} files, including nested ones, and {@code .git/info/exclude} are read directly, no
+     * {@code git} executable is required. Ignored directories, such as build outputs or generated sources, are not
+     * walked at all. Files and directories specified explicitly are always checked.
+     *
+     * @param respectGitignore {@code true} to honor the Git ignore rules
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation respectGitignore(boolean respectGitignore) {
+        respectGitignore_ = respectGitignore;
+        return this;
+    }
+
+    /**
+     * Returns the result of the last execution.
+     * <p>
+     * The violation counts are only {@link CheckstyleResult#isDetailed() available} when running
+     * {@link #inProcess(boolean) in-process} or when the audit events are otherwise collected, such as for
+     * {@link #incremental(boolean) incremental}, {@link #parallelism(int) parallel} or
+     * {@link #changedSince(String) changed files} audits.
+     *
+     * @return the result, or {@code null} if the operation was not executed yet
+     */
+    public CheckstyleResult result() {
+        return result_;
+    }
+
     /**
      * Specifies the file(s) or folder(s) containing the source files to check.
      *
@@ -511,6 +2424,133 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return sourceDir(dirs.stream().map(File::new).toList());
     }
 
+    /**
+     * Specifies a file listing the source files to check, one path per line, in addition to the
+     * {@link #sourceDir(String...) source files or directories}.
+     * <p>
+     * The listed files are subject to the same exclusions as the source directories. When Checkstyle is simply forked,
+     * they are streamed into an {@link #argumentFileThreshold(int) argument file} as they are read, rather than kept
+     * in memory, and are therefore not deduplicated. The project's source directories are not checked by default when
+     * a list is specified.
+     *
+     * @param listFile the file listing the source files, blank lines are ignored
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation sourceFilesFrom(Path listFile) {
+        sourceFilesFrom_ = listFile;
+        return this;
+    }
+
+    /**
+     * Specifies a file listing the source files to check, one path per line.
+     *
+     * @param listFile the file listing the source files, blank lines are ignored
+     * @return the checkstyle operation
+     * @see #sourceFilesFrom(Path)
+     */
+    public CheckstyleOperation sourceFilesFrom(String listFile) {
+        return sourceFilesFrom(Path.of(listFile));
+    }
+
+    /**
+     * Returns the file listing the source files to check.
+     *
+     * @return the list file, or {@code null} if none
+     */
+    public Path sourceFilesFrom() {
+        return sourceFilesFrom_;
+    }
+
+    /*
+     * Writes the baseline with the recorded violations when recording, otherwise logs how many of them were baselined.
+     */
+    private void saveBaseline(BaselineFilter filter, boolean isRecording) throws IOException {
+        if (isRecording) {
+            var count = Baseline.write(baseline_, filter.fingerprints());
+            if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info(String.format("Checkstyle baseline of %d violation(s) saved to: %s", count, baseline_));
+            }
+        } else if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+            LOGGER.info(String.format("%d baselined violation(s) not reported.", filter.matched()));
+        }
+    }
+
+    /*
+     * Defaults to the project's main and test Java sources directories, unless a file list is specified.
+     */
+    private void setDefaultSourceDirs() {
+        if (sourceDir_.isEmpty() && sourceFilesFrom_ == null) {
+            sourceDir_.add(project_.srcMainJavaDirectory());
+            sourceDir_.add(project_.srcTestJavaDirectory());
+        }
+    }
+
+    /*
+     * Starts recording the current JVM, if enabled, returns null if not recording.
+     */
+    private FlightRecording startFlightRecording() {
+        if (flightRecording_ == null) {
+            return null;
+        }
+        try {
+            return FlightRecording.start(flightRecordingFile());
+        } catch (IOException | RuntimeException e) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Unable to record Checkstyle: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /*
+     * Stops the recording of the current JVM, if any, and writes it to its file.
+     */
+    private void stopFlightRecording(FlightRecording recording) {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.close();
+        } catch (IOException | RuntimeException e) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Unable to write the flight recording: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Summarizes the flight recordings written by Checkstyle, if any.
+     */
+    private void summarizeFlightRecordings() {
+        if (daemon_ && InProcessChecker.isSupported(options_.keySet())) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Checkstyle can't be recorded through the daemon.");
+            }
+            return;
+        }
+        // A killed process, or one that failed to start, leaves no recording behind
+        var files = flightRecordings_.stream().filter(Files::isRegularFile).toList();
+        if (files.isEmpty()) {
+            return;
+        }
+        var start = System.nanoTime();
+        try {
+            var summary = FlightSummary.read(files);
+            if (collector_ != null) {
+                collector_.flightSummary(summary);
+            }
+            if (LOGGER.isLoggable(Level.INFO) && !silent()) {
+                LOGGER.info(summary.toText(10) + System.lineSeparator() + "Flight recording saved to: "
+                        + (files.size() == 1 ? files.get(0) : files));
+            }
+        } catch (IOException | RuntimeException e) {
+            if (LOGGER.isLoggable(Level.WARNING) && !silent()) {
+                LOGGER.warning("Unable to read the flight recording: " + e.getMessage());
+            }
+        }
+        phase("flight recording", start);
+    }
+
     /**
      * Prints xpath suppressions at the file's line and column position. Argument is the line and column number
      * (separated by a {@code :} ) in the file that the suppression should be generated for. The option cannot be
@@ -544,6 +2584,101 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         return this;
     }
 
+    /**
+     * Records the time spent in each phase of the execution.
+     * <p>
+     * Besides the discovery of the source files, an {@link #inProcess(boolean) in-process} audit is broken down into
+     * the {@link PhaseTimer#STARTUP startup}, {@link PhaseTimer#CONFIGURATION configuration},
+     * {@link PhaseTimer#CHECKS checks} and {@link PhaseTimer#REPORT report} phases. The times are available from the
+     * {@link #result() result} and logged at the {@link #timingLevel(Level) timing level}. The audit events are
+     * collected to do so, which requires forking with an XML report when not running in-process.
+     * <p>
+     * A forked Checkstyle, or the daemon, buffers its report, so its audit is only timed as a whole, as the
+     * {@link PhaseTimer#PROCESS process} phase. When auditing in {@link #parallelism(int) parallel}, the times of the
+     * concurrent audits are added up.
+     *
+     * @param timing {@code true} to record the phase times
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation timing(boolean timing) {
+        timing_ = timing;
+        return this;
+    }
+
+    /**
+     * Sets the level at which the {@link #timing(boolean) phase times} are logged.
+     * <p>
+     * Default is {@link Level#INFO INFO}
+     *
+     * @param level the logging level
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation timingLevel(Level level) {
+        timingLevel_ = level;
+        return this;
+    }
+
+    /**
+     * Returns the level at which the phase times are logged.
+     *
+     * @return the logging level
+     */
+    public Level timingLevel() {
+        return timingLevel_;
+    }
+
+    /**
+     * Records a timeline of the execution to the given file, in the Chrome trace event JSON format.
+     * <p>
+     * The trace can be opened offline with <a href="https://ui.perfetto.dev">Perfetto</a> or
+     * {@code chrome://tracing}. Besides the phases of the execution, each audit gets its own track, one per
+     * {@link #parallelism(int) parallel} shard, with spans for its startup, including the JVM fork and configuration
+     * loading when forked, each file checked and the end of its report. In-process, the configuration loading is
+     * traced separately.
+     * <p>
+     * The audit events are collected to trace the files, which requires forking with an XML report when not running
+     * in-process. As that report is buffered by Checkstyle, the file spans of a forked process are approximate, while
+     * those of an in-process audit are exact.
+     *
+     * @param file the trace file, or {@code null} to disable tracing
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation traceFile(Path file) {
+        traceFile_ = file;
+        return this;
+    }
+
+    /**
+     * Records a timeline of the execution to the given file, in the Chrome trace event JSON format.
+     *
+     * @param file the trace file
+     * @return the checkstyle operation
+     * @see #traceFile(Path)
+     */
+    public CheckstyleOperation traceFile(File file) {
+        return traceFile(file.toPath());
+    }
+
+    /**
+     * Records a timeline of the execution to the given file, in the Chrome trace event JSON format.
+     *
+     * @param file the trace file
+     * @return the checkstyle operation
+     * @see #traceFile(Path)
+     */
+    public CheckstyleOperation traceFile(String file) {
+        return traceFile(Path.of(file));
+    }
+
+    /**
+     * Returns the file the execution timeline is recorded to.
+     *
+     * @return the trace file, or {@code null}
+     */
+    public Path traceFile() {
+        return traceFile_;
+    }
+
     /**
      * This option is used to display the Abstract Syntax Tree (AST) without any comments of the specified file. It can
      * only be used on a single file and cannot be combined with other options.
@@ -591,4 +2726,34 @@ public class CheckstyleOperation extends AbstractProcessOperation<CheckstyleOper
         }
         return this;
     }
+
+    /**
+     * Rewrites the {@link #baseline(Path) baseline} with the current violations, rather than only reporting the new
+     * ones, dropping the violations that were fixed.
+     * <p>
+     * An existing baseline is not updated when only some of the source files are audited, such as the files
+     * {@link #changedSince(String) changed since} a Git reference or only {@link #sourceFilesFrom(Path) listed} in a
+     * file, as the violations of the other files would be lost. These files are still compared to it.
+     *
+     * @param updateBaseline {@code true} or {@code false}
+     * @return the checkstyle operation
+     */
+    public CheckstyleOperation updateBaseline(boolean updateBaseline) {
+        updateBaseline_ = updateBaseline;
+        return this;
+    }
+
+    /*
+     * An argument file, with the number and total size of the source files listed in it.
+     */
+    private record ArgumentFile(Path path, int files, long bytes) {
+    }
+
+    /*
+     * Audits a shard of the source files.
+     */
+    @FunctionalInterface
+    private interface ShardAudit {
+        void run(List<File> files, AuditEventListener listener) throws IOException, InterruptedException;
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+/**
+ * Receives the events of a Checkstyle audit, as they occur.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public interface AuditEventListener {
+    /**
+     * Notified when the audit starts.
+     */
+    default void auditStarted() {
+        // no-op
+    }
+
+    /**
+     * Notified when the audit is finished.
+     */
+    default void auditFinished() {
+        // no-op
+    }
+
+    /**
+     * Notified when an exception is thrown while processing a file.
+     * <p>
+     * Exceptions are counted as errors by Checkstyle, but are not violations of any check module.
+     *
+     * @param file       the absolute path of the file
+     * @param stackTrace the stack trace of the exception
+     */
+    default void exception(String file, String stackTrace) {
+        // no-op
+    }
+
+    /**
+     * Notified when the audit of a file starts.
+     *
+     * @param file the absolute path of the file
+     */
+    default void fileStarted(String file) {
+        // no-op
+    }
+
+    /**
+     * Notified when the audit of a file is finished.
+     *
+     * @param file the absolute path of the file
+     */
+    default void fileFinished(String file) {
+        // no-op
+    }
+
+    /**
+     * Notified when a violation is found.
+     *
+     * @param violation the violation
+     */
+    default void violation(Violation violation) {
+        // no-op
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * A baseline of known violations, identified by their fingerprint.
+ * <p>
+ * A {@link #fingerprint(String, String, String, String, int) fingerprint} is a 64-bit hash of the file, check,
+ * message and normalized content of the line of a violation, rather than its line number, so it survives the code
+ * being moved around. The fingerprints are stored sorted and delta-encoded, and looked up in an open addressing hash
+ * table of primitive longs, so a baseline of a million violations only takes a few megabytes on disk and in memory,
+ * and each lookup is done in constant time.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class Baseline {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MAGIC = 0x4353424C; // CSBL
+    private static final int VERSION = 1;
+    private final int size_;
+    private final long[] table_;
+
+    private Baseline(long[] fingerprints, int count) {
+        // Keep the load factor at or below one half, so probe sequences stay short
+        var capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        table_ = new long[capacity];
+        var size = 0;
+        for (var i = 0; i < count; i++) {
+            if (insert(fingerprints[i])) {
+                size++;
+            }
+        }
+        size_ = size;
+    }
+
+    /**
+     * Creates a baseline of the given fingerprints.
+     *
+     * @param fingerprints the fingerprints
+     * @return the baseline
+     */
+    public static Baseline of(long... fingerprints) {
+        return new Baseline(fingerprints, fingerprints.length);
+    }
+
+    /**
+     * Computes the fingerprint of a violation.
+     *
+     * @param file       the path of the file, relative to the project
+     * @param check      the fully qualified name of the check module
+     * @param message    the message
+     * @param line       the content of the line, or an empty string for a violation not on a line
+     * @param occurrence the number of identical violations, with the same fingerprint, previously found in the file
+     * @return the fingerprint, never {@code 0}
+     */
+    public static long fingerprint(String file, String check, String message, String line, int occurrence) {
+        var hash = FNV_OFFSET;
+        hash = hash(hash, file.replace(File.separatorChar, '/'));
+        hash = hash(hash, check);
+        hash = hash(hash, message);
+        hash = hash(hash, normalize(line));
+        hash = (hash ^ occurrence) * FNV_PRIME;
+        hash = mix(hash);
+        return hash == 0L ? 1L : hash;
+    }
+
+    /*
+     * Hashes the characters of a value, followed by a separator, with FNV-1a.
+     */
+    private static long hash(long hash, String value) {
+        for (var i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+
+    /**
+     * Loads a baseline from the given file.
+     *
+     * @param file the baseline file
+     * @return the baseline
+     * @throws IOException if the file could not be read, or is not a baseline
+     */
+    public static Baseline load(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a Checkstyle baseline: " + file);
+            }
+            var count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Corrupted Checkstyle baseline: " + file);
+            }
+            var fingerprints = new long[count];
+            var previous = 0L;
+            for (var i = 0; i < count; i++) {
+                previous += readVarLong(in);
+                fingerprints[i] = previous;
+            }
+            return new Baseline(fingerprints, count);
+        } catch (EOFException e) {
+            throw new IOException("Truncated Checkstyle baseline: " + file, e);
+        }
+    }
+
+    /*
+     * Spreads the bits of the hash (MurmurHash3 finalizer).
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Normalizes the content of a line, stripping its leading and trailing whitespace and collapsing the rest, so the
+     * fingerprint survives indentation and formatting changes.
+     *
+     * @param line the line
+     * @return the normalized line
+     */
+    public static String normalize(String line) {
+        var sb = new StringBuilder(line.length());
+        var isSpace = false;
+        for (var i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                isSpace = !sb.isEmpty();
+            } else {
+                if (isSpace) {
+                    sb.append(' ');
+                    isSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Reads an unsigned variable-length long.
+     */
+    private static long readVarLong(DataInput in) throws IOException {
+        var value = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed fingerprint in Checkstyle baseline.");
+    }
+
+    /*
+     * Returns the first slot of the fingerprint, which is already a well distributed hash.
+     */
+    private static int slot(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * Writes the given fingerprints to a baseline file, sorted and without duplicates.
+     * <p>
+     * The file is written to a temporary file first, then moved in place.
+     *
+     * @param file         the baseline file
+     * @param fingerprints the fingerprints
+     * @return the number of distinct fingerprints written
+     * @throws IOException if the file could not be written
+     */
+    public static int write(Path file, long... fingerprints) throws IOException {
+        var sorted = fingerprints.clone();
+        Arrays.sort(sorted);
+        var absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        var tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        var distinct = 0;
+        for (var i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(distinct);
+            var previous = 0L;
+            for (var i = 0; i < distinct; i++) {
+                // The difference is unsigned, and wraps around for the first negative fingerprints
+                writeVarLong(out, sorted[i] - previous);
+                previous = sorted[i];
+            }
+        }
+        try {
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return distinct;
+    }
+
+    /*
+     * Writes an unsigned variable-length long.
+     */
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0L) {
+            out.writeByte((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Determines whether the baseline contains the given fingerprint.
+     *
+     * @param fingerprint the fingerprint
+     * @return {@code true} if the fingerprint is known
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == 0L) {
+            return false;
+        }
+        var mask = table_.length - 1;
+        for (var i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+            var entry = table_[i];
+            if (entry == fingerprint) {
+                return true;
+            } else if (entry == 0L) {
+                return false;
+            }
+        }
+    }
+
+    /*
+     * Adds a fingerprint to the table, returns false if already present.
+     */
+    private boolean insert(long fingerprint) {
+        if (fingerprint == 0L) {
+            return false;
+        }
+        var mask = table_.length - 1;
+        for (var i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+            var entry = table_[i];
+            if (entry == fingerprint) {
+                return false;
+            } else if (entry == 0L) {
+                table_[i] = fingerprint;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of fingerprints in the baseline.
+     *
+     * @return the fingerprint count
+     */
+    public int size() {
+        return size_;
+    }
+}
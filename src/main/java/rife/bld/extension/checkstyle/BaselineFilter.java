@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters the audit events, only forwarding the violations missing from a {@link Baseline baseline}.
+ * <p>
+ * The fingerprints of all the violations are recorded, so a new baseline can be written once the audit is finished.
+ * Without a baseline, every violation is recorded and none is forwarded, as they are all about to be baselined.
+ * Exceptions thrown while processing a file are always forwarded.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class BaselineFilter implements AuditEventListener {
+    private final Baseline baseline_;
+    private final AuditEventListener delegate_;
+    private final Map<Long, Integer> occurrences_ = new HashMap<>();
+    private final Path root_;
+    private String file_;
+    private long[] fingerprints_ = new long[1024];
+    private List<String> lines_;
+    private int matched_;
+    private String relativePath_;
+    private int size_;
+
+    /**
+     * Creates a new baseline filter.
+     *
+     * @param delegate the listener to forward the events to
+     * @param baseline the baseline, or {@code null} to forward no violations
+     * @param root     the directory the file paths are fingerprinted relative to, typically the project directory
+     */
+    public BaselineFilter(AuditEventListener delegate, Baseline baseline, Path root) {
+        delegate_ = delegate;
+        baseline_ = baseline;
+        root_ = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void auditFinished() {
+        delegate_.auditFinished();
+    }
+
+    @Override
+    public void auditStarted() {
+        delegate_.auditStarted();
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        delegate_.exception(file, stackTrace);
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        delegate_.fileFinished(file);
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        delegate_.fileStarted(file);
+    }
+
+    /**
+     * Returns the fingerprints of the violations recorded so far, in the order they were reported.
+     *
+     * @return the fingerprints
+     */
+    public long[] fingerprints() {
+        return Arrays.copyOf(fingerprints_, size_);
+    }
+
+    /*
+     * Returns the content of the given line of the current file, or an empty string if not available.
+     */
+    private String line(int line) {
+        if (lines_ == null) {
+            try {
+                // Malformed input is replaced rather than rejected, the content only needs to be consistent
+                lines_ = new String(Files.readAllBytes(Path.of(file_)), StandardCharsets.UTF_8).lines().toList();
+            } catch (IOException | RuntimeException e) {
+                lines_ = List.of();
+            }
+        }
+        return line > 0 && line <= lines_.size() ? lines_.get(line - 1) : "";
+    }
+
+    /**
+     * Returns the number of baselined violations that were found, and therefore not forwarded.
+     *
+     * @return the matched violation count
+     */
+    public int matched() {
+        return matched_;
+    }
+
+    /*
+     * Returns the path of the file relative to the root, if within it.
+     */
+    private String relativePath(String file) {
+        var path = Path.of(file).toAbsolutePath().normalize();
+        return path.startsWith(root_) ? root_.relativize(path).toString() : path.toString();
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        if (!violation.file().equals(file_)) {
+            // The events of a file may be replayed without being started
+            file_ = violation.file();
+            relativePath_ = relativePath(file_);
+            lines_ = null;
+            occurrences_.clear();
+        }
+
+        var file = relativePath_;
+        var line = line(violation.line());
+        var key = Baseline.fingerprint(file, violation.source(), violation.message(), line, 0);
+        var occurrence = occurrences_.merge(key, 1, Integer::sum) - 1;
+        var fingerprint = occurrence == 0 ? key
+                : Baseline.fingerprint(file, violation.source(), violation.message(), line, occurrence);
+        if (size_ == fingerprints_.length) {
+            fingerprints_ = Arrays.copyOf(fingerprints_, size_ * 2);
+        }
+        fingerprints_[size_++] = fingerprint;
+
+        if (baseline_ == null) {
+            return;
+        }
+        if (baseline_.contains(fingerprint)) {
+            matched_++;
+        } else {
+            delegate_.violation(violation);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.util.Map;
+
+/**
+ * Filters the audit events, only forwarding the violations located on changed lines.
+ * <p>
+ * Exceptions thrown while processing a file are always forwarded.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class ChangedLinesFilter implements AuditEventListener {
+    private final Map<String, int[]> changedLines_;
+    private final int context_;
+    private final AuditEventListener delegate_;
+    private int[] ranges_;
+
+    /**
+     * Creates a new changed lines filter.
+     *
+     * @param delegate     the listener to forward the events to
+     * @param changedLines the changed line ranges, as sorted pairs of first and last line numbers, keyed by absolute
+     *                     file path
+     * @param context      the number of lines around the changed lines to also include
+     * @see GitDiff#changedLines(java.io.File, String)
+     */
+    public ChangedLinesFilter(AuditEventListener delegate, Map<String, int[]> changedLines, int context) {
+        delegate_ = delegate;
+        changedLines_ = changedLines;
+        context_ = Math.max(0, context);
+    }
+
+    @Override
+    public void auditFinished() {
+        delegate_.auditFinished();
+    }
+
+    @Override
+    public void auditStarted() {
+        delegate_.auditStarted();
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        delegate_.exception(file, stackTrace);
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        ranges_ = null;
+        delegate_.fileFinished(file);
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        ranges_ = changedLines_.get(file);
+        delegate_.fileStarted(file);
+    }
+
+    /*
+     * Determines whether the line is within, or close enough to, one of the changed line ranges.
+     */
+    private boolean isChanged(int[] ranges, int line) {
+        if (ranges == null) {
+            return false;
+        }
+        // Binary search for the last range starting at or before the line, plus context
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        var found = -1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            if (ranges[mid * 2] - context_ <= line) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && line <= ranges[found * 2 + 1] + context_;
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        if (isChanged(ranges_ != null ? ranges_ : changedLines_.get(violation.file()), violation.line())) {
+            delegate_.violation(violation);
+        }
+    }
+}
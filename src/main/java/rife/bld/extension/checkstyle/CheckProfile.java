@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * The CPU time spent by each check module of a configuration, across all files and per file.
+ * <p>
+ * The times are measured by {@link InProcessChecker#profile(Map, List) profiling} the configuration, and exclude the
+ * time spent reading and parsing the files, which is shared by all the modules.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class CheckProfile {
+    private final long[] checkTotals_;
+    private final String[] checks_;
+    private final long[][] cpuTimes_;
+    private final long[] fileTotals_;
+    private final String[] files_;
+
+    /**
+     * Creates a new profile.
+     *
+     * @param checks   the check module names, in configuration order
+     * @param files    the absolute paths of the files
+     * @param cpuTimes the CPU times in nanoseconds, indexed by check then file
+     */
+    public CheckProfile(List<String> checks, List<String> files, long[][] cpuTimes) {
+        checks_ = checks.toArray(String[]::new);
+        files_ = files.toArray(String[]::new);
+        cpuTimes_ = cpuTimes;
+        checkTotals_ = new long[checks_.length];
+        fileTotals_ = new long[files_.length];
+        for (var c = 0; c < checks_.length; c++) {
+            for (var f = 0; f < files_.length; f++) {
+                checkTotals_[c] += cpuTimes[c][f];
+                fileTotals_[f] += cpuTimes[c][f];
+            }
+        }
+    }
+
+    /*
+     * Formats a duration in milliseconds, with a fractional part.
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /*
+     * Returns the indexes of the largest values, in descending order.
+     */
+    private static int[] top(long[] values, int n) {
+        return IntStream.range(0, values.length).boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> values[i]).reversed())
+                .limit(Math.max(0, n))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Returns the CPU time spent by each check module, in configuration order.
+     *
+     * @return the CPU times, keyed by check module name
+     */
+    public Map<String, Duration> checkTimes() {
+        var map = new LinkedHashMap<String, Duration>();
+        for (var c = 0; c < checks_.length; c++) {
+            map.put(checks_[c], Duration.ofNanos(checkTotals_[c]));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the CPU time spent by all the check modules on each file, in audit order.
+     *
+     * @return the CPU times, keyed by absolute file path
+     */
+    public Map<String, Duration> fileTimes() {
+        var map = new LinkedHashMap<String, Duration>();
+        for (var f = 0; f < files_.length; f++) {
+            map.put(files_[f], Duration.ofNanos(fileTotals_[f]));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /*
+     * Returns the index of the file on which the check spent the most time.
+     */
+    private int slowestFile(int check) {
+        var slowest = 0;
+        for (var f = 1; f < files_.length; f++) {
+            if (cpuTimes_[check][f] > cpuTimes_[check][slowest]) {
+                slowest = f;
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * Returns the ranked report of the most expensive check modules and slowest files, in JSON.
+     *
+     * @param n the number of check modules and files to report
+     * @return the report
+     */
+    public String toJson(int n) {
+        var total = Arrays.stream(checkTotals_).sum();
+        var sb = new StringBuilder(1024);
+        sb.append("{\n  \"totalCpuMillis\": ").append(millis(total)).append(",\n  \"checks\": [");
+        var checks = top(checkTotals_, n);
+        for (var i = 0; i < checks.length; i++) {
+            var c = checks[i];
+            sb.append(i == 0 ? "\n" : ",\n").append("    {\"rank\": ").append(i + 1)
+                    .append(", \"name\": \"").append(ReportWriter.escapeJson(checks_[c]))
+                    .append("\", \"cpuMillis\": ").append(millis(checkTotals_[c]));
+            if (files_.length > 0) {
+                var f = slowestFile(c);
+                sb.append(", \"slowestFile\": \"").append(ReportWriter.escapeJson(files_[f]))
+                        .append("\", \"slowestFileCpuMillis\": ").append(millis(cpuTimes_[c][f]));
+            }
+            sb.append('}');
+        }
+        sb.append(checks.length == 0 ? "],\n" : "\n  ],\n").append("  \"files\": [");
+        var files = top(fileTotals_, n);
+        for (var i = 0; i < files.length; i++) {
+            var f = files[i];
+            sb.append(i == 0 ? "\n" : ",\n").append("    {\"rank\": ").append(i + 1)
+                    .append(", \"file\": \"").append(ReportWriter.escapeJson(files_[f]))
+                    .append("\", \"cpuMillis\": ").append(millis(fileTotals_[f])).append('}');
+        }
+        sb.append(files.length == 0 ? "]\n}\n" : "\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns the ranked report of the most expensive check modules and slowest files, in a human-readable form.
+     *
+     * @param n the number of check modules and files to report
+     * @return the report
+     */
+    public String toText(int n) {
+        var total = Math.max(1L, Arrays.stream(checkTotals_).sum());
+        var sb = new StringBuilder(1024);
+        var checks = top(checkTotals_, n);
+        sb.append("Top ").append(checks.length).append(" check modules by CPU time:");
+        for (var i = 0; i < checks.length; i++) {
+            var c = checks[i];
+            sb.append(String.format(Locale.ROOT, "%n%4d. %10s ms %5.1f%%  %s", i + 1, millis(checkTotals_[c]),
+                    checkTotals_[c] * 100.0 / total, checks_[c]));
+            if (files_.length > 0) {
+                var f = slowestFile(c);
+                sb.append(" (slowest: ").append(files_[f]).append(", ").append(millis(cpuTimes_[c][f]))
+                        .append(" ms)");
+            }
+        }
+        var files = top(fileTotals_, n);
+        sb.append(System.lineSeparator()).append("Top ").append(files.length).append(" files by CPU time:");
+        for (var i = 0; i < files.length; i++) {
+            var f = files[i];
+            sb.append(String.format(Locale.ROOT, "%n%4d. %10s ms  %s", i + 1, millis(fileTotals_[f]), files_[f]));
+        }
+        return sb.toString();
+    }
+}
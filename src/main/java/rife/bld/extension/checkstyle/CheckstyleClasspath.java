@@ -0,0 +1,335 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+import rife.bld.dependencies.DependencyResolver;
+import rife.bld.dependencies.Scope;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.jar.JarFile;
+
+/**
+ * Resolves the minimal classpath required to run Checkstyle, out of the jars of a project.
+ * <p>
+ * The runtime dependencies of Checkstyle are resolved by bld, if the Checkstyle dependency of the project is known.
+ * Otherwise, starting from the Checkstyle jar, the runtime dependencies declared in the Maven POM embedded in each jar
+ * are followed and matched against the available jars by artifact ID and version. Since the dependencies of a jar
+ * without an embedded POM are unknown, such as those of Saxon-HE, no minimal classpath is resolved in that case.
+ * <p>
+ * The resolved jar list is cached, and only recomputed when the available jars change.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class CheckstyleClasspath {
+    private static final String CHECKSTYLE_PATH = "com/puppycrawl/tools/checkstyle/";
+    private static final Set<String> EXCLUDED_SCOPES = Set.of("provided", "system", "test");
+
+    private CheckstyleClasspath() {
+        // no-op
+    }
+
+    /*
+     * Finds the jar of the given artifact, preferring the exact version if known.
+     */
+    private static File findJar(List<File> jars, String artifactId, String version) {
+        File match = null;
+        for (var jar : jars) {
+            var name = jar.getName();
+            if (version != null && name.equals(artifactId + '-' + version + ".jar")) {
+                return jar;
+            } else if (match == null && name.length() > artifactId.length() + 1 && name.startsWith(artifactId + '-')
+                    && Character.isDigit(name.charAt(artifactId.length() + 1))) {
+                match = jar;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Finds the Checkstyle jar.
+     *
+     * @param jars the available jars
+     * @return the Checkstyle jar, or {@code null} if not found
+     */
+    public static File findCheckstyleJar(List<File> jars) {
+        for (var jar : jars) {
+            var name = jar.getName();
+            if (name.startsWith("checkstyle-") && name.endsWith(".jar") && !name.endsWith("-sources.jar")
+                    && !name.endsWith("-javadoc.jar")) {
+                return jar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether the given configuration only uses modules provided by Checkstyle.
+     * <p>
+     * A module is provided by Checkstyle if its name, or its name followed by {@code Check}, matches one of the
+     * classes of the Checkstyle jar. A configuration loaded from the classpath, such as the built-in
+     * {@code google_checks.xml}, is assumed to only use provided modules.
+     *
+     * @param config        the configuration file
+     * @param checkstyleJar the Checkstyle jar
+     * @return {@code true} if only modules provided by Checkstyle are configured, {@code false} otherwise or if the
+     * configuration could not be read
+     */
+    public static boolean isBuiltinOnly(File config, File checkstyleJar) {
+        if (!config.isFile()) {
+            return true;
+        }
+        try {
+            var classes = new HashSet<String>();
+            try (var jar = new JarFile(checkstyleJar)) {
+                var entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    var name = entries.nextElement().getName();
+                    if (name.startsWith(CHECKSTYLE_PATH) && name.endsWith(".class") && name.indexOf('$') < 0) {
+                        classes.add(name.substring(name.lastIndexOf('/') + 1, name.length() - ".class".length()));
+                    }
+                }
+            }
+
+            var modules = new ArrayList<String>();
+            try (var in = Files.newInputStream(config.toPath())) {
+                parse(in, new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if ("module".equals(qName) && attributes.getValue("name") != null) {
+                            modules.add(attributes.getValue("name"));
+                        }
+                    }
+                });
+            }
+
+            for (var module : modules) {
+                if (module.indexOf('.') >= 0) {
+                    if (!module.startsWith(CHECKSTYLE_PATH.replace('/', '.'))) {
+                        return false;
+                    }
+                } else if (!classes.contains(module) && !classes.contains(module + "Check")) {
+                    return false;
+                }
+            }
+            return !modules.isEmpty();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Parses an XML document, without loading any external DTD.
+     */
+    static void parse(InputStream in, DefaultHandler handler) throws IOException {
+        try {
+            var factory = SAXParserFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.newSAXParser().parse(in, handler);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Reads the runtime dependencies declared in the POM embedded in the given jar, or returns null if it has none.
+     */
+    private static List<String[]> readDependencies(File file) throws IOException {
+        var dependencies = new ArrayList<String[]>();
+        try (var jar = new JarFile(file)) {
+            // Pick the POM of the artifact matching the jar name, a jar may embed several
+            var entries = jar.entries();
+            String pom = null;
+            while (entries.hasMoreElements()) {
+                var name = entries.nextElement().getName();
+                if (name.startsWith("META-INF/maven/") && name.endsWith("/pom.xml")) {
+                    var parts = name.split("/");
+                    if (parts.length == 5 && file.getName().startsWith(parts[3] + '-')) {
+                        pom = name;
+                        break;
+                    }
+                }
+            }
+            if (pom == null) {
+                return null;
+            }
+
+            try (var in = jar.getInputStream(jar.getEntry(pom))) {
+                parse(in, new DefaultHandler() {
+                    private final Deque<String> path_ = new ArrayDeque<>();
+                    private final StringBuilder text_ = new StringBuilder();
+                    private final Map<String, String> values_ = new HashMap<>();
+
+                    @Override
+                    public void characters(char[] ch, int start, int length) {
+                        text_.append(ch, start, length);
+                    }
+
+                    @Override
+                    public void endElement(String uri, String localName, String qName) {
+                        path_.removeLast();
+                        var path = String.join("/", path_);
+                        if ("project/dependencies/dependency".equals(path)) {
+                            values_.put(qName, text_.toString().strip());
+                        } else if ("project/dependencies".equals(path) && "dependency".equals(qName)) {
+                            var scope = values_.getOrDefault("scope", "compile");
+                            if (!EXCLUDED_SCOPES.contains(scope) && !"true".equals(values_.get("optional"))
+                                    && values_.get("artifactId") != null) {
+                                var version = values_.get("version");
+                                dependencies.add(new String[]{values_.get("artifactId"),
+                                        version == null || version.contains("${") ? null : version});
+                            }
+                            values_.clear();
+                        }
+                        text_.setLength(0);
+                    }
+
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        path_.addLast(qName);
+                        text_.setLength(0);
+                    }
+                });
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Resolves the jars required to run Checkstyle, following the POMs embedded in the jars.
+     *
+     * @param jars the available jars
+     * @return the required jars, in the order they were resolved, or an empty list if the Checkstyle jar was not
+     * found or a required jar has no embedded POM
+     * @throws IOException if a jar could not be read
+     */
+    public static List<File> resolve(List<File> jars) throws IOException {
+        var checkstyle = findCheckstyleJar(jars);
+        if (checkstyle == null) {
+            return List.of();
+        }
+
+        var resolved = new LinkedHashSet<File>();
+        var queue = new ArrayDeque<File>();
+        queue.add(checkstyle);
+        while (!queue.isEmpty()) {
+            var jar = queue.removeFirst();
+            if (resolved.add(jar)) {
+                var dependencies = readDependencies(jar);
+                if (dependencies == null) {
+                    return List.of();
+                }
+                for (var dependency : dependencies) {
+                    var match = findJar(jars, dependency[0], dependency[1]);
+                    if (match != null && !resolved.contains(match)) {
+                        queue.addLast(match);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Resolves the jars required to run Checkstyle, using the given resolver of the Checkstyle dependency.
+     *
+     * @param jars     the available jars
+     * @param resolver the resolver of the Checkstyle dependency, or {@code null} to follow the POMs embedded in the
+     *                 jars instead
+     * @return the required jars, starting with the Checkstyle jar, or an empty list if it was not found
+     * @throws IOException if a jar could not be read
+     * @see #resolve(List)
+     */
+    public static List<File> resolve(List<File> jars, DependencyResolver resolver) throws IOException {
+        if (resolver == null) {
+            return resolve(jars);
+        }
+        var checkstyle = findCheckstyleJar(jars);
+        if (checkstyle == null) {
+            return List.of();
+        }
+
+        var names = new HashSet<String>();
+        for (var dependency : resolver.getAllDependencies(Scope.compile, Scope.runtime)) {
+            names.add(dependency.toFileName());
+        }
+        var resolved = new ArrayList<File>();
+        resolved.add(checkstyle);
+        for (var jar : jars) {
+            if (names.contains(jar.getName())) {
+                resolved.add(jar);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the jars required to run Checkstyle, reusing the cached list if the available jars did not change.
+     *
+     * @param jars      the available jars
+     * @param resolver  the resolver of the Checkstyle dependency, or {@code null} to follow the POMs embedded in the
+     *                  jars instead
+     * @param cacheFile the file caching the resolved jars
+     * @return the required jars, or an empty list if they could not be resolved
+     * @throws IOException if a jar could not be read
+     * @see #resolve(List, DependencyResolver)
+     */
+    public static List<File> resolve(List<File> jars, DependencyResolver resolver, File cacheFile)
+            throws IOException {
+        var fingerprint = new Fingerprint();
+        jars.forEach(fingerprint::add);
+        if (resolver != null) {
+            fingerprint.add(resolver.dependency().toString());
+        }
+        var key = fingerprint.toString();
+
+        if (cacheFile.isFile()) {
+            var lines = Files.readAllLines(cacheFile.toPath(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && key.equals(lines.get(0))) {
+                var cached = lines.subList(1, lines.size()).stream().map(File::new).toList();
+                if (cached.stream().allMatch(File::isFile)) {
+                    return cached;
+                }
+            }
+        }
+
+        var resolved = resolve(jars, resolver);
+        var lines = new ArrayList<String>(resolved.size() + 1);
+        lines.add(key);
+        resolved.forEach(jar -> lines.add(jar.getAbsolutePath()));
+        var dir = cacheFile.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        var tmp = new File(dir, cacheFile.getName() + ".tmp");
+        Files.write(tmp.toPath(), lines, StandardCharsets.UTF_8);
+        Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return resolved;
+    }
+}
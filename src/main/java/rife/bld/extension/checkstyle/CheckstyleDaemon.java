@@ -0,0 +1,404 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Long-lived local Checkstyle worker.
+ * <p>
+ * The daemon listens on a loopback port and keeps Checkstyle loaded, along with the parsed configuration, between
+ * audits. Its port and access token are published in a state file, together with the fingerprint of the Checkstyle
+ * classpath and configuration it was started for. It shuts down once it has been idle for the specified timeout.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class CheckstyleDaemon {
+    private static final int CMD_AUDIT = 1;
+    private static final int CMD_SHUTDOWN = 2;
+    private static final int END_OF_OUTPUT = -1;
+    private static final int FAILURE = -1;
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String PORT = "port";
+    private static final String TOKEN = "token";
+    private final File stateFile_;
+    private final String token_;
+    private InProcessChecker checker_;
+    private List<File> classpath_;
+
+    private CheckstyleDaemon(File stateFile) {
+        stateFile_ = stateFile;
+        var bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        token_ = HexFormat.of().formatHex(bytes);
+    }
+
+    /**
+     * Sends an audit request to the daemon described by the given state file.
+     *
+     * @param stateFile the daemon state file
+     * @param classpath the classpath containing Checkstyle and its dependencies
+     * @param options   the command line options
+     * @param files     the files to audit
+     * @param out       the output stream to write the report to, if no output file is specified
+     * @return the number of errors
+     * @throws IOException if the daemon could not be reached, or the audit failed
+     */
+    public static int audit(File stateFile, List<File> classpath, Map<String, String> options, List<File> files,
+                            OutputStream out) throws IOException {
+        var state = readState(stateFile);
+        try (var socket = connect(state);
+             var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             var data = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            data.writeUTF(state.getProperty(TOKEN));
+            data.writeInt(CMD_AUDIT);
+            writeFiles(data, classpath);
+            data.writeInt(options.size());
+            for (var option : options.entrySet()) {
+                data.writeUTF(option.getKey());
+                data.writeUTF(option.getValue());
+            }
+            writeFiles(data, files);
+            data.flush();
+
+            int length;
+            while ((length = in.readInt()) != END_OF_OUTPUT) {
+                var buffer = in.readNBytes(length);
+                out.write(buffer);
+            }
+            out.flush();
+
+            var status = in.readInt();
+            if (status == FAILURE) {
+                throw new IOException(in.readUTF());
+            }
+            return status;
+        }
+    }
+
+    private static Socket connect(Properties state) throws IOException {
+        try {
+            return new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(state.getProperty(PORT, "")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Checkstyle daemon port: " + state.getProperty(PORT), e);
+        }
+    }
+
+    /**
+     * Determines whether the daemon described by the given state file is running for the given fingerprint.
+     *
+     * @param stateFile   the daemon state file
+     * @param fingerprint the fingerprint of the Checkstyle classpath and configuration
+     * @return {@code true} if the daemon is reachable and matches the fingerprint
+     */
+    public static boolean isRunning(File stateFile, String fingerprint) {
+        try {
+            var state = readState(stateFile);
+            if (fingerprint.equals(state.getProperty(FINGERPRINT))) {
+                connect(state).close();
+                return true;
+            }
+        } catch (IOException ignored) {
+            // not running
+        }
+        return false;
+    }
+
+    /**
+     * Starts the daemon.
+     * <p>
+     * The arguments are the state file, the idle timeout in milliseconds and the fingerprint.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String... args) {
+        if (args.length != 3) {
+            System.err.println("Usage: CheckstyleDaemon <state file> <idle timeout ms> <fingerprint>");
+            System.exit(1);
+        }
+        try {
+            new CheckstyleDaemon(new File(args[0])).serve(Duration.ofMillis(Long.parseLong(args[1])), args[2]);
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace(System.err);
+            System.exit(1);
+        }
+    }
+
+    private static List<File> readFiles(DataInputStream in) throws IOException {
+        var count = in.readInt();
+        var files = new ArrayList<File>(count);
+        for (var i = 0; i < count; i++) {
+            files.add(new File(in.readUTF()));
+        }
+        return files;
+    }
+
+    private static Properties readState(File stateFile) throws IOException {
+        var state = new Properties();
+        try (var in = Files.newBufferedReader(stateFile.toPath(), StandardCharsets.UTF_8)) {
+            state.load(in);
+        }
+        return state;
+    }
+
+    /**
+     * Shuts down the daemon described by the given state file, if running.
+     *
+     * @param stateFile the daemon state file
+     */
+    public static void shutdown(File stateFile) {
+        try {
+            var state = readState(stateFile);
+            try (var socket = connect(state);
+                 var data = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                data.writeUTF(state.getProperty(TOKEN));
+                data.writeInt(CMD_SHUTDOWN);
+                data.flush();
+                socket.getInputStream().read();
+            }
+        } catch (IOException ignored) {
+            // not running
+        }
+    }
+
+    /**
+     * Starts a new daemon process and waits for it to be ready.
+     *
+     * @param stateFile   the daemon state file
+     * @param javaTool    the java tool used to start the daemon
+     * @param idleTimeout the idle timeout after which the daemon shuts itself down
+     * @param fingerprint the fingerprint of the Checkstyle classpath and configuration
+     * @throws IOException if the daemon could not be started
+     */
+    public static void start(File stateFile, String javaTool, Duration idleTimeout, String fingerprint)
+            throws IOException {
+        start(stateFile, javaTool, List.of(), idleTimeout, fingerprint);
+    }
+
+    /**
+     * Starts a new daemon process, with the given JVM options, and waits for it to be ready.
+     *
+     * @param stateFile   the daemon state file
+     * @param javaTool    the java tool used to start the daemon
+     * @param jvmOptions  the JVM options
+     * @param idleTimeout the idle timeout after which the daemon shuts itself down
+     * @param fingerprint the fingerprint of the Checkstyle classpath and configuration
+     * @throws IOException if the daemon could not be started
+     */
+    public static void start(File stateFile, String javaTool, List<String> jvmOptions, Duration idleTimeout,
+                             String fingerprint) throws IOException {
+        shutdown(stateFile);
+        Files.deleteIfExists(stateFile.toPath());
+        Files.createDirectories(stateFile.getAbsoluteFile().getParentFile().toPath());
+
+        String location;
+        try {
+            location = Path.of(CheckstyleDaemon.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .toString();
+        } catch (Exception e) {
+            throw new IOException("Unable to locate the Checkstyle extension classes.", e);
+        }
+
+        var log = new File(stateFile.getAbsoluteFile().getParentFile(), "daemon.log");
+        var command = new ArrayList<String>();
+        command.add(javaTool);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", location, CheckstyleDaemon.class.getName(), stateFile.getAbsolutePath(),
+                String.valueOf(idleTimeout.toMillis()), fingerprint));
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        process.getOutputStream().close();
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("The Checkstyle daemon exited with status " + process.exitValue()
+                        + ", see: " + log);
+            }
+            if (isRunning(stateFile, fingerprint)) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while starting the Checkstyle daemon.", e);
+            }
+        }
+        process.destroy();
+        throw new IOException("Timed out while starting the Checkstyle daemon, see: " + log);
+    }
+
+    private static void writeFiles(DataOutputStream out, List<File> files) throws IOException {
+        out.writeInt(files.size());
+        for (var file : files) {
+            out.writeUTF(file.getAbsolutePath());
+        }
+    }
+
+    private void audit(DataInputStream in, DataOutputStream out) throws IOException {
+        var classpath = readFiles(in);
+        var count = in.readInt();
+        var options = new HashMap<String, String>(count);
+        for (var i = 0; i < count; i++) {
+            options.put(in.readUTF(), in.readUTF());
+        }
+        var files = readFiles(in);
+
+        if (!classpath.equals(classpath_)) {
+            if (checker_ != null) {
+                checker_.close();
+            }
+            checker_ = new InProcessChecker(classpath);
+            classpath_ = classpath;
+        }
+
+        int status;
+        String failure = null;
+        try (var report = new FrameOutputStream(out)) {
+            status = checker_.audit(options, files, report);
+        } catch (IOException | RuntimeException e) {
+            status = FAILURE;
+            failure = Objects.requireNonNullElse(e.getMessage(), e.getClass().getName());
+        }
+        out.writeInt(END_OF_OUTPUT);
+        out.writeInt(status);
+        if (failure != null) {
+            out.writeUTF(failure);
+        }
+        out.flush();
+    }
+
+    /*
+     * Handles a single connection, returns false if the daemon should shut down.
+     */
+    private boolean handle(Socket socket) throws IOException {
+        try (socket;
+             var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (!token_.equals(in.readUTF())) {
+                return true;
+            }
+            var command = in.readInt();
+            if (command == CMD_SHUTDOWN) {
+                out.write(0);
+                out.flush();
+                return false;
+            } else if (command == CMD_AUDIT) {
+                audit(in, out);
+            }
+        } catch (EOFException ignored) {
+            // connection probe
+        }
+        return true;
+    }
+
+    private void serve(Duration idleTimeout, String fingerprint) throws IOException {
+        try (var server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout((int) Math.min(Integer.MAX_VALUE, idleTimeout.toMillis()));
+            writeState(server.getLocalPort(), fingerprint);
+
+            var isRunning = true;
+            while (isRunning) {
+                try {
+                    isRunning = handle(server.accept());
+                } catch (SocketTimeoutException e) {
+                    isRunning = false;
+                } catch (IOException e) {
+                    e.printStackTrace(System.err);
+                }
+            }
+        } finally {
+            if (checker_ != null) {
+                checker_.close();
+            }
+            try {
+                if (token_.equals(readState(stateFile_).getProperty(TOKEN))) {
+                    Files.deleteIfExists(stateFile_.toPath());
+                }
+            } catch (IOException ignored) {
+                // already replaced or removed
+            }
+        }
+    }
+
+    private void writeState(int port, String fingerprint) throws IOException {
+        var state = new Properties();
+        state.setProperty(PORT, String.valueOf(port));
+        state.setProperty(TOKEN, token_);
+        state.setProperty(FINGERPRINT, fingerprint);
+
+        var tmp = new File(stateFile_.getAbsoluteFile().getParentFile(), stateFile_.getName() + ".tmp").toPath();
+        Files.deleteIfExists(tmp);
+        try {
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(tmp);
+        }
+        try (var writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            state.store(writer, "Checkstyle daemon");
+        }
+        Files.move(tmp, stateFile_.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Writes the report back to the client as length-prefixed frames.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out_;
+
+        FrameOutputStream(DataOutputStream out) {
+            out_ = out;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out_.flush();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                out_.writeInt(len);
+                out_.write(b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * The result of a Checkstyle execution.
+ * <p>
+ * Only the violation counts are kept, by severity, check module and file. The file and module names are stored once
+ * and the messages are never retained, so the result remains small regardless of the number of violations.
+ * <p>
+ * The counts are only available if the audit events were {@link #isDetailed() collected}, otherwise only the exit
+ * code, which is the number of errors reported by Checkstyle, is known.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class CheckstyleResult {
+    private final long bytesRead_;
+    private final int cacheHits_;
+    private final int cacheMisses_;
+    private final CheckProfile checkProfile_;
+    private final int duplicates_;
+    private final int exceptions_;
+    private final int exitCode_;
+    private final int filesAudited_;
+    private final String[] files_;
+    private final int[] fileCounts_;
+    private final FlightSummary flightSummary_;
+    private final boolean isAborted_;
+    private final boolean isDetailed_;
+    private final String[] modules_;
+    private final int[] moduleCounts_;
+    private final long peakRss_;
+    private final Map<String, Duration> phases_;
+    private final int[] severityCounts_;
+
+    private CheckstyleResult(Collector collector, int exitCode) {
+        exitCode_ = exitCode;
+        bytesRead_ = collector.bytesRead_;
+        cacheHits_ = collector.cacheHits_;
+        cacheMisses_ = collector.cacheMisses_;
+        checkProfile_ = collector.checkProfile_;
+        peakRss_ = collector.peakRss_;
+        duplicates_ = collector.duplicates_;
+        exceptions_ = collector.exceptions_;
+        isAborted_ = collector.isAborted_;
+        isDetailed_ = collector.isDetailed_;
+        filesAudited_ = collector.filesAudited_;
+        flightSummary_ = collector.flightSummary_;
+        severityCounts_ = collector.severityCounts_.clone();
+        files_ = collector.files_.keySet().toArray(String[]::new);
+        fileCounts_ = Arrays.copyOf(collector.fileCounts_, files_.length);
+        modules_ = collector.modules_.keySet().toArray(String[]::new);
+        moduleCounts_ = Arrays.copyOf(collector.moduleCounts_, modules_.length);
+        phases_ = Collections.unmodifiableMap(new LinkedHashMap<>(collector.phases_));
+    }
+
+    private static Map<String, Integer> toMap(String[] keys, int[] counts) {
+        var map = new LinkedHashMap<String, Integer>(keys.length * 4 / 3 + 1);
+        for (var i = 0; i < keys.length; i++) {
+            map.put(keys[i], counts[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the total size of the files audited, if known.
+     *
+     * @return the size in bytes
+     */
+    public long bytesRead() {
+        return bytesRead_;
+    }
+
+    /**
+     * Returns the number of files found unchanged by an incremental audit, whose violations were replayed.
+     *
+     * @return the cache hit count
+     */
+    public int cacheHits() {
+        return cacheHits_;
+    }
+
+    /**
+     * Returns the number of files that had to be checked by an incremental audit.
+     *
+     * @return the cache miss count
+     */
+    public int cacheMisses() {
+        return cacheMisses_;
+    }
+
+    /**
+     * Returns the CPU time spent by each check module, if they were profiled.
+     *
+     * @return the check profile, or {@code null}
+     */
+    public CheckProfile checkProfile() {
+        return checkProfile_;
+    }
+
+    /**
+     * Returns the number of violations of the given severity.
+     *
+     * @param severity the severity
+     * @return the violation count
+     */
+    public int count(Severity severity) {
+        return severityCounts_[severity.ordinal()];
+    }
+
+    /**
+     * Returns the number of violations for each file with at least one violation, in the order they were reported.
+     *
+     * @return the violation counts, keyed by absolute file path
+     */
+    public Map<String, Integer> countsByFile() {
+        return toMap(files_, fileCounts_);
+    }
+
+    /**
+     * Returns the number of violations for each check module, in the order they were first reported.
+     * <p>
+     * Modules sharing the same name in different packages are counted separately.
+     *
+     * @return the violation counts, keyed by {@link Violation#source() module source}
+     */
+    public Map<String, Integer> countsByModule() {
+        return toMap(modules_, moduleCounts_);
+    }
+
+    /**
+     * Returns the number of violations for each severity.
+     *
+     * @return the violation counts
+     */
+    public Map<Severity, Integer> countsBySeverity() {
+        var map = new EnumMap<Severity, Integer>(Severity.class);
+        for (var severity : Severity.values()) {
+            map.put(severity, severityCounts_[severity.ordinal()]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the number of duplicate source files or directories that were skipped, so each file is only audited
+     * once.
+     *
+     * @return the duplicate count
+     */
+    public int duplicates() {
+        return duplicates_;
+    }
+
+    /**
+     * Returns the number of errors.
+     *
+     * @return the error count
+     */
+    public int errors() {
+        return count(Severity.ERROR);
+    }
+
+    /**
+     * Returns the number of exceptions thrown while processing the files, which Checkstyle also counts as errors.
+     *
+     * @return the exception count
+     */
+    public int exceptions() {
+        return exceptions_;
+    }
+
+    /**
+     * Returns the exit code of the execution, {@code 0} if successful.
+     *
+     * @return the exit code
+     */
+    public int exitCode() {
+        return exitCode_;
+    }
+
+    /**
+     * Returns the number of files audited.
+     *
+     * @return the file count
+     */
+    public int filesAudited() {
+        return filesAudited_;
+    }
+
+    /**
+     * Returns the summary of the flight recordings of Checkstyle, if it was recorded.
+     *
+     * @return the flight recording summary, or {@code null}
+     */
+    public FlightSummary flightSummary() {
+        return flightSummary_;
+    }
+
+    /**
+     * Returns whether the audit was stopped before all the files were processed, because a violation threshold was
+     * reached.
+     *
+     * @return {@code true} if only partial results are available
+     */
+    public boolean isAborted() {
+        return isAborted_;
+    }
+
+    /**
+     * Returns whether the audit events were collected, and the violation counts are therefore available.
+     *
+     * @return {@code true} if the violation counts are available
+     */
+    public boolean isDetailed() {
+        return isDetailed_;
+    }
+
+    /**
+     * Returns the peak resident set size of Checkstyle, the largest one among forked processes, if known.
+     *
+     * @return the size in bytes, or {@code -1} if not known
+     */
+    public long peakRss() {
+        return peakRss_;
+    }
+
+    /**
+     * Returns the wall-clock time of each phase of the execution, in order.
+     *
+     * @return the phase durations, keyed by phase name
+     */
+    public Map<String, Duration> phaseTimes() {
+        return phases_;
+    }
+
+    @Override
+    public String toString() {
+        return "CheckstyleResult{exitCode=" + exitCode_ + ", aborted=" + isAborted_
+                + ", filesAudited=" + filesAudited_ + ", errors=" + errors() + ", warnings=" + warnings()
+                + ", infos=" + count(Severity.INFO) + ", phaseTimes=" + phases_ + '}';
+    }
+
+    /**
+     * Returns the number of warnings.
+     *
+     * @return the warning count
+     */
+    public int warnings() {
+        return count(Severity.WARNING);
+    }
+
+    /**
+     * Collects the audit events and phase times of an execution, to build its result.
+     * <p>
+     * Violations with an {@link Severity#IGNORE ignore} severity are not counted, as they are not reported.
+     */
+    public static final class Collector implements AuditEventListener {
+        private final Map<String, Integer> files_ = new LinkedHashMap<>();
+        private final Map<String, Integer> modules_ = new LinkedHashMap<>();
+        private final Map<String, Duration> phases_ = new LinkedHashMap<>();
+        private final int[] severityCounts_ = new int[Severity.values().length];
+        private long bytesRead_;
+        private int cacheHits_;
+        private int cacheMisses_;
+        private CheckProfile checkProfile_;
+        private int duplicates_;
+        private int exceptions_;
+        private int[] fileCounts_ = new int[64];
+        private int filesAudited_;
+        private FlightSummary flightSummary_;
+        private boolean isAborted_;
+        private boolean isDetailed_;
+        private int[] moduleCounts_ = new int[64];
+        private long peakRss_ = -1L;
+
+        /*
+         * Returns the index of the given key, adding it if needed.
+         */
+        private static int indexOf(Map<String, Integer> keys, String key) {
+            var index = keys.get(key);
+            if (index == null) {
+                index = keys.size();
+                keys.put(key, index);
+            }
+            return index;
+        }
+
+        /**
+         * Marks the audit as stopped before all the files were processed.
+         */
+        public void aborted() {
+            isAborted_ = true;
+        }
+
+        @Override
+        public void auditStarted() {
+            isDetailed_ = true;
+        }
+
+        /**
+         * Builds the result.
+         *
+         * @param exitCode the exit code of the execution
+         * @return the result
+         */
+        public CheckstyleResult build(int exitCode) {
+            return new CheckstyleResult(this, exitCode);
+        }
+
+        /**
+         * Records the size of audited files.
+         *
+         * @param bytes the size in bytes
+         */
+        public void bytesRead(long bytes) {
+            bytesRead_ += bytes;
+        }
+
+        /**
+         * Records the unchanged and checked files of an incremental audit.
+         *
+         * @param hits   the number of unchanged files
+         * @param misses the number of checked files
+         */
+        public void cache(int hits, int misses) {
+            cacheHits_ += hits;
+            cacheMisses_ += misses;
+        }
+
+        /**
+         * Records the number of duplicate source files or directories that were skipped.
+         *
+         * @param count the duplicate count
+         */
+        public void duplicates(int count) {
+            duplicates_ += count;
+        }
+
+        @Override
+        public void exception(String file, String stackTrace) {
+            exceptions_++;
+        }
+
+        @Override
+        public void fileStarted(String file) {
+            filesAudited_++;
+        }
+
+        /**
+         * Records the summary of the flight recordings.
+         *
+         * @param summary the flight recording summary
+         */
+        public void flightSummary(FlightSummary summary) {
+            flightSummary_ = summary;
+        }
+
+        /**
+         * Records the peak resident set size of a Checkstyle process, keeping the largest one.
+         * <p>
+         * Processes may be recorded concurrently, such as by parallel audits.
+         *
+         * @param bytes the size in bytes, or {@code -1} if not known
+         */
+        public synchronized void peakRss(long bytes) {
+            peakRss_ = Math.max(peakRss_, bytes);
+        }
+
+        /**
+         * Records the time spent in a phase of the execution, adding to any time already recorded for it.
+         * <p>
+         * Phases may be recorded concurrently, such as by parallel audits.
+         *
+         * @param name     the phase name
+         * @param duration the duration
+         */
+        public synchronized void phase(String name, Duration duration) {
+            phases_.merge(name, duration, Duration::plus);
+        }
+
+        /**
+         * Records the profile of the check modules.
+         *
+         * @param profile the check profile
+         */
+        public void profile(CheckProfile profile) {
+            checkProfile_ = profile;
+        }
+
+        @Override
+        public void violation(Violation violation) {
+            if (violation.severity() == Severity.IGNORE) {
+                return;
+            }
+            severityCounts_[violation.severity().ordinal()]++;
+
+            var file = indexOf(files_, violation.file());
+            if (file == fileCounts_.length) {
+                fileCounts_ = Arrays.copyOf(fileCounts_, file * 2);
+            }
+            fileCounts_[file]++;
+
+            var module = indexOf(modules_, violation.source());
+            if (module == moduleCounts_.length) {
+                moduleCounts_ = Arrays.copyOf(moduleCounts_, module * 2);
+            }
+            moduleCounts_[module]++;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the JVM options to create and reuse an application class data sharing (AppCDS) archive.
+ * <p>
+ * The archive is specific to the Java runtime and the exact classpath, it is named after a hash of both. The first
+ * JVM started for a given runtime and classpath dumps the loaded classes at exit, the following ones map the
+ * archive, which noticeably reduces their startup time. A new archive is created whenever the runtime or any of the
+ * jars change, previous archives are then deleted.
+ * <p>
+ * Dynamic archives require Java 13 or later, and a classpath only composed of jars. Some runtimes crash while dumping
+ * the archive, such as when signed jars are on the classpath, the archive is then not attempted again.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class ClassDataSharing {
+    private static final String ARCHIVE_EXT = ".jsa";
+    private static final String ARCHIVE_OPTION = "-XX:ArchiveClassesAtExit=";
+    private static final Set<String> DUMPING = ConcurrentHashMap.newKeySet();
+    private static final String FAILED_EXT = ".failed";
+    private static final int MIN_VERSION = 13;
+
+    private ClassDataSharing() {
+        // no-op
+    }
+
+    /**
+     * Returns the archive file for the given Java runtime and classpath.
+     *
+     * @param archiveDir the directory holding the archives
+     * @param javaHome   the Java runtime home directory
+     * @param classpath  the classpath
+     * @return the archive file
+     */
+    public static File archive(File archiveDir, File javaHome, List<File> classpath) {
+        var fingerprint = new Fingerprint().add(javaHome.getAbsolutePath()).add(new File(javaHome, "lib/modules"));
+        classpath.forEach(fingerprint::add);
+        return new File(archiveDir, "checkstyle-" + fingerprint.toString().substring(0, 32) + ARCHIVE_EXT);
+    }
+
+    /**
+     * Determines whether the JVM started with the given options failed to dump its archive, and records the failure
+     * so the archive is not attempted again.
+     *
+     * @param jvmOptions the JVM options, may be {@code null}
+     * @return {@code true} if the archive was to be dumped but was not created
+     */
+    public static boolean dumpFailed(List<String> jvmOptions) {
+        if (jvmOptions != null) {
+            for (var option : jvmOptions) {
+                if (option.startsWith(ARCHIVE_OPTION)) {
+                    var archive = new File(option.substring(ARCHIVE_OPTION.length()));
+                    DUMPING.remove(archive.getAbsolutePath());
+                    if (!archive.isFile()) {
+                        try {
+                            Files.writeString(new File(archive.getPath() + FAILED_EXT).toPath(), "",
+                                    StandardCharsets.UTF_8);
+                        } catch (IOException ignored) {
+                            // attempted again
+                        }
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the feature version of the given Java runtime, read from its {@code release} file.
+     *
+     * @param javaHome the Java runtime home directory
+     * @return the feature version, such as {@code 21}, or {@code 0} if unknown
+     */
+    public static int featureVersion(File javaHome) {
+        var release = new File(javaHome, "release");
+        if (release.isFile()) {
+            try {
+                for (var line : Files.readAllLines(release.toPath(), StandardCharsets.UTF_8)) {
+                    if (line.startsWith("JAVA_VERSION=")) {
+                        var version = line.substring("JAVA_VERSION=".length()).replace("\"", "").strip();
+                        if (version.startsWith("1.")) {
+                            version = version.substring(2);
+                        }
+                        var end = 0;
+                        while (end < version.length() && Character.isDigit(version.charAt(end))) {
+                            end++;
+                        }
+                        return end > 0 ? Integer.parseInt(version.substring(0, end)) : 0;
+                    }
+                }
+            } catch (IOException | NumberFormatException ignored) {
+                // unknown
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Determines whether the classpath can be archived, only jars are supported.
+     *
+     * @param classpath the classpath
+     * @return {@code true} if all the classpath entries are jars
+     */
+    public static boolean isSupported(List<File> classpath) {
+        return !classpath.isEmpty() && classpath.stream()
+                .allMatch(f -> f.isFile() && f.getName().toLowerCase(Locale.ROOT).endsWith(".jar"));
+    }
+
+    /**
+     * Returns the JVM options to create or reuse the archive for the given Java runtime and classpath.
+     * <p>
+     * Only one JVM at a time is asked to create a missing archive, the others run without it. The class data sharing
+     * warnings are redirected to the standard error, so they can't corrupt the report. No options are returned if the
+     * archive could not be {@link #dumpFailed(List) dumped} before.
+     *
+     * @param archiveDir the directory holding the archives
+     * @param javaHome   the Java runtime home directory, may be {@code null}
+     * @param classpath  the classpath
+     * @return the JVM options, or an empty list if class data sharing is not supported
+     */
+    public static List<String> jvmOptions(File archiveDir, File javaHome, List<File> classpath) {
+        if (javaHome == null || featureVersion(javaHome) < MIN_VERSION || !isSupported(classpath)) {
+            return List.of();
+        }
+
+        var archive = archive(archiveDir, javaHome, classpath);
+        if (new File(archive.getPath() + FAILED_EXT).isFile()) {
+            return List.of();
+        }
+        var options = new ArrayList<String>();
+        options.add("-Xshare:auto");
+        options.add("-Xlog:disable");
+        options.add("-Xlog:all=warning:stderr");
+        if (archive.isFile()) {
+            options.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        } else if (DUMPING.add(archive.getAbsolutePath())) {
+            archiveDir.mkdirs();
+            var stale = archiveDir.listFiles((dir, name) -> name.endsWith(ARCHIVE_EXT)
+                    || name.endsWith(ARCHIVE_EXT + FAILED_EXT) || name.startsWith("hs_err_pid"));
+            if (stale != null) {
+                for (var file : stale) {
+                    if (!DUMPING.contains(file.getAbsolutePath())) {
+                        file.delete();
+                    }
+                }
+            }
+            options.add(ARCHIVE_OPTION + archive.getAbsolutePath());
+            // Keeps the crash log of a failed dump out of the working directory
+            options.add("-XX:ErrorFile=" + new File(archiveDir, "hs_err_pid%p.log").getAbsolutePath());
+        } else {
+            return List.of();
+        }
+        return options;
+    }
+
+    /**
+     * Locates the home directory of the Java runtime of the given launcher.
+     * <p>
+     * A launcher name without a path is looked up in the {@code PATH}, symbolic links are resolved.
+     *
+     * @param javaTool the Java launcher
+     * @return the Java runtime home directory, or {@code null} if not found
+     */
+    public static File javaHome(String javaTool) {
+        File launcher = null;
+        if (javaTool.indexOf('/') >= 0 || javaTool.indexOf(File.separatorChar) >= 0) {
+            launcher = new File(javaTool);
+        } else {
+            var path = System.getenv("PATH");
+            if (path != null) {
+                for (var dir : path.split(File.pathSeparator)) {
+                    for (var name : List.of(javaTool, javaTool + ".exe")) {
+                        var file = new File(dir, name);
+                        if (file.isFile() && file.canExecute()) {
+                            launcher = file;
+                            break;
+                        }
+                    }
+                    if (launcher != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (launcher == null || !launcher.isFile()) {
+            return null;
+        }
+
+        try {
+            var bin = launcher.toPath().toRealPath().getParent();
+            var home = bin == null ? null : bin.getParent();
+            return home == null ? null : home.toFile();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.util.List;
+
+/**
+ * Forwards the audit events to several listeners, in order.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class CompositeListener implements AuditEventListener {
+    private final List<AuditEventListener> listeners_;
+
+    /**
+     * Creates a new composite listener.
+     *
+     * @param listeners the listeners to notify
+     */
+    public CompositeListener(List<AuditEventListener> listeners) {
+        listeners_ = List.copyOf(listeners);
+    }
+
+    @Override
+    public void auditFinished() {
+        for (var listener : listeners_) {
+            listener.auditFinished();
+        }
+    }
+
+    @Override
+    public void auditStarted() {
+        for (var listener : listeners_) {
+            listener.auditStarted();
+        }
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        for (var listener : listeners_) {
+            listener.exception(file, stackTrace);
+        }
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        for (var listener : listeners_) {
+            listener.fileFinished(file);
+        }
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        for (var listener : listeners_) {
+            listener.fileStarted(file);
+        }
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        for (var listener : listeners_) {
+            listener.violation(violation);
+        }
+    }
+}
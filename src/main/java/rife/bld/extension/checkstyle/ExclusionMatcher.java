@@ -0,0 +1,263 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against a compiled set of exclusions, the same way the Checkstyle {@code -e} and {@code -x} options
+ * do.
+ * <p>
+ * The excluded paths are stored in a trie of path segments, so a lookup only costs the depth of the path, regardless
+ * of the number of exclusions. The patterns are merged into a single alternation, except those using back-references,
+ * named groups, quoting or comments, which can't be merged safely and are matched on their own.
+ * <p>
+ * Each match is bounded by a budget of character reads proportional to the length of the path, to guard against
+ * catastrophic backtracking. A pattern exceeding its budget is reported with an {@link IllegalArgumentException}.
+ * <p>
+ * A matcher is immutable and thread-safe, it can be compiled once and reused across audits.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class ExclusionMatcher {
+    /**
+     * The matcher excluding nothing.
+     */
+    public static final ExclusionMatcher NONE = new ExclusionMatcher(new Node(), null, List.of(), List.of(), 0);
+    private static final Pattern UNMERGEABLE = Pattern.compile(
+            "\\\\[1-9kQ]|\\(\\?<[a-zA-Z]|\\(\\?[a-zA-Z-]*x");
+    private static final int BUDGET_PER_CHAR = 10_000;
+    private static final int MIN_BUDGET = 1_000_000;
+    private final Pattern merged_;
+    private final List<Pattern> mergedPatterns_;
+    private final Node paths_;
+    private final List<Pattern> patterns_;
+    private final int size_;
+
+    private ExclusionMatcher(Node paths, Pattern merged, List<Pattern> mergedPatterns, List<Pattern> patterns,
+                             int size) {
+        paths_ = paths;
+        merged_ = merged;
+        mergedPatterns_ = mergedPatterns;
+        patterns_ = patterns;
+        size_ = size;
+    }
+
+    /**
+     * Compiles the given exclusions.
+     *
+     * @param exclude      the directories or files to exclude, relative to the current directory or absolute
+     * @param excludeRegex the directory or file patterns to exclude, found anywhere in the absolute paths
+     * @return the matcher
+     * @throws java.util.regex.PatternSyntaxException if a pattern is invalid
+     */
+    public static ExclusionMatcher compile(Collection<File> exclude, Collection<String> excludeRegex) {
+        if (exclude.isEmpty() && excludeRegex.isEmpty()) {
+            return NONE;
+        }
+
+        var paths = new Node();
+        for (var e : exclude) {
+            var node = paths;
+            for (var segment : segments(e.getAbsolutePath())) {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+            node.isExcluded = true;
+        }
+
+        var mergeable = new ArrayList<Pattern>();
+        var patterns = new ArrayList<Pattern>();
+        for (var regex : excludeRegex) {
+            // Compile each pattern on its own first, so an invalid one is reported as is
+            var pattern = Pattern.compile(regex);
+            if (UNMERGEABLE.matcher(regex).find()) {
+                patterns.add(pattern);
+            } else {
+                mergeable.add(pattern);
+            }
+        }
+
+        Pattern merged = null;
+        if (mergeable.size() == 1) {
+            merged = mergeable.get(0);
+        } else if (!mergeable.isEmpty()) {
+            var sb = new StringBuilder();
+            for (var pattern : mergeable) {
+                if (!sb.isEmpty()) {
+                    sb.append('|');
+                }
+                sb.append("(?:").append(pattern.pattern()).append(')');
+            }
+            merged = Pattern.compile(sb.toString());
+        }
+
+        return new ExclusionMatcher(paths, merged, List.copyOf(mergeable), List.copyOf(patterns),
+                exclude.size() + excludeRegex.size());
+    }
+
+    /*
+     * Splits the path into its non-empty segments.
+     */
+    private static List<String> segments(String path) {
+        var segments = new ArrayList<String>();
+        var start = 0;
+        for (var i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == File.separatorChar || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    /*
+     * Determines whether the pattern is found in the path, within the backtracking budget.
+     */
+    private static boolean find(Pattern pattern, String path) {
+        var budget = Math.max(MIN_BUDGET, (long) path.length() * BUDGET_PER_CHAR);
+        return pattern.matcher(new BudgetedSequence(path, budget, pattern)).find();
+    }
+
+    /**
+     * Determines whether the given absolute path is excluded, either listed or matching a pattern.
+     * <p>
+     * Only the path itself is tested, not its parent directories.
+     *
+     * @param path the absolute path
+     * @return {@code true} if the path is excluded
+     * @throws IllegalArgumentException if a pattern exceeds its backtracking budget
+     */
+    public boolean isExcluded(String path) {
+        if (size_ == 0) {
+            return false;
+        }
+        if (!paths_.children.isEmpty()) {
+            var node = paths_;
+            for (var segment : segments(path)) {
+                node = node.children.get(segment);
+                if (node == null) {
+                    break;
+                }
+            }
+            if (node != null && node.isExcluded) {
+                return true;
+            }
+        }
+        return matches(path);
+    }
+
+    /**
+     * Returns whether nothing is excluded.
+     *
+     * @return {@code true} if the matcher has no exclusions
+     */
+    public boolean isEmpty() {
+        return size_ == 0;
+    }
+
+    /*
+     * Determines whether any of the patterns is found in the path.
+     */
+    private boolean matches(String path) {
+        if (merged_ != null) {
+            try {
+                if (find(merged_, path)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Match the merged patterns one by one, to report the culprit rather than the whole alternation
+                for (var pattern : mergedPatterns_) {
+                    if (find(pattern, path)) {
+                        return true;
+                    }
+                }
+                throw e;
+            }
+        }
+        for (var pattern : patterns_) {
+            if (find(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of exclusions.
+     *
+     * @return the exclusion count
+     */
+    public int size() {
+        return size_;
+    }
+
+    /*
+     * A node of the excluded paths trie.
+     */
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean isExcluded;
+    }
+
+    /*
+     * A character sequence that stops the matching once too many characters have been read.
+     */
+    private static final class BudgetedSequence implements CharSequence {
+        private final Pattern pattern_;
+        private final String value_;
+        private long budget_;
+
+        BudgetedSequence(String value, long budget, Pattern pattern) {
+            value_ = value;
+            budget_ = budget;
+            pattern_ = pattern;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--budget_ < 0) {
+                throw new IllegalArgumentException("The exclusion pattern backtracks excessively: "
+                        + pattern_.pattern());
+            }
+            return value_.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return value_.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value_.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value_;
+        }
+    }
+}
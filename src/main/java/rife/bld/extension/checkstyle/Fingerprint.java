@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes a SHA-256 fingerprint of values and files, used to detect when cached state must be invalidated.
+ * <p>
+ * Files are identified by their absolute path, size and last modification time.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class Fingerprint {
+    private final MessageDigest digest_;
+
+    /**
+     * Creates a new fingerprint.
+     */
+    public Fingerprint() {
+        try {
+            digest_ = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a value to the fingerprint.
+     *
+     * @param value the value, may be {@code null}
+     * @return this fingerprint
+     */
+    public Fingerprint add(String value) {
+        digest_.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest_.update((byte) 0);
+        return this;
+    }
+
+    /**
+     * Adds a file to the fingerprint.
+     *
+     * @param file the file
+     * @return this fingerprint
+     */
+    public Fingerprint add(File file) {
+        return add(file.getAbsolutePath()).add(String.valueOf(file.length()))
+                .add(String.valueOf(file.lastModified()));
+    }
+
+    /**
+     * Returns the hexadecimal representation of the fingerprint.
+     *
+     * @return the fingerprint
+     */
+    @Override
+    public String toString() {
+        try {
+            return HexFormat.of().formatHex(((MessageDigest) digest_.clone()).digest());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * A Java Flight Recorder recording of Checkstyle.
+ * <p>
+ * A forked Checkstyle is recorded from its start through the {@link #jvmOptions(Path) JVM options}, while an
+ * in-process audit is recorded by {@link #start(Path) starting} a recording in the current JVM, which is dumped once
+ * closed. Both use the {@code profile} settings, which sample the executing methods and object allocations. The
+ * recordings can be summarized with {@link FlightSummary}.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class FlightRecording implements AutoCloseable {
+    /**
+     * The name of the recording settings.
+     */
+    public static final String SETTINGS = "profile";
+    private final Path file_;
+    private final Recording recording_;
+
+    private FlightRecording(Recording recording, Path file) {
+        recording_ = recording;
+        file_ = file;
+    }
+
+    /**
+     * Returns the JVM options starting a recording, dumped to the given file when the JVM exits.
+     * <p>
+     * The parent directory of the file is created if needed, as the JVM doesn't.
+     *
+     * @param file the recording file
+     * @return the JVM options
+     * @throws IOException if the parent directory could not be created
+     */
+    public static List<String> jvmOptions(Path file) throws IOException {
+        var absolute = createParent(file);
+        // The startup messages are written to the standard output, which may be the report
+        return List.of("-Xlog:jfr+startup=off",
+                "-XX:StartFlightRecording=settings=" + SETTINGS + ",dumponexit=true,filename=" + absolute);
+    }
+
+    /**
+     * Starts recording the current JVM.
+     *
+     * @param file the file to dump the recording to, once closed
+     * @return the recording
+     * @throws IOException if the settings could not be read, or the parent directory created
+     */
+    public static FlightRecording start(Path file) throws IOException {
+        var absolute = createParent(file);
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(SETTINGS);
+        } catch (ParseException e) {
+            throw new IOException("Unable to read the flight recording settings: " + e.getMessage(), e);
+        }
+        var recording = new Recording(configuration);
+        recording.setName("checkstyle");
+        recording.setToDisk(true);
+        recording.start();
+        return new FlightRecording(recording, absolute);
+    }
+
+    /*
+     * Creates the parent directory of the file, returning its absolute path.
+     */
+    private static Path createParent(Path file) throws IOException {
+        var absolute = file.toAbsolutePath();
+        var parent = absolute.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return absolute;
+    }
+
+    /**
+     * Stops the recording and dumps it to its file.
+     *
+     * @throws IOException if the recording could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try (recording_) {
+            recording_.stop();
+            recording_.dump(file_);
+        }
+    }
+
+    /**
+     * Returns the file the recording is dumped to.
+     *
+     * @return the recording file
+     */
+    public Path file() {
+        return file_;
+    }
+}
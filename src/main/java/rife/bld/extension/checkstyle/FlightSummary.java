@@ -0,0 +1,233 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * A summary of {@link FlightRecording flight recordings}: the garbage collection pauses, the allocation rate, the peak
+ * heap usage and the hottest methods.
+ * <p>
+ * The allocations are estimated from the object allocation samples, and the hot methods are those found the most
+ * often at the top of the execution samples, so they only show where the CPU time is spent, not the callers.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class FlightSummary {
+    private static final double MB = 1024.0 * 1024.0;
+    private final long allocatedBytes_;
+    private final Duration duration_;
+    private final int gcCount_;
+    private final Duration gcPauses_;
+    private final Map<String, Integer> hotMethods_;
+    private final long peakHeap_;
+    private final int recordings_;
+    private final int samples_;
+
+    private FlightSummary(int recordings, Duration duration, int gcCount, Duration gcPauses, long allocatedBytes,
+                          long peakHeap, Map<String, Integer> hotMethods, int samples) {
+        recordings_ = recordings;
+        duration_ = duration;
+        gcCount_ = gcCount;
+        gcPauses_ = gcPauses;
+        allocatedBytes_ = allocatedBytes;
+        peakHeap_ = peakHeap;
+        hotMethods_ = hotMethods;
+        samples_ = samples;
+    }
+
+    /**
+     * Reads the given recordings, such as those of parallel forked processes, into a single summary.
+     * <p>
+     * The duration spans from the first recorded event to the last one, across all recordings.
+     *
+     * @param files the recording files
+     * @return the summary
+     * @throws IOException if a recording could not be read
+     */
+    public static FlightSummary read(Collection<Path> files) throws IOException {
+        Instant first = null;
+        Instant last = null;
+        var gcCount = 0;
+        var gcPauses = Duration.ZERO;
+        var allocated = 0L;
+        var peakHeap = -1L;
+        var samples = 0;
+        var methods = new HashMap<String, Integer>();
+        for (var file : files) {
+            try (var recording = new RecordingFile(file)) {
+                while (recording.hasMoreEvents()) {
+                    var event = recording.readEvent();
+                    if (first == null || event.getStartTime().isBefore(first)) {
+                        first = event.getStartTime();
+                    }
+                    if (last == null || event.getEndTime().isAfter(last)) {
+                        last = event.getEndTime();
+                    }
+                    switch (event.getEventType().getName()) {
+                        case "jdk.GarbageCollection" -> {
+                            gcCount++;
+                            gcPauses = gcPauses.plus(event.getDuration("sumOfPauses"));
+                        }
+                        case "jdk.GCHeapSummary" -> peakHeap = Math.max(peakHeap, event.getLong("heapUsed"));
+                        case "jdk.ObjectAllocationSample" -> allocated += event.getLong("weight");
+                        case "jdk.ExecutionSample" -> {
+                            var method = topMethod(event);
+                            if (method != null) {
+                                samples++;
+                                methods.merge(method, 1, Integer::sum);
+                            }
+                        }
+                        default -> {
+                            // not summarized
+                        }
+                    }
+                }
+            }
+        }
+
+        var hotMethods = new LinkedHashMap<String, Integer>();
+        methods.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> hotMethods.put(e.getKey(), e.getValue()));
+        return new FlightSummary(files.size(), first == null ? Duration.ZERO : Duration.between(first, last), gcCount,
+                gcPauses, allocated, peakHeap, Collections.unmodifiableMap(hotMethods), samples);
+    }
+
+    /*
+     * Returns the method at the top of the sampled stack trace.
+     */
+    private static String topMethod(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return null;
+        }
+        var method = stackTrace.getFrames().get(0).getMethod();
+        return method.getType().getName() + '.' + method.getName();
+    }
+
+    /**
+     * Returns the estimated number of bytes allocated.
+     *
+     * @return the allocated bytes
+     */
+    public long allocatedBytes() {
+        return allocatedBytes_;
+    }
+
+    /**
+     * Returns the estimated allocation rate over the recording duration.
+     *
+     * @return the allocation rate, in bytes per second
+     */
+    public double allocationRate() {
+        var nanos = duration_.toNanos();
+        return nanos == 0L ? 0.0 : allocatedBytes_ * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Returns the time spanned by the recordings.
+     *
+     * @return the duration
+     */
+    public Duration duration() {
+        return duration_;
+    }
+
+    /**
+     * Returns the number of garbage collections.
+     *
+     * @return the collection count
+     */
+    public int gcCount() {
+        return gcCount_;
+    }
+
+    /**
+     * Returns the total time the application was paused by the garbage collections.
+     *
+     * @return the pause time
+     */
+    public Duration gcPauses() {
+        return gcPauses_;
+    }
+
+    /**
+     * Returns the number of execution samples of each method found at the top of the stack, in descending order.
+     *
+     * @return the sample counts, keyed by fully qualified method name
+     */
+    public Map<String, Integer> hotMethods() {
+        return hotMethods_;
+    }
+
+    /**
+     * Returns the largest heap usage found after a garbage collection, or before one.
+     *
+     * @return the peak heap usage in bytes, or {@code -1} if not known
+     */
+    public long peakHeap() {
+        return peakHeap_;
+    }
+
+    /**
+     * Returns the number of execution samples.
+     *
+     * @return the sample count
+     */
+    public int samples() {
+        return samples_;
+    }
+
+    /**
+     * Formats the summary, listing the given number of hot methods.
+     *
+     * @param n the number of hot methods to list
+     * @return the summary text
+     */
+    public String toText(int n) {
+        var sb = new StringBuilder(1024);
+        sb.append(String.format(Locale.ROOT, "Flight recording summary (%d recording(s), %d ms):",
+                recordings_, duration_.toMillis()));
+        sb.append(String.format(Locale.ROOT, "%n  GC pauses:       %d ms in %d collection(s)", gcPauses_.toMillis(),
+                gcCount_));
+        sb.append(String.format(Locale.ROOT, "%n  Allocation rate: %.1f MB/s (%.1f MB allocated)",
+                allocationRate() / MB, allocatedBytes_ / MB));
+        sb.append(String.format(Locale.ROOT, "%n  Peak heap:       %s",
+                peakHeap_ < 0 ? "unknown" : String.format(Locale.ROOT, "%.1f MB", peakHeap_ / MB)));
+        var count = Math.min(Math.max(0, n), hotMethods_.size());
+        sb.append(String.format(Locale.ROOT, "%n  Top %d hot methods by samples:", count));
+        var i = 0;
+        for (var e : hotMethods_.entrySet()) {
+            if (i++ == count) {
+                break;
+            }
+            sb.append(String.format(Locale.ROOT, "%n  %4d. %6d %5.1f%%  %s", i, e.getValue(),
+                    e.getValue() * 100.0 / samples_, e.getKey()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Queries the local Git repository for the files changed since a base reference.
+ * <p>
+ * Only local commands are used, no network access is required.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class GitDiff {
+    private GitDiff() {
+        // no-op
+    }
+
+    /**
+     * Returns the files changed, added, copied or renamed between the merge base of the given reference and
+     * {@code HEAD}, and the working tree.
+     *
+     * @param dir     a directory within the repository
+     * @param baseRef the base reference, such as a branch, tag or commit
+     * @return the absolute paths of the changed files that still exist
+     * @throws IOException if Git failed or could not be run
+     */
+    public static List<File> changedFiles(File dir, String baseRef) throws IOException {
+        var root = new File(git(dir, "rev-parse", "--show-toplevel").strip());
+        var mergeBase = git(dir, "merge-base", baseRef, "HEAD").strip();
+
+        var files = new ArrayList<File>();
+        for (var name : git(root, "diff", "--name-only", "-z", "--no-renames", "--diff-filter=ACMR", mergeBase)
+                .split("\0")) {
+            if (!name.isEmpty()) {
+                var file = new File(root, name);
+                if (file.isFile()) {
+                    files.add(file.getAbsoluteFile());
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the lines added or modified between the merge base of the given reference and {@code HEAD}, and the
+     * working tree.
+     * <p>
+     * The lines of each file are returned as sorted pairs of first and last line numbers, inclusive.
+     *
+     * @param dir     a directory within the repository
+     * @param baseRef the base reference, such as a branch, tag or commit
+     * @return the changed line ranges, keyed by absolute file path
+     * @throws IOException if Git failed or could not be run
+     */
+    public static Map<String, int[]> changedLines(File dir, String baseRef) throws IOException {
+        var root = new File(git(dir, "rev-parse", "--show-toplevel").strip());
+        var mergeBase = git(dir, "merge-base", baseRef, "HEAD").strip();
+        // Explicit prefixes, regardless of the diff.noprefix or diff.mnemonicPrefix configuration
+        return parseHunks(git(root, "-c", "core.quotePath=false", "diff", "-U0", "--no-color", "--no-ext-diff",
+                "--src-prefix=a/", "--dst-prefix=b/", "--no-renames", "--diff-filter=ACMR", mergeBase), root);
+    }
+
+    /**
+     * Returns the lines added or modified between the merge base of the given reference and {@code HEAD}, and the
+     * working tree, keyed by the absolute paths of the given files.
+     * <p>
+     * The files are matched by their real path, so the lines of a file reached through a symbolic link, such as a
+     * linked workspace directory, are keyed by the path it is audited with.
+     *
+     * @param dir     a directory within the repository
+     * @param baseRef the base reference, such as a branch, tag or commit
+     * @param files   the files to audit
+     * @return the changed line ranges of the given files, keyed by absolute file path
+     * @throws IOException if Git failed or could not be run
+     * @see #changedLines(File, String)
+     */
+    public static Map<String, int[]> changedLines(File dir, String baseRef, Collection<File> files)
+            throws IOException {
+        var changed = new HashMap<Path, int[]>();
+        changedLines(dir, baseRef).forEach((path, ranges) -> changed.put(realPath(Path.of(path)), ranges));
+        var result = new HashMap<String, int[]>();
+        for (var file : files) {
+            var ranges = changed.get(realPath(file.getAbsoluteFile().toPath()));
+            if (ranges != null) {
+                result.put(file.getAbsolutePath(), ranges);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses the hunks of a unified diff, without context lines.
+     *
+     * @param diff the diff
+     * @param root the repository root directory
+     * @return the changed line ranges, keyed by absolute file path
+     */
+    static Map<String, int[]> parseHunks(String diff, File root) {
+        var result = new HashMap<String, int[]>();
+        String file = null;
+        var ranges = new int[16];
+        var count = 0;
+        for (var line : diff.split("\n")) {
+            if (line.startsWith("+++ ")) {
+                if (file != null && count > 0) {
+                    result.put(file, Arrays.copyOf(ranges, count));
+                }
+                count = 0;
+                // Git appends a tab to names with spaces, and quotes names with special characters
+                var name = line.endsWith("\t") ? line.substring(4, line.length() - 1) : line.substring(4);
+                if (name.startsWith("\"")) {
+                    name = unquote(name);
+                }
+                file = name.startsWith("b/") ? new File(root, name.substring(2)).getAbsolutePath() : null;
+            } else if (file != null && line.startsWith("@@ ")) {
+                // @@ -start[,count] +start[,count] @@
+                var plus = line.indexOf(" +");
+                var end = line.indexOf(' ', plus + 2);
+                if (plus < 0 || end < 0) {
+                    continue;
+                }
+                var range = line.substring(plus + 2, end);
+                var comma = range.indexOf(',');
+                var start = Integer.parseInt(comma < 0 ? range : range.substring(0, comma));
+                var length = comma < 0 ? 1 : Integer.parseInt(range.substring(comma + 1));
+                if (length > 0) {
+                    if (count + 2 > ranges.length) {
+                        ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                    }
+                    ranges[count++] = start;
+                    ranges[count++] = start + length - 1;
+                }
+            }
+        }
+        if (file != null && count > 0) {
+            result.put(file, Arrays.copyOf(ranges, count));
+        }
+        return result;
+    }
+
+    /**
+     * Runs a Git command and returns its output.
+     *
+     * @param dir  the working directory
+     * @param args the Git arguments
+     * @return the command output
+     * @throws IOException if the command failed or could not be run
+     */
+    static String git(File dir, String... args) throws IOException {
+        var command = new ArrayList<String>(args.length + 1);
+        command.add("git");
+        command.addAll(List.of(args));
+        var process = new ProcessBuilder(command).directory(dir).redirectErrorStream(true).start();
+        process.getOutputStream().close();
+
+        var out = new ByteArrayOutputStream();
+        try (var in = process.getInputStream()) {
+            in.transferTo(out);
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed: "
+                        + out.toString(StandardCharsets.UTF_8).strip());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git.", e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Returns the real path, or the normalized path if it does not exist.
+     */
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.normalize();
+        }
+    }
+
+    /*
+     * Unquotes a C-style quoted name, decoding its escaped and octal UTF-8 bytes.
+     */
+    private static String unquote(String name) {
+        var bytes = new ByteArrayOutputStream(name.length());
+        var end = name.endsWith("\"") && name.length() > 1 ? name.length() - 1 : name.length();
+        for (var i = 1; i < end; i++) {
+            var c = name.charAt(i);
+            if (c != '\\' || i + 1 == end) {
+                bytes.writeBytes(String.valueOf(c).getBytes(StandardCharsets.UTF_8));
+                continue;
+            }
+            c = name.charAt(++i);
+            if (c >= '0' && c <= '7' && i + 2 < end) {
+                bytes.write(Integer.parseInt(name.substring(i, i + 3), 8));
+                i += 2;
+            } else {
+                bytes.write(switch (c) {
+                    case 'a' -> 7;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'v' -> 11;
+                    default -> c;
+                });
+            }
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
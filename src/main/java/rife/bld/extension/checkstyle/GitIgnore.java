@@ -0,0 +1,290 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against the Git ignore rules, without requiring the {@code git} executable.
+ * <p>
+ * The rules are read from {@code .git/info/exclude} and the {@code .gitignore} files of the repository, from its root
+ * down to the directory being matched, with the rules of deeper files taking precedence. The
+ * <a href="https://git-scm.com/docs/gitignore">gitignore</a> pattern format is supported, including negation,
+ * directory-only and anchored patterns, and {@code **} wildcards. The global excludes file is not read.
+ * <p>
+ * An instance applies to a single directory, the ignore rules of its subdirectories are added through
+ * {@link #child(Path)} while walking the tree. Instances are immutable and thread-safe.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class GitIgnore {
+    private static final String GIT_DIR = ".git";
+    private static final String IGNORE_FILE = ".gitignore";
+    private final Path dir_;
+    private final Path root_;
+    private final List<Rule> rules_;
+
+    private GitIgnore(Path root, Path dir, List<Rule> rules) {
+        root_ = root;
+        dir_ = dir;
+        rules_ = rules;
+    }
+
+    /**
+     * Loads the ignore rules applying to the given directory.
+     * <p>
+     * The repository root is the closest parent directory containing {@code .git}. If there is none, the given
+     * directory is treated as the root and only its own ignore files, and those below it, are read.
+     *
+     * @param dir the directory
+     * @return the ignore rules
+     */
+    public static GitIgnore of(Path dir) {
+        var absolute = dir.toAbsolutePath().normalize();
+        var root = absolute;
+        for (var parent = absolute; parent != null; parent = parent.getParent()) {
+            if (Files.exists(parent.resolve(GIT_DIR))) {
+                root = parent;
+                break;
+            }
+        }
+
+        var rules = new ArrayList<Rule>();
+        parse(root.resolve(GIT_DIR).resolve("info").resolve("exclude"), "", rules);
+        var ignore = new GitIgnore(root, root, List.of()).with(root, rules);
+        if (!absolute.equals(root)) {
+            for (var name : root.relativize(absolute)) {
+                ignore = ignore.child(ignore.dir_.resolve(name));
+            }
+        }
+        return ignore;
+    }
+
+    /*
+     * Parses the given ignore file, if it exists.
+     */
+    private static void parse(Path file, String base, List<Rule> rules) {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                var rule = Rule.parse(line, base);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+        } catch (IOException ignored) {
+            // unreadable ignore file
+        }
+    }
+
+    /**
+     * Returns the ignore rules applying to the given subdirectory, adding those of its {@code .gitignore} file.
+     *
+     * @param dir the subdirectory
+     * @return the ignore rules
+     */
+    public GitIgnore child(Path dir) {
+        return with(dir, new ArrayList<>());
+    }
+
+    /*
+     * Returns the rules for the given directory, adding the given rules followed by those of its ignore file.
+     */
+    private GitIgnore with(Path dir, List<Rule> rules) {
+        parse(dir.resolve(IGNORE_FILE), relativePath(dir), rules);
+        if (rules.isEmpty()) {
+            return new GitIgnore(root_, dir, rules_);
+        }
+        var merged = new ArrayList<Rule>(rules_.size() + rules.size());
+        merged.addAll(rules_);
+        merged.addAll(rules);
+        return new GitIgnore(root_, dir, List.copyOf(merged));
+    }
+
+    /**
+     * Determines whether the given entry of the directory is ignored.
+     * <p>
+     * The {@code .git} directory is always ignored.
+     *
+     * @param path        the path of the file or subdirectory
+     * @param isDirectory whether the path is a directory
+     * @return {@code true} if the path is ignored
+     */
+    public boolean isIgnored(Path path, boolean isDirectory) {
+        var name = path.getFileName().toString();
+        if (isDirectory && GIT_DIR.equals(name)) {
+            return true;
+        }
+        if (rules_.isEmpty()) {
+            return false;
+        }
+        var relative = relativePath(path);
+        // The last matching rule wins
+        for (var i = rules_.size() - 1; i >= 0; i--) {
+            var rule = rules_.get(i);
+            if (rule.matches(relative, name, isDirectory)) {
+                return !rule.isNegated();
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns the path relative to the repository root, separated by slashes.
+     */
+    private String relativePath(Path path) {
+        var relative = root_.relativize(path.toAbsolutePath().normalize());
+        var sb = new StringBuilder();
+        for (var name : relative) {
+            if (!sb.isEmpty()) {
+                sb.append('/');
+            }
+            sb.append(name);
+        }
+        return sb.toString();
+    }
+
+    /*
+     * An ignore pattern, matching either the name of entries or, if anchored, their path relative to the base.
+     */
+    record Rule(String base, Pattern pattern, boolean isAnchored, boolean isDirectoryOnly, boolean isNegated) {
+        /*
+         * Parses a line of an ignore file, returns null if blank or a comment.
+         */
+        static Rule parse(String line, String base) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                return null;
+            }
+
+            // Trailing spaces are ignored, unless escaped
+            var end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            var glob = line.substring(0, end);
+
+            var isNegated = false;
+            if (glob.startsWith("!")) {
+                isNegated = true;
+                glob = glob.substring(1);
+            } else if (glob.startsWith("\\!") || glob.startsWith("\\#")) {
+                glob = glob.substring(1);
+            }
+
+            var isDirectoryOnly = false;
+            if (glob.endsWith("/") && !glob.endsWith("\\/")) {
+                isDirectoryOnly = true;
+                glob = glob.substring(0, glob.length() - 1);
+            }
+            if (glob.isEmpty()) {
+                return null;
+            }
+
+            var isAnchored = glob.indexOf('/') >= 0;
+            if (glob.startsWith("/")) {
+                glob = glob.substring(1);
+            }
+            return new Rule(base, Pattern.compile(toRegex(glob)), isAnchored, isDirectoryOnly, isNegated);
+        }
+
+        /*
+         * Appends a literal character, escaped if needed.
+         */
+        private static void appendLiteral(StringBuilder sb, char c) {
+            if ("\\.[]{}()<>*+-=!?^$|".indexOf(c) >= 0) {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+
+        /*
+         * Converts a glob to a regular expression.
+         */
+        static String toRegex(String glob) {
+            var sb = new StringBuilder(glob.length() * 2);
+            var i = 0;
+            while (i < glob.length()) {
+                var c = glob.charAt(i);
+                if (c == '*' && glob.startsWith("**", i)
+                        && (i == 0 || glob.charAt(i - 1) == '/')
+                        && (i + 2 == glob.length() || glob.charAt(i + 2) == '/')) {
+                    if (i + 2 == glob.length()) {
+                        // Trailing: everything inside
+                        sb.append(".*");
+                        i += 2;
+                    } else {
+                        // Leading or in between: zero or more directories
+                        sb.append("(?:.*/)?");
+                        i += 3;
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case '*' -> sb.append("[^/]*");
+                    case '?' -> sb.append("[^/]");
+                    case '\\' -> {
+                        if (i + 1 < glob.length()) {
+                            appendLiteral(sb, glob.charAt(++i));
+                        }
+                    }
+                    case '[' -> {
+                        var close = glob.indexOf(']', i + 2);
+                        if (close < 0) {
+                            sb.append("\\[");
+                        } else {
+                            var set = glob.substring(i + 1, close);
+                            if (set.startsWith("!")) {
+                                set = '^' + set.substring(1);
+                            }
+                            sb.append('[').append(set.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                            i = close;
+                        }
+                    }
+                    default -> appendLiteral(sb, c);
+                }
+                i++;
+            }
+            return sb.toString();
+        }
+
+        /*
+         * Determines whether the rule matches the given path, relative to the repository root.
+         */
+        boolean matches(String relative, String name, boolean isDirectory) {
+            if (isDirectoryOnly && !isDirectory) {
+                return false;
+            }
+            if (!base.isEmpty()) {
+                if (!relative.startsWith(base) || relative.length() <= base.length()
+                        || relative.charAt(base.length()) != '/') {
+                    return false;
+                }
+                relative = relative.substring(base.length() + 1);
+            }
+            return pattern.matcher(isAnchored ? relative : name).matches();
+        }
+    }
+}
@@ -0,0 +1,607 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Runs the Checkstyle root module, typically the {@code Checker}, within the current JVM.
+ * <p>
+ * Checkstyle is loaded through an isolated class loader, built from the given classpath, and driven reflectively so
+ * that the extension does not depend on any particular Checkstyle version. Audits may be run concurrently, each using
+ * its own root module.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class InProcessChecker implements Closeable {
+    private static final String CHECKSTYLE_PKG = "com.puppycrawl.tools.checkstyle.";
+    private static final String PARSE_BASELINE = "OuterTypeNumber";
+    private static final Set<String> SUPPORTED_OPTIONS = Set.of("-c", "-E", "-f", "-o", "-p");
+    private final URLClassLoader loader_;
+    private Object config_;
+    private String configKey_;
+
+    /**
+     * Creates a new in-process checker.
+     *
+     * @param classpath the classpath containing Checkstyle and its dependencies
+     */
+    public InProcessChecker(Collection<File> classpath) {
+        var urls = new ArrayList<URL>(classpath.size());
+        for (var entry : classpath) {
+            try {
+                urls.add(entry.toURI().toURL());
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid classpath entry: " + entry, e);
+            }
+        }
+        loader_ = new URLClassLoader(urls.toArray(URL[]::new), ClassLoader.getPlatformClassLoader());
+    }
+
+    /**
+     * Determines whether the given command line options can be handled in-process.
+     * <p>
+     * The tree, xpath and suppression generation options are single-file utilities that are only available from the
+     * command line.
+     *
+     * @param options the command line options
+     * @return {@code true} if all the options are supported
+     */
+    public static boolean isSupported(Collection<String> options) {
+        return SUPPORTED_OPTIONS.containsAll(options);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumConstant(Class<?> type, String name) {
+        return Enum.valueOf((Class<? extends Enum>) type, name);
+    }
+
+    /**
+     * Audits the given files.
+     * <p>
+     * The report is written to the file specified by the {@code -o} option, if any, or to the given output stream.
+     *
+     * @param options the command line options
+     * @param files   the files to audit
+     * @param out     the output stream to write the report to, if no output file is specified
+     * @return the number of errors
+     * @throws IOException if an error occurs while running Checkstyle
+     */
+    public int audit(Map<String, String> options, List<File> files, OutputStream out) throws IOException {
+        return audit(options, files, out, null);
+    }
+
+    /**
+     * Audits the given files, also notifying the given listener of the audit events.
+     * <p>
+     * The report is written to the file specified by the {@code -o} option, if any, or to the given output stream.
+     *
+     * @param options  the command line options
+     * @param files    the files to audit
+     * @param out      the output stream to write the report to, if no output file is specified
+     * @param listener the listener to notify, may be {@code null}
+     * @return the number of errors
+     * @throws IOException if an error occurs while running Checkstyle
+     */
+    public int audit(Map<String, String> options, List<File> files, OutputStream out, AuditEventListener listener)
+            throws IOException {
+        var output = options.get("-o");
+        if (output == null) {
+            return execute(options, files, listener, () -> createLogger(options.get("-f"), out));
+        } else {
+            try (var fileOut = Files.newOutputStream(Path.of(output))) {
+                return execute(options, files, listener, () -> createLogger(options.get("-f"), fileOut));
+            }
+        }
+    }
+
+    /**
+     * Audits the given files, notifying the given listener of the audit events.
+     * <p>
+     * No report is written, the format and output options are ignored.
+     *
+     * @param options  the command line options
+     * @param files    the files to audit
+     * @param listener the listener to notify
+     * @return the number of errors
+     * @throws IOException if an error occurs while running Checkstyle
+     */
+    public int audit(Map<String, String> options, List<File> files, AuditEventListener listener)
+            throws IOException {
+        return execute(options, files, null, () -> createListener(listener));
+    }
+
+    /**
+     * Loads the configuration ahead of the audits, which otherwise load it when first needed.
+     * <p>
+     * The configuration is reused by the following audits, as long as its files are not modified.
+     *
+     * @param options the command line options
+     * @throws IOException if the configuration could not be loaded
+     */
+    public void configure(Map<String, String> options) throws IOException {
+        var thread = Thread.currentThread();
+        var contextLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader_);
+        try {
+            configuration(options);
+        } catch (InvocationTargetException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unable to load the Checkstyle configuration: " + e.getMessage(), e);
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+    }
+
+    private int execute(Map<String, String> options, List<File> files, AuditEventListener listener,
+                        ListenerFactory listenerFactory) throws IOException {
+        var thread = Thread.currentThread();
+        var contextLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader_);
+        try {
+            var rootClass = loader_.loadClass(CHECKSTYLE_PKG + "api.RootModule");
+            var rootModule = createRootModule(rootClass, configuration(options));
+            try {
+                var addListener = rootClass.getMethod("addListener",
+                        loader_.loadClass(CHECKSTYLE_PKG + "api.AuditListener"));
+                addListener.invoke(rootModule, listenerFactory.create());
+                if (listener != null) {
+                    addListener.invoke(rootModule, createListener(listener));
+                }
+                return (int) rootClass.getMethod("process", List.class).invoke(rootModule, files);
+            } finally {
+                rootClass.getMethod("destroy").invoke(rootModule);
+            }
+        } catch (InvocationTargetException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unable to run Checkstyle: " + e.getMessage(), e);
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+    }
+
+    /**
+     * Profiles the check modules of the configuration, measuring the CPU time each of them spends on the given files.
+     * <p>
+     * The files are audited once per check module, with a configuration only retaining that module, along with the
+     * filters. The time spent reading the files, and parsing them for the modules of the {@code TreeWalker}, is
+     * measured separately and subtracted. Profiling therefore takes as many audits as there are check modules, and is
+     * meant to be run occasionally. No violations are reported.
+     *
+     * @param options the command line options
+     * @param files   the files to audit
+     * @return the profile
+     * @throws IOException if an error occurs while running Checkstyle
+     */
+    public CheckProfile profile(Map<String, String> options, List<File> files) throws IOException {
+        var thread = Thread.currentThread();
+        var contextLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader_);
+        try {
+            var config = configuration(options);
+            var configClass = loader_.loadClass(CHECKSTYLE_PKG + "api.Configuration");
+            var getName = configClass.getMethod("getName");
+            var getChildren = configClass.getMethod("getChildren");
+
+            // Split the modules between the filters, always kept, and the checks to profile
+            var filters = new ArrayList<>();
+            var checks = new ArrayList<>();
+            Object treeWalker = null;
+            var treeFilters = new ArrayList<>();
+            var treeChecks = new ArrayList<>();
+            for (var child : (Object[]) getChildren.invoke(config)) {
+                var name = (String) getName.invoke(child);
+                if (isModule(name, "TreeWalker")) {
+                    treeWalker = child;
+                    for (var treeChild : (Object[]) getChildren.invoke(child)) {
+                        (isFilter((String) getName.invoke(treeChild)) ? treeFilters : treeChecks).add(treeChild);
+                    }
+                } else {
+                    (isFilter(name) ? filters : checks).add(child);
+                }
+            }
+
+            var indexes = new HashMap<String, Integer>(files.size() * 4 / 3 + 1);
+            var paths = new ArrayList<String>(files.size());
+            for (var file : files) {
+                var path = file.getAbsolutePath();
+                indexes.putIfAbsent(path, paths.size());
+                paths.add(path);
+            }
+
+            // Measure the time spent reading and parsing the files, after a warm-up run
+            var readConfig = filteredConfiguration(config, configClass, filters);
+            cpuTimes(readConfig, files, indexes);
+            var readBaseline = cpuTimes(readConfig, files, indexes);
+            long[] parseBaseline = null;
+            if (treeWalker != null && !treeChecks.isEmpty()) {
+                var parsing = new ArrayList<>(treeFilters);
+                parsing.add(moduleConfiguration(configClass, PARSE_BASELINE));
+                var parseConfig = withChild(config, configClass, filters,
+                        filteredConfiguration(treeWalker, configClass, parsing));
+                cpuTimes(parseConfig, files, indexes);
+                parseBaseline = cpuTimes(parseConfig, files, indexes);
+            }
+
+            var names = new ArrayList<String>();
+            var counts = new HashMap<String, Integer>();
+            var cpuTimes = new long[checks.size() + treeChecks.size()][];
+            var index = 0;
+            for (var check : checks) {
+                names.add(profileName((String) getName.invoke(check), counts));
+                cpuTimes[index++] = subtract(cpuTimes(withChild(config, configClass, filters, check), files,
+                        indexes), readBaseline);
+            }
+            for (var check : treeChecks) {
+                names.add(profileName((String) getName.invoke(check), counts));
+                var modules = new ArrayList<>(treeFilters);
+                modules.add(check);
+                cpuTimes[index++] = subtract(cpuTimes(withChild(config, configClass, filters,
+                        filteredConfiguration(treeWalker, configClass, modules)), files, indexes), parseBaseline);
+            }
+            return new CheckProfile(names, paths, cpuTimes);
+        } catch (InvocationTargetException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unable to profile Checkstyle: " + e.getMessage(), e);
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+    }
+
+    /*
+     * Audits the files with the given configuration, returning the CPU time spent on each of them.
+     */
+    private long[] cpuTimes(Object config, List<File> files, Map<String, Integer> indexes)
+            throws IOException, ReflectiveOperationException {
+        var threads = ManagementFactory.getThreadMXBean();
+        var isCpuTime = isCpuTimeEnabled(threads);
+        var times = new long[indexes.size()];
+        var rootClass = loader_.loadClass(CHECKSTYLE_PKG + "api.RootModule");
+        var rootModule = createRootModule(rootClass, config);
+        try {
+            rootClass.getMethod("addListener", loader_.loadClass(CHECKSTYLE_PKG + "api.AuditListener"))
+                    .invoke(rootModule, createListener(new AuditEventListener() {
+                        private long start_;
+
+                        @Override
+                        public void fileFinished(String file) {
+                            var index = indexes.get(file);
+                            if (index != null) {
+                                times[index] += (isCpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime())
+                                        - start_;
+                            }
+                        }
+
+                        @Override
+                        public void fileStarted(String file) {
+                            start_ = isCpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+                        }
+                    }));
+            rootClass.getMethod("process", List.class).invoke(rootModule, files);
+        } finally {
+            rootClass.getMethod("destroy").invoke(rootModule);
+        }
+        return times;
+    }
+
+    /*
+     * Returns a copy of the configuration, only retaining the given children.
+     */
+    private Object filteredConfiguration(Object config, Class<?> configClass, List<?> children) {
+        var array = Array.newInstance(configClass, children.size());
+        for (var i = 0; i < children.size(); i++) {
+            Array.set(array, i, children.get(i));
+        }
+        return Proxy.newProxyInstance(loader_, new Class<?>[]{configClass}, (proxy, method, args) -> {
+            if ("getChildren".equals(method.getName())) {
+                return array;
+            }
+            try {
+                return method.invoke(config, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /*
+     * Determines whether the current thread CPU time can be measured, enabling it if needed.
+     */
+    private static boolean isCpuTimeEnabled(ThreadMXBean threads) {
+        if (!threads.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        if (!threads.isThreadCpuTimeEnabled()) {
+            try {
+                threads.setThreadCpuTimeEnabled(true);
+            } catch (UnsupportedOperationException | SecurityException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Determines whether the module is a filter, or holds state for one, rather than a check.
+     */
+    private static boolean isFilter(String name) {
+        return name.endsWith("Filter") || name.endsWith("Holder");
+    }
+
+    /*
+     * Determines whether the module name, simple or fully qualified, designates the given module.
+     */
+    private static boolean isModule(String name, String module) {
+        return name.equals(module) || name.endsWith('.' + module);
+    }
+
+    /*
+     * Creates the configuration of a module without any property.
+     */
+    private Object moduleConfiguration(Class<?> configClass, String name) {
+        var children = Array.newInstance(configClass, 0);
+        return Proxy.newProxyInstance(loader_, new Class<?>[]{configClass}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getChildren" -> children;
+                    case "getAttributeNames", "getPropertyNames" -> new String[0];
+                    case "getMessages" -> Map.of();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> name;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /*
+     * Returns the name of a profiled module, numbered if the module is configured more than once.
+     */
+    private static String profileName(String name, Map<String, Integer> counts) {
+        var simpleName = name.substring(name.lastIndexOf('.') + 1);
+        if (simpleName.endsWith("Check")) {
+            simpleName = simpleName.substring(0, simpleName.length() - "Check".length());
+        }
+        var count = counts.merge(simpleName, 1, Integer::sum);
+        return count == 1 ? simpleName : simpleName + " #" + count;
+    }
+
+    /*
+     * Returns the stack trace of the exception, as printed by Checkstyle.
+     */
+    private static String stackTrace(Throwable throwable) {
+        var writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString().strip();
+    }
+
+    /*
+     * Subtracts the baseline from the times, in place.
+     */
+    private static long[] subtract(long[] times, long[] baseline) {
+        if (baseline != null) {
+            for (var i = 0; i < times.length; i++) {
+                times[i] = Math.max(0L, times[i] - baseline[i]);
+            }
+        }
+        return times;
+    }
+
+    /*
+     * Returns a copy of the configuration, only retaining the given children followed by another one.
+     */
+    private Object withChild(Object config, Class<?> configClass, List<?> children, Object child) {
+        var all = new ArrayList<Object>(children);
+        all.add(child);
+        return filteredConfiguration(config, configClass, all);
+    }
+
+    /**
+     * Releases the resources held by the Checkstyle class loader.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        loader_.close();
+    }
+
+    /*
+     * Returns the configuration, reusing the previously loaded one if its files have not changed since.
+     */
+    private synchronized Object configuration(Map<String, String> options)
+            throws IOException, ReflectiveOperationException {
+        var key = configurationKey(options);
+        if (key == null || !key.equals(configKey_)) {
+            config_ = loadConfiguration(options);
+            configKey_ = key;
+        }
+        return config_;
+    }
+
+    /*
+     * Returns the key identifying the configuration and properties files, or null if they can't be tracked.
+     */
+    private static String configurationKey(Map<String, String> options) {
+        var key = new StringBuilder(options.containsKey("-E") ? "E" : "O");
+        for (var option : List.of("-c", "-p")) {
+            var value = options.get(option);
+            if (value != null) {
+                var file = new File(value);
+                if (!file.isFile()) {
+                    return null;
+                }
+                key.append('|').append(file.getAbsolutePath()).append(':').append(file.lastModified())
+                        .append(':').append(file.length());
+            }
+        }
+        return key.toString();
+    }
+
+    /*
+     * Creates a Checkstyle audit listener forwarding the events to the given listener.
+     */
+    private Object createListener(AuditEventListener listener) throws ReflectiveOperationException {
+        var eventClass = loader_.loadClass(CHECKSTYLE_PKG + "api.AuditEvent");
+        var getFileName = eventClass.getMethod("getFileName");
+        var getLine = eventClass.getMethod("getLine");
+        var getColumn = eventClass.getMethod("getColumn");
+        var getSeverityLevel = eventClass.getMethod("getSeverityLevel");
+        var getMessage = eventClass.getMethod("getMessage");
+        var getSourceName = eventClass.getMethod("getSourceName");
+
+        return Proxy.newProxyInstance(loader_,
+                new Class<?>[]{loader_.loadClass(CHECKSTYLE_PKG + "api.AuditListener")},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "auditStarted" -> listener.auditStarted();
+                        case "auditFinished" -> listener.auditFinished();
+                        case "fileStarted" -> listener.fileStarted((String) getFileName.invoke(args[0]));
+                        case "fileFinished" -> listener.fileFinished((String) getFileName.invoke(args[0]));
+                        case "addError" -> listener.violation(new Violation(
+                                (String) getFileName.invoke(args[0]),
+                                (int) getLine.invoke(args[0]),
+                                (int) getColumn.invoke(args[0]),
+                                Severity.of(((Enum<?>) getSeverityLevel.invoke(args[0])).name()),
+                                (String) getMessage.invoke(args[0]),
+                                (String) getSourceName.invoke(args[0])));
+                        case "addException" -> listener.exception((String) getFileName.invoke(args[0]),
+                                stackTrace((Throwable) args[1]));
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return listener.toString();
+                        }
+                        default -> {
+                            // ignore
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private Object createLogger(String format, OutputStream out) throws ReflectiveOperationException {
+        String name;
+        if (OutputFormat.XML.label.equals(format)) {
+            name = "XMLLogger";
+        } else if (OutputFormat.SARIF.label.equals(format)) {
+            name = "SarifLogger";
+        } else {
+            name = "DefaultLogger";
+        }
+
+        var loggerClass = loader_.loadClass(CHECKSTYLE_PKG + name);
+        for (var constructor : loggerClass.getConstructors()) {
+            var types = constructor.getParameterTypes();
+            if (types.length == 2 && types[0] == OutputStream.class && types[1].isEnum()) {
+                // The stream is always closed by the caller
+                return constructor.newInstance(out, enumConstant(types[1], "NONE"));
+            }
+        }
+        throw new NoSuchMethodException(loggerClass.getName() + "(OutputStream, OutputStreamOptions)");
+    }
+
+    /*
+     * Creates the root module of the configuration, typically the Checker, and configures it as the command line does.
+     */
+    private Object createRootModule(Class<?> rootClass, Object config)
+            throws IOException, ReflectiveOperationException {
+        var configClass = loader_.loadClass(CHECKSTYLE_PKG + "api.Configuration");
+        var name = (String) configClass.getMethod("getName").invoke(config);
+        var factory = loader_.loadClass(CHECKSTYLE_PKG + "PackageObjectFactory")
+                .getConstructor(String.class, ClassLoader.class)
+                .newInstance(CHECKSTYLE_PKG.substring(0, CHECKSTYLE_PKG.length() - 1), loader_);
+        var rootModule = factory.getClass().getMethod("createModule", String.class).invoke(factory, name);
+        if (!rootClass.isInstance(rootModule)) {
+            throw new IOException(name + " is not a root module.");
+        }
+        rootClass.getMethod("setModuleClassLoader", ClassLoader.class).invoke(rootModule, loader_);
+        rootClass.getMethod("configure", configClass).invoke(rootModule, config);
+        return rootModule;
+    }
+
+    private Object loadConfiguration(Map<String, String> options) throws IOException, ReflectiveOperationException {
+        var config = options.get("-c");
+        if (config == null) {
+            throw new IOException("Must specify a config XML file.");
+        }
+
+        Properties props;
+        var propertiesFile = options.get("-p");
+        if (propertiesFile == null) {
+            props = System.getProperties();
+        } else {
+            props = new Properties();
+            try (var in = Files.newInputStream(Path.of(propertiesFile))) {
+                props.load(in);
+            }
+            props = resolveProperties(props);
+        }
+
+        var expander = loader_.loadClass(CHECKSTYLE_PKG + "PropertiesExpander")
+                .getConstructor(Properties.class).newInstance(props);
+        var ignoredClass = loader_.loadClass(CHECKSTYLE_PKG + "ConfigurationLoader$IgnoredModulesOptions");
+        return loader_.loadClass(CHECKSTYLE_PKG + "ConfigurationLoader")
+                .getMethod("loadConfiguration", String.class,
+                        loader_.loadClass(CHECKSTYLE_PKG + "PropertyResolver"), ignoredClass)
+                .invoke(null, config, expander,
+                        enumConstant(ignoredClass, options.containsKey("-E") ? "EXECUTE" : "OMIT"));
+    }
+
+    /*
+     * Resolves properties referencing other properties, if supported by the Checkstyle version.
+     */
+    private Properties resolveProperties(Properties props) throws ReflectiveOperationException {
+        try {
+            return (Properties) loader_.loadClass(CHECKSTYLE_PKG + "utils.ChainedPropertyUtil")
+                    .getMethod("getResolvedProperties", Properties.class).invoke(null, props);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return props;
+        }
+    }
+
+    /*
+     * Creates the Checkstyle audit listener.
+     */
+    @FunctionalInterface
+    private interface ListenerFactory {
+        Object create() throws ReflectiveOperationException;
+    }
+}
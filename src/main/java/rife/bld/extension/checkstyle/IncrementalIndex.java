@@ -0,0 +1,298 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persistent index of the files previously audited, used to only re-check the files that changed.
+ * <p>
+ * Each file is recorded with its size, last modification time, content hash and the violations last reported for
+ * it. The whole index is invalidated when its fingerprint, derived from the configuration and Checkstyle version,
+ * changes.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class IncrementalIndex {
+    private static final int MAGIC = 0x43534949; // CSII
+    private static final int VERSION = 1;
+    private final Map<String, Entry> entries_ = new HashMap<>();
+    private final String fingerprint_;
+    private final File indexFile_;
+    private final Map<String, Entry> pending_ = new HashMap<>();
+    private int hits_;
+    private int misses_;
+
+    private IncrementalIndex(File indexFile, String fingerprint) {
+        indexFile_ = indexFile;
+        fingerprint_ = fingerprint;
+    }
+
+    private static byte[] hash(File file) throws IOException {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var buffer = new byte[65536];
+            try (var in = Files.newInputStream(file.toPath())) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads the index from the given file.
+     * <p>
+     * An empty index is returned if the file does not exist, is unreadable or was created with a different
+     * fingerprint.
+     *
+     * @param indexFile   the index file
+     * @param fingerprint the fingerprint of the configuration and Checkstyle version
+     * @return the index
+     */
+    public static IncrementalIndex load(File indexFile, String fingerprint) {
+        var index = new IncrementalIndex(indexFile, fingerprint);
+        if (indexFile.isFile()) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+                if (in.readInt() == MAGIC && in.readInt() == VERSION && fingerprint.equals(in.readUTF())) {
+                    var count = in.readInt();
+                    for (var i = 0; i < count; i++) {
+                        var path = in.readUTF();
+                        var entry = new Entry(in.readLong(), in.readLong(), in.readNBytes(in.readInt()),
+                                in.readBoolean());
+                        var violations = in.readInt();
+                        for (var j = 0; j < violations; j++) {
+                            entry.violations.add(new Violation(path, in.readInt(), in.readInt(),
+                                    Severity.values()[in.readByte()], in.readUTF(), in.readUTF()));
+                        }
+                        index.entries_.put(path, entry);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                index.entries_.clear();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of files whose cached violations were reused.
+     *
+     * @return the cache hits
+     */
+    public int hits() {
+        return hits_;
+    }
+
+    /**
+     * Returns the files that must be audited, because they are new or changed since the last run.
+     * <p>
+     * A file is considered unchanged if its size and last modification time are identical, or if its content hash
+     * is.
+     *
+     * @param files the files to audit
+     * @return the invalidated files
+     * @throws IOException if a file could not be read
+     */
+    public List<File> invalidated(List<File> files) throws IOException {
+        var invalidated = new ArrayList<File>();
+        for (var file : files) {
+            var path = file.getAbsolutePath();
+            var size = file.length();
+            var lastModified = file.lastModified();
+            var entry = entries_.get(path);
+            if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+                hits_++;
+                continue;
+            }
+
+            var hash = hash(file);
+            if (entry != null && Arrays.equals(entry.hash, hash)) {
+                entries_.put(path, entry.withMetadata(size, lastModified));
+                hits_++;
+            } else {
+                pending_.put(path, new Entry(size, lastModified, hash, false));
+                invalidated.add(file);
+                misses_++;
+            }
+        }
+        return invalidated;
+    }
+
+    /**
+     * Returns the number of files that had to be audited.
+     *
+     * @return the cache misses
+     */
+    public int misses() {
+        return misses_;
+    }
+
+    /**
+     * Returns a listener recording the violations of the invalidated files, as they are audited, and forwarding them
+     * to the given listener.
+     * <p>
+     * The start and end of the audit are not forwarded, so the unchanged files can be {@link #replay replayed} within
+     * the same audit.
+     *
+     * @param listener the listener
+     * @return the recording listener
+     */
+    public AuditEventListener recorder(AuditEventListener listener) {
+        return new AuditEventListener() {
+            @Override
+            public void exception(String file, String stackTrace) {
+                var entry = pending_.get(file);
+                if (entry != null) {
+                    entry.exceptions.add(stackTrace);
+                }
+                listener.exception(file, stackTrace);
+            }
+
+            @Override
+            public void fileFinished(String file) {
+                listener.fileFinished(file);
+            }
+
+            @Override
+            public void fileStarted(String file) {
+                var entry = pending_.get(file);
+                if (entry != null) {
+                    entry.exceptions.clear();
+                    entry.violations.clear();
+                    pending_.put(file, entry.withAudited());
+                }
+                listener.fileStarted(file);
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                var entry = pending_.get(violation.file());
+                if (entry != null) {
+                    entry.violations.add(violation);
+                }
+                listener.violation(violation);
+            }
+        };
+    }
+
+    /**
+     * Notifies the given listener of the violations recorded for the given files, as if they had been audited.
+     * <p>
+     * Files that were not processed by Checkstyle, because of their extension, are skipped. The start and end of the
+     * audit are not notified.
+     *
+     * @param files    the files
+     * @param listener the listener
+     */
+    public void replay(List<File> files, AuditEventListener listener) {
+        for (var file : files) {
+            var path = file.getAbsolutePath();
+            var entry = pending_.getOrDefault(path, entries_.get(path));
+            if (entry != null && entry.isAudited) {
+                listener.fileStarted(path);
+                entry.violations.forEach(listener::violation);
+                entry.exceptions.forEach(e -> listener.exception(path, e));
+                listener.fileFinished(path);
+            }
+        }
+    }
+
+    /**
+     * Saves the index, dropping the files that no longer exist.
+     * <p>
+     * Files whose processing threw an exception are not saved either, so they are audited again by the next run.
+     *
+     * @throws IOException if the index could not be written
+     */
+    public void save() throws IOException {
+        var keep = new HashMap<String, Entry>(entries_);
+        keep.putAll(pending_);
+        keep.entrySet().removeIf(e -> !e.getValue().exceptions.isEmpty() || !new File(e.getKey()).isFile());
+
+        Files.createDirectories(indexFile_.getAbsoluteFile().getParentFile().toPath());
+        var tmp = new File(indexFile_.getAbsoluteFile().getParentFile(), indexFile_.getName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(fingerprint_);
+            out.writeInt(keep.size());
+            for (var e : keep.entrySet()) {
+                var entry = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(entry.size);
+                out.writeLong(entry.lastModified);
+                out.writeInt(entry.hash.length);
+                out.write(entry.hash);
+                out.writeBoolean(entry.isAudited);
+                out.writeInt(entry.violations.size());
+                for (var v : entry.violations) {
+                    out.writeInt(v.line());
+                    out.writeInt(v.column());
+                    out.writeByte(v.severity().ordinal());
+                    out.writeUTF(v.message());
+                    out.writeUTF(v.source());
+                }
+            }
+        }
+        Files.move(tmp.toPath(), indexFile_.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        entries_.clear();
+        entries_.putAll(keep);
+        pending_.clear();
+    }
+
+    private static final class Entry {
+        final List<String> exceptions = new ArrayList<>();
+        final byte[] hash;
+        final boolean isAudited;
+        final long lastModified;
+        final long size;
+        final List<Violation> violations;
+
+        Entry(long size, long lastModified, byte[] hash, boolean isAudited) {
+            this(size, lastModified, hash, isAudited, new ArrayList<>());
+        }
+
+        private Entry(long size, long lastModified, byte[] hash, boolean isAudited, List<Violation> violations) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.isAudited = isAudited;
+            this.violations = violations;
+        }
+
+        Entry withAudited() {
+            return new Entry(size, lastModified, hash, true, violations);
+        }
+
+        Entry withMetadata(long size, long lastModified) {
+            return new Entry(size, lastModified, hash, isAudited, violations);
+        }
+    }
+}
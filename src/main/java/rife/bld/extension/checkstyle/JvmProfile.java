@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.util.List;
+
+/**
+ * The JVM tuning profiles of the forked Checkstyle process.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public enum JvmProfile {
+    /**
+     * Favors startup time, for small audits such as pre-commit checks: C1 compiler only, serial garbage collector
+     * and a small heap.
+     */
+    QUICK_STARTUP,
+    /**
+     * Favors throughput, for large audits: parallel garbage collector and a heap sized according to the number and
+     * size of the source files.
+     */
+    THROUGHPUT;
+
+    private static final long MB = 1024L * 1024L;
+    private static final long MAX_HEAP = 4096L * MB;
+    private static final long MIN_HEAP = 256L * MB;
+
+    /**
+     * Returns the maximum heap size suited to the given source files.
+     * <p>
+     * Checkstyle only keeps the tree of the file being audited, the heap therefore mostly grows with the number of
+     * violations and cached file contents.
+     *
+     * @param files the number of source files
+     * @param bytes the total size of the source files
+     * @return the heap size, in megabytes
+     */
+    public static long heapSize(long files, long bytes) {
+        var heap = MIN_HEAP + files * 64L * 1024L + bytes * 4L;
+        return Math.min(MAX_HEAP, Math.max(MIN_HEAP, heap)) / MB;
+    }
+
+    /**
+     * Returns the JVM options of this profile.
+     *
+     * @param files the number of source files to audit
+     * @param bytes the total size of the source files to audit
+     * @return the JVM options
+     */
+    public List<String> jvmOptions(long files, long bytes) {
+        return switch (this) {
+            case QUICK_STARTUP -> List.of("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Xms32m", "-Xmx256m",
+                    "-XX:-UsePerfData");
+            case THROUGHPUT -> {
+                var heap = heapSize(files, bytes);
+                yield List.of("-XX:+UseParallelGC", "-Xms" + heap + 'm', "-Xmx" + heap + 'm');
+            }
+        };
+    }
+}
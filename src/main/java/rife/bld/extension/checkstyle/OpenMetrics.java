@@ -0,0 +1,184 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the metrics of a Checkstyle execution in the
+ * <a href="https://github.com/prometheus/OpenMetrics/blob/main/specification/OpenMetrics.md">OpenMetrics</a> text
+ * format, as read by the Prometheus node exporter textfile collector.
+ * <p>
+ * All the metrics are gauges describing the last execution. Their names are stable:
+ * <ul>
+ *     <li>{@code checkstyle_last_run_timestamp_seconds}: the time the metrics were written</li>
+ *     <li>{@code checkstyle_exit_code}: the exit code of the execution</li>
+ *     <li>{@code checkstyle_aborted}: {@code 1} if the audit was stopped by a violation threshold</li>
+ *     <li>{@code checkstyle_files_audited}: the number of files audited</li>
+ *     <li>{@code checkstyle_read_bytes}: the size of the files audited</li>
+ *     <li>{@code checkstyle_duplicates_skipped}: the number of duplicate files or directories skipped</li>
+ *     <li>{@code checkstyle_violations{severity}}: the number of violations by severity</li>
+ *     <li>{@code checkstyle_check_violations{check}}: the number of violations by check module, labeled with
+ *     its fully qualified name</li>
+ *     <li>{@code checkstyle_exceptions}: the number of exceptions thrown while processing the files</li>
+ *     <li>{@code checkstyle_phase_duration_seconds{phase}}: the wall-clock time of each phase</li>
+ *     <li>{@code checkstyle_peak_rss_bytes}: the peak resident set size of Checkstyle, if known</li>
+ *     <li>{@code checkstyle_cache_hits}, {@code checkstyle_cache_misses}, {@code checkstyle_cache_hit_ratio}: the
+ *     unchanged and checked files of an incremental audit, if applicable</li>
+ * </ul>
+ * <p>
+ * The violation and file metrics are only written if the result is {@link CheckstyleResult#isDetailed() detailed}.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class OpenMetrics {
+    private OpenMetrics() {
+        // no-op
+    }
+
+    /*
+     * Escapes a label value.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Formats the metrics of the given result.
+     *
+     * @param result    the result of the execution
+     * @param timestamp the time the metrics are written, in milliseconds since the epoch
+     * @return the metrics, ending with the {@code # EOF} marker
+     */
+    public static String format(CheckstyleResult result, long timestamp) {
+        var sb = new StringBuilder(2048);
+        gauge(sb, "checkstyle_last_run_timestamp_seconds", "The time of the last Checkstyle execution.");
+        sample(sb, "checkstyle_last_run_timestamp_seconds", null, null, seconds(Duration.ofMillis(timestamp)));
+        gauge(sb, "checkstyle_exit_code", "The exit code of the Checkstyle execution.");
+        sample(sb, "checkstyle_exit_code", null, null, String.valueOf(result.exitCode()));
+        gauge(sb, "checkstyle_aborted", "Whether the audit was stopped by a violation threshold.");
+        sample(sb, "checkstyle_aborted", null, null, result.isAborted() ? "1" : "0");
+        gauge(sb, "checkstyle_duplicates_skipped", "The number of duplicate source files or directories skipped.");
+        sample(sb, "checkstyle_duplicates_skipped", null, null, String.valueOf(result.duplicates()));
+
+        if (result.isDetailed()) {
+            gauge(sb, "checkstyle_files_audited", "The number of files audited.");
+            sample(sb, "checkstyle_files_audited", null, null, String.valueOf(result.filesAudited()));
+            gauge(sb, "checkstyle_read_bytes", "The size of the files audited.");
+            sample(sb, "checkstyle_read_bytes", null, null, String.valueOf(result.bytesRead()));
+            gauge(sb, "checkstyle_violations", "The number of violations by severity.");
+            for (var entry : result.countsBySeverity().entrySet()) {
+                if (entry.getKey() != Severity.IGNORE) {
+                    sample(sb, "checkstyle_violations", "severity", entry.getKey().label,
+                            String.valueOf(entry.getValue()));
+                }
+            }
+            gauge(sb, "checkstyle_check_violations", "The number of violations by check module.");
+            for (var entry : result.countsByModule().entrySet()) {
+                sample(sb, "checkstyle_check_violations", "check", entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            gauge(sb, "checkstyle_exceptions", "The number of exceptions thrown while processing the files.");
+            sample(sb, "checkstyle_exceptions", null, null, String.valueOf(result.exceptions()));
+        }
+
+        gauge(sb, "checkstyle_phase_duration_seconds", "The wall-clock time of each phase of the execution.");
+        for (Map.Entry<String, Duration> entry : result.phaseTimes().entrySet()) {
+            sample(sb, "checkstyle_phase_duration_seconds", "phase", entry.getKey(), seconds(entry.getValue()));
+        }
+
+        if (result.peakRss() > 0) {
+            gauge(sb, "checkstyle_peak_rss_bytes", "The peak resident set size of Checkstyle.");
+            sample(sb, "checkstyle_peak_rss_bytes", null, null, String.valueOf(result.peakRss()));
+        }
+
+        var lookups = result.cacheHits() + result.cacheMisses();
+        if (lookups > 0) {
+            gauge(sb, "checkstyle_cache_hits", "The number of unchanged files of an incremental audit.");
+            sample(sb, "checkstyle_cache_hits", null, null, String.valueOf(result.cacheHits()));
+            gauge(sb, "checkstyle_cache_misses", "The number of files checked by an incremental audit.");
+            sample(sb, "checkstyle_cache_misses", null, null, String.valueOf(result.cacheMisses()));
+            gauge(sb, "checkstyle_cache_hit_ratio", "The ratio of unchanged files of an incremental audit.");
+            sample(sb, "checkstyle_cache_hit_ratio", null, null,
+                    String.format(Locale.ROOT, "%.6f", (double) result.cacheHits() / lookups));
+        }
+
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+
+    /*
+     * Appends the metadata of a gauge.
+     */
+    private static void gauge(StringBuilder sb, String name, String help) {
+        sb.append("# TYPE ").append(name).append(" gauge\n# HELP ").append(name).append(' ').append(help)
+                .append('\n');
+    }
+
+    /*
+     * Appends a sample, with an optional label.
+     */
+    private static void sample(StringBuilder sb, String name, String label, String labelValue, String value) {
+        sb.append(name);
+        if (label != null) {
+            sb.append('{').append(label).append("=\"").append(escape(labelValue)).append("\"}");
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    /*
+     * Formats a duration in seconds.
+     */
+    private static String seconds(Duration duration) {
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1_000_000_000.0);
+    }
+
+    /**
+     * Writes the metrics of the given result to a file, atomically replacing it.
+     * <p>
+     * The metrics are written to a temporary file in the same directory, which is then moved over the target, so a
+     * reader never sees a partially written file.
+     *
+     * @param file   the metrics file
+     * @param result the result of the execution
+     * @throws IOException if the file could not be written
+     */
+    public static void write(Path file, CheckstyleResult result) throws IOException {
+        var target = file.toAbsolutePath();
+        var dir = target.getParent();
+        Files.createDirectories(dir);
+        var tmp = Files.createTempFile(dir, "." + target.getFileName(), ".tmp");
+        try {
+            Files.writeString(tmp, format(result, System.currentTimeMillis()), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
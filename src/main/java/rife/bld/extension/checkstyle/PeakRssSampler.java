@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Samples the peak resident set size of a process, as reported by Linux in {@code /proc/<pid>/status}, while
+ * forwarding the audit events of the process to another listener.
+ * <p>
+ * The process is sampled when the audit starts and finishes, and at most every 100 milliseconds in between, so that
+ * the last value seen before the process exits is kept, even if the end of its report is read after it is gone. On
+ * other systems, nothing is sampled.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class PeakRssSampler implements AuditEventListener {
+    private static final long INTERVAL = 100_000_000L;
+    private final AuditEventListener delegate_;
+    private final long pid_;
+    private long lastSample_;
+    private long peakRss_ = -1L;
+
+    /**
+     * Creates a new sampler.
+     *
+     * @param delegate the listener to forward the events to
+     * @param pid      the process ID
+     */
+    public PeakRssSampler(AuditEventListener delegate, long pid) {
+        delegate_ = delegate;
+        pid_ = pid;
+    }
+
+    /**
+     * Returns the peak resident set size of the given process.
+     *
+     * @param pid the process ID
+     * @return the peak resident set size in bytes, or {@code -1} if not available
+     */
+    public static long peakRss(long pid) {
+        var status = Path.of("/proc", String.valueOf(pid), "status");
+        try (var lines = Files.lines(status, StandardCharsets.US_ASCII)) {
+            return lines.filter(line -> line.startsWith("VmHWM:"))
+                    .findFirst()
+                    .map(line -> {
+                        // VmHWM:     123456 kB
+                        var value = line.substring("VmHWM:".length()).trim();
+                        var space = value.indexOf(' ');
+                        return Long.parseLong(space < 0 ? value : value.substring(0, space)) * 1024L;
+                    })
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException e) {
+            return -1L;
+        }
+    }
+
+    @Override
+    public void auditFinished() {
+        sample();
+        delegate_.auditFinished();
+    }
+
+    @Override
+    public void auditStarted() {
+        sample();
+        delegate_.auditStarted();
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        delegate_.exception(file, stackTrace);
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        if (System.nanoTime() - lastSample_ >= INTERVAL) {
+            sample();
+        }
+        delegate_.fileFinished(file);
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        delegate_.fileStarted(file);
+    }
+
+    /**
+     * Returns the largest peak resident set size sampled.
+     *
+     * @return the peak resident set size in bytes, or {@code -1} if not available
+     */
+    public long peakRss() {
+        return peakRss_;
+    }
+
+    /*
+     * Samples the peak resident set size of the process.
+     */
+    private void sample() {
+        lastSample_ = System.nanoTime();
+        peakRss_ = Math.max(peakRss_, peakRss(pid_));
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        delegate_.violation(violation);
+    }
+}
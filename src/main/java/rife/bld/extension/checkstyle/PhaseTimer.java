@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+/**
+ * Times the phases of an audit, from the audit events forwarded to another listener.
+ * <p>
+ * The time elapsed from the creation of the timer, or the previous mark, to the audit started event is recorded as
+ * the {@link #STARTUP startup} phase, and the time to the audit finished event as the {@link #CHECKS checks} phase.
+ * Other phases are recorded by the caller with {@link #mark(String)}, typically the {@link #REPORT report} phase once
+ * the audit returns.
+ * <p>
+ * The events must be received as they occur, such as from an in-process audit. The report of a forked Checkstyle is
+ * buffered, so its audit is only timed as a whole, as the {@link #PROCESS process} phase.
+ * <p>
+ * A timer is meant for a single audit, used by one thread at a time. Concurrent audits should use their own timer,
+ * recording to a thread-safe sink.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class PhaseTimer implements AuditEventListener {
+    /**
+     * The phase parsing and checking the files.
+     */
+    public static final String CHECKS = "checks";
+    /**
+     * The phase loading the Checkstyle configuration.
+     */
+    public static final String CONFIGURATION = "configuration";
+    /**
+     * The phase running Checkstyle out of process, from its start to its exit.
+     */
+    public static final String PROCESS = "process";
+    /**
+     * The phase finishing the report, once all the files are checked.
+     */
+    public static final String REPORT = "report";
+    /**
+     * The phase starting Checkstyle, up to the start of the audit.
+     */
+    public static final String STARTUP = "startup";
+    private final AuditEventListener delegate_;
+    private final BiConsumer<String, Duration> sink_;
+    private long mark_;
+
+    /**
+     * Creates a new phase timer, starting now.
+     *
+     * @param delegate the listener to forward the events to
+     * @param sink     the consumer of the phase times
+     */
+    public PhaseTimer(AuditEventListener delegate, BiConsumer<String, Duration> sink) {
+        delegate_ = delegate;
+        sink_ = sink;
+        mark_ = System.nanoTime();
+    }
+
+    @Override
+    public void auditFinished() {
+        mark(CHECKS);
+        delegate_.auditFinished();
+    }
+
+    @Override
+    public void auditStarted() {
+        mark(STARTUP);
+        delegate_.auditStarted();
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        delegate_.exception(file, stackTrace);
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        delegate_.fileFinished(file);
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        delegate_.fileStarted(file);
+    }
+
+    /**
+     * Records the time elapsed since the previous mark as the given phase.
+     *
+     * @param phase the phase name
+     */
+    public void mark(String phase) {
+        var now = System.nanoTime();
+        sink_.accept(phase, Duration.ofNanos(now - mark_));
+        mark_ = now;
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        delegate_.violation(violation);
+    }
+}
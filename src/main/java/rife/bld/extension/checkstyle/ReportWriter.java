@@ -0,0 +1,315 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes audit events as a Checkstyle report, in any of the {@link OutputFormat output formats}.
+ * <p>
+ * The report is streamed as the events are received, matching the output of the corresponding Checkstyle logger.
+ * Only the identifiers of the reported SARIF rules are kept, to describe them once the results are written.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class ReportWriter implements AuditEventListener, Closeable {
+    private final boolean closeStream_;
+    private final List<String> exceptions_ = new ArrayList<>();
+    private final OutputFormat format_;
+    private final Map<String, Integer> rules_ = new LinkedHashMap<>();
+    private final String version_;
+    private final PrintWriter writer_;
+    private int errors_;
+    private boolean isFileOpen_;
+    private boolean isFirstResult_ = true;
+
+    /**
+     * Creates a new report writer.
+     *
+     * @param format      the output format
+     * @param out         the output stream
+     * @param closeStream whether the output stream should be closed along with the writer
+     * @param version     the Checkstyle version to report, may be {@code null}
+     */
+    public ReportWriter(OutputFormat format, OutputStream out, boolean closeStream, String version) {
+        format_ = format;
+        closeStream_ = closeStream;
+        version_ = version;
+        writer_ = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    /*
+     * Escapes a JSON string value.
+     */
+    static String escapeJson(String value) {
+        var sb = new StringBuilder(value.length() + 16);
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escapeXml(String value) {
+        var sb = new StringBuilder(value.length() + 16);
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&apos;");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("&#").append((int) c).append(';');
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String sarifLevel(Severity severity) {
+        return switch (severity) {
+            case ERROR -> "error";
+            case WARNING -> "warning";
+            case INFO -> "note";
+            case IGNORE -> "none";
+        };
+    }
+
+    @Override
+    public void auditFinished() {
+        if (isFileOpen_) {
+            // The audit was stopped while processing a file
+            fileFinished(null);
+        }
+        switch (format_) {
+            case XML -> writer_.println("</checkstyle>");
+            case SARIF -> {
+                writer_.println();
+                writer_.println("      ],");
+                writeSarifTool();
+                writer_.println("    }");
+                writer_.println("  ]");
+                writer_.println("}");
+            }
+            default -> writer_.println("Audit done.");
+        }
+        writer_.flush();
+    }
+
+    @Override
+    public void auditStarted() {
+        switch (format_) {
+            case XML -> {
+                writer_.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+                writer_.println("<checkstyle version=\"" + escapeXml(Objects.requireNonNullElse(version_, ""))
+                        + "\">");
+            }
+            case SARIF -> {
+                // The tool is written after the results, once all the rules are known
+                writer_.println("{");
+                writer_.println("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",");
+                writer_.println("  \"version\": \"2.1.0\",");
+                writer_.println("  \"runs\": [");
+                writer_.println("    {");
+                writer_.print("      \"results\": [");
+            }
+            default -> writer_.println("Starting audit...");
+        }
+    }
+
+    /**
+     * Flushes and closes the report.
+     */
+    @Override
+    public void close() {
+        writer_.flush();
+        if (closeStream_) {
+            writer_.close();
+        }
+    }
+
+    /**
+     * Returns the number of violations with an {@link Severity#ERROR error} severity and exceptions written so far,
+     * as counted by Checkstyle.
+     *
+     * @return the error count
+     */
+    public int errorCount() {
+        return errors_;
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        errors_++;
+        switch (format_) {
+            case XML -> {
+                if (isFileOpen_) {
+                    // Written after the violations of the file, as by the XML logger
+                    exceptions_.add(stackTrace);
+                } else {
+                    writer_.println("<file name=\"" + escapeXml(Objects.requireNonNullElse(file, "")) + "\">");
+                    writeXmlException(stackTrace);
+                    writer_.println("</file>");
+                }
+            }
+            case SARIF -> {
+                writer_.println(isFirstResult_ ? "" : ",");
+                isFirstResult_ = false;
+                writer_.print("        {\"level\": \"error\", ");
+                if (file != null) {
+                    writer_.print("\"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": \""
+                            + escapeJson(new File(file).toURI().toString()) + "\"}}}], ");
+                }
+                writer_.print("\"message\": {\"text\": \"" + escapeJson(stackTrace) + "\"}}");
+            }
+            default -> {
+                writer_.println("Error auditing " + file);
+                writer_.println(stackTrace);
+            }
+        }
+    }
+
+    @Override
+    public void fileFinished(String file) {
+        isFileOpen_ = false;
+        if (format_ == OutputFormat.XML) {
+            exceptions_.forEach(this::writeXmlException);
+            exceptions_.clear();
+            writer_.println("</file>");
+        }
+    }
+
+    @Override
+    public void fileStarted(String file) {
+        isFileOpen_ = true;
+        if (format_ == OutputFormat.XML) {
+            writer_.println("<file name=\"" + escapeXml(file) + "\">");
+        }
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        if (violation.severity() == Severity.ERROR) {
+            errors_++;
+        } else if (violation.severity() == Severity.IGNORE) {
+            return;
+        }
+
+        switch (format_) {
+            case XML -> {
+                writer_.print("<error line=\"" + violation.line() + '"');
+                if (violation.column() > 0) {
+                    writer_.print(" column=\"" + violation.column() + '"');
+                }
+                writer_.println(" severity=\"" + violation.severity().label
+                        + "\" message=\"" + escapeXml(violation.message())
+                        + "\" source=\"" + escapeXml(violation.source()) + "\"/>");
+            }
+            case SARIF -> {
+                writer_.println(isFirstResult_ ? "" : ",");
+                isFirstResult_ = false;
+                writer_.print("        {\"level\": \"" + sarifLevel(violation.severity())
+                        + "\", \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": \""
+                        + escapeJson(new File(violation.file()).toURI().toString())
+                        + "\"}, \"region\": {");
+                if (violation.column() > 0) {
+                    writer_.print("\"startColumn\": " + violation.column() + ", ");
+                }
+                var rule = rules_.computeIfAbsent(violation.source(), k -> rules_.size());
+                writer_.print("\"startLine\": " + Math.max(1, violation.line())
+                        + "}}}], \"message\": {\"text\": \"" + escapeJson(violation.message())
+                        + "\"}, \"ruleId\": \"" + escapeJson(violation.source()) + "\", \"ruleIndex\": " + rule + '}');
+            }
+            default -> {
+                var label = switch (violation.severity()) {
+                    case WARNING -> "WARN";
+                    case INFO -> "INFO";
+                    default -> "ERROR";
+                };
+                writer_.print('[' + label + "] " + violation.file() + ':' + violation.line());
+                if (violation.column() > 0) {
+                    writer_.print(":" + violation.column());
+                }
+                writer_.println(": " + violation.message() + " [" + violation.checkName() + ']');
+            }
+        }
+    }
+
+    /*
+     * Writes the SARIF tool, describing the rules of the reported results.
+     */
+    private void writeSarifTool() {
+        var version = escapeJson(Objects.requireNonNullElse(version_, ""));
+        writer_.println("      \"tool\": {");
+        writer_.println("        \"driver\": {");
+        writer_.println("          \"downloadUri\": \"https://github.com/checkstyle/checkstyle/releases/\",");
+        writer_.println("          \"fullName\": \"Checkstyle\",");
+        writer_.println("          \"informationUri\": \"https://checkstyle.org/\",");
+        writer_.println("          \"language\": \"en\",");
+        writer_.println("          \"name\": \"Checkstyle\",");
+        writer_.println("          \"organization\": \"Checkstyle\",");
+        writer_.print("          \"rules\": [");
+        var isFirst = true;
+        for (var rule : rules_.keySet()) {
+            writer_.println(isFirst ? "" : ",");
+            isFirst = false;
+            writer_.print("            {\"id\": \"" + escapeJson(rule) + "\"}");
+        }
+        if (!isFirst) {
+            writer_.println();
+            writer_.print("          ");
+        }
+        writer_.println("],");
+        writer_.println("          \"semanticVersion\": \"" + version + "\",");
+        writer_.println("          \"version\": \"" + version + '"');
+        writer_.println("        }");
+        writer_.println("      }");
+    }
+
+    /*
+     * Writes an exception in the XML format.
+     */
+    private void writeXmlException(String stackTrace) {
+        writer_.println("<exception>");
+        writer_.println("<![CDATA[");
+        writer_.println(escapeXml(stackTrace));
+        writer_.println("]]>");
+        writer_.println("</exception>");
+    }
+}
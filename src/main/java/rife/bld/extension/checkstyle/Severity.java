@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.util.Locale;
+
+/**
+ * The Checkstyle violation severity levels.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public enum Severity {
+    IGNORE("ignore"),
+    INFO("info"),
+    WARNING("warning"),
+    ERROR("error");
+
+    public final String label;
+
+    /**
+     * Sets the label of this severity.
+     */
+    Severity(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the severity matching the given label.
+     *
+     * @param label the label, case-insensitive
+     * @return the severity, defaults to {@link #ERROR} for unknown labels
+     */
+    public static Severity of(String label) {
+        if (label != null) {
+            var lower = label.toLowerCase(Locale.ROOT);
+            for (var severity : values()) {
+                if (severity.label.equals(lower)) {
+                    return severity;
+                }
+            }
+        }
+        return ERROR;
+    }
+}
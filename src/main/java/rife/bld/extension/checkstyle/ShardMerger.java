@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Merges the audit events of concurrently audited shards into a single stream.
+ * <p>
+ * The events of each file are forwarded as a whole, in the original order of the files, so the merged stream is
+ * identical to the one of a serial audit.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class ShardMerger {
+    private final Map<String, List<Object>> completed_ = new HashMap<>();
+    private final Set<String> finished_ = new HashSet<>();
+    private final List<String> order_;
+    private final AuditEventListener target_;
+    private int next_;
+
+    /**
+     * Creates a new shard merger.
+     *
+     * @param files  the files to audit, in their original order
+     * @param target the listener to forward the merged events to
+     */
+    public ShardMerger(List<File> files, AuditEventListener target) {
+        order_ = files.stream().map(File::getAbsolutePath).toList();
+        target_ = target;
+    }
+
+    /*
+     * Forwards the events of the completed files, following the original order.
+     */
+    private void drain() {
+        while (next_ < order_.size()) {
+            var file = order_.get(next_);
+            var events = completed_.remove(file);
+            if (events != null) {
+                forward(file, events);
+            } else if (!finished_.contains(file)) {
+                return;
+            }
+            finished_.remove(file);
+            next_++;
+        }
+    }
+
+    /**
+     * Forwards the events of any remaining file, once all the shards have been audited.
+     */
+    public synchronized void finish() {
+        drain();
+        completed_.forEach(this::forward);
+        completed_.clear();
+    }
+
+    /*
+     * Forwards the violations and exceptions of a file, in the order they were reported.
+     */
+    private void forward(String file, List<Object> events) {
+        target_.fileStarted(file);
+        for (var event : events) {
+            if (event instanceof Violation violation) {
+                target_.violation(violation);
+            } else {
+                target_.exception(file, ((FileException) event).stackTrace());
+            }
+        }
+        target_.fileFinished(file);
+    }
+
+    /**
+     * Returns the listener receiving the events of the given shard.
+     * <p>
+     * The shard's audit started and finished events are not forwarded, the latter marking all of its files as
+     * processed. Once the current thread is interrupted, a {@link java.util.concurrent.CancellationException
+     * CancellationException} is thrown from the next file started event, to stop the audit of the shard.
+     *
+     * @param shard the files of the shard
+     * @return the listener
+     */
+    public AuditEventListener shardListener(List<File> shard) {
+        return new AuditEventListener() {
+            private List<Object> events_;
+
+            @Override
+            public void auditFinished() {
+                synchronized (ShardMerger.this) {
+                    shard.forEach(file -> finished_.add(file.getAbsolutePath()));
+                    drain();
+                }
+            }
+
+            @Override
+            public void exception(String file, String stackTrace) {
+                if (events_ != null) {
+                    events_.add(new FileException(stackTrace));
+                }
+            }
+
+            @Override
+            public void fileFinished(String file) {
+                synchronized (ShardMerger.this) {
+                    completed_.put(file, events_);
+                    events_ = null;
+                    drain();
+                }
+            }
+
+            @Override
+            public void fileStarted(String file) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The audit of the shard was cancelled.");
+                }
+                events_ = new ArrayList<>();
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                if (events_ != null) {
+                    events_.add(violation);
+                }
+            }
+        };
+    }
+
+    /*
+     * An exception thrown while processing a file.
+     */
+    private record FileException(String stackTrace) {
+    }
+}
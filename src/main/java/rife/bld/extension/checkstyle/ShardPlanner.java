@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Splits the files to audit into shards of similar total size, to be audited concurrently.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class ShardPlanner {
+    private ShardPlanner() {
+        // no-op
+    }
+
+    /**
+     * Splits the given files into at most the given number of shards.
+     * <p>
+     * The files of a same directory are kept in the same shard, so that checks spanning a directory, such as
+     * {@code JavadocPackage}, report the same violations as a serial audit. The largest directories are assigned
+     * first, each to the shard with the smallest total size so far. Within a shard, the files keep their original
+     * order.
+     *
+     * @param files  the files
+     * @param shards the maximum number of shards
+     * @return the non-empty shards
+     */
+    public static List<List<File>> split(List<File> files, int shards) {
+        var groups = new LinkedHashMap<File, List<Integer>>();
+        for (var i = 0; i < files.size(); i++) {
+            groups.computeIfAbsent(files.get(i).getAbsoluteFile().getParentFile(), k -> new ArrayList<>()).add(i);
+        }
+        var count = Math.max(1, Math.min(shards, groups.size()));
+        if (count == 1) {
+            return files.isEmpty() ? List.of() : List.of(files);
+        }
+
+        var directories = new ArrayList<>(groups.values());
+        var sizes = new long[directories.size()];
+        var order = new Integer[directories.size()];
+        for (var i = 0; i < sizes.length; i++) {
+            for (var index : directories.get(i)) {
+                sizes[i] += files.get(index).length();
+            }
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(sizes[b], sizes[a]));
+
+        var totals = new PriorityQueue<long[]>(count, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : Long.compare(a[1], b[1]));
+        var assigned = new ArrayList<List<Integer>>(count);
+        for (var i = 0; i < count; i++) {
+            totals.add(new long[]{0L, i});
+            assigned.add(new ArrayList<>());
+        }
+        for (var i : order) {
+            var smallest = totals.poll();
+            assigned.get((int) smallest[1]).addAll(directories.get(i));
+            smallest[0] += sizes[i];
+            totals.add(smallest);
+        }
+
+        var result = new ArrayList<List<File>>(count);
+        for (var indexes : assigned) {
+            Collections.sort(indexes);
+            var shard = new ArrayList<File>(indexes.size());
+            indexes.forEach(i -> shard.add(files.get(i)));
+            result.add(shard);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,496 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lists the files to audit the same way the Checkstyle command line does.
+ * <p>
+ * Directories are walked recursively and concurrently, and any directory or file whose absolute path matches one of
+ * the exclusions is skipped along with its contents, without ever being listed. The files are returned in the order
+ * of a sequential walk.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class SourceFileFinder {
+    private SourceFileFinder() {
+        // no-op
+    }
+
+    /**
+     * Removes the duplicate roots, and the roots nested within another directory root.
+     * <p>
+     * The roots are compared by their real path, so a directory reached through a symbolic link or a relative path
+     * is only kept once. The first of the duplicate roots, or the outermost directory, is kept in its original form.
+     *
+     * @param roots the files or directories to walk
+     * @return the remaining roots, in their original order
+     */
+    public static List<File> collapse(Collection<File> roots) {
+        var candidates = new ArrayList<Root>(roots.size());
+        for (var root : roots) {
+            candidates.add(new Root(root, candidates.size(), realPath(root.getAbsoluteFile().toPath()),
+                    root.isDirectory()));
+        }
+
+        // Outermost first, so nested roots are only compared against the directories kept so far
+        var sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingInt((Root r) -> r.realPath().getNameCount()).thenComparingInt(Root::index));
+        var kept = new ArrayList<Root>();
+        for (var candidate : sorted) {
+            var isNested = false;
+            for (var root : kept) {
+                if (candidate.realPath().equals(root.realPath())
+                        || root.isDirectory() && candidate.realPath().startsWith(root.realPath())) {
+                    isNested = true;
+                    break;
+                }
+            }
+            if (!isNested) {
+                kept.add(candidate);
+            }
+        }
+
+        kept.sort(Comparator.comparingInt(Root::index));
+        return kept.stream().map(Root::file).toList();
+    }
+
+    /**
+     * Removes the files appearing more than once, keeping their first occurrence.
+     * <p>
+     * Files are compared by their file key, such as their inode, or their real path if not available. The same
+     * physical file reached through symbolic links or different paths is therefore only kept once.
+     *
+     * @param files the files, modified in place
+     * @return the number of duplicates removed
+     */
+    public static int deduplicate(List<File> files) {
+        var keys = new HashSet<Object>(files.size() * 4 / 3 + 1);
+        var unique = new ArrayList<File>(files.size());
+        for (var file : files) {
+            if (keys.add(fileKey(file.getAbsoluteFile().toPath()))) {
+                unique.add(file);
+            }
+        }
+        var duplicates = files.size() - unique.size();
+        if (duplicates > 0) {
+            files.clear();
+            files.addAll(unique);
+        }
+        return duplicates;
+    }
+
+    /**
+     * Returns the file extensions the {@code Checker} module of the given configuration is restricted to.
+     *
+     * @param config the configuration file
+     * @return the file extensions, such as {@code .java}, or an empty set if all files are audited, or the
+     * configuration could not be read
+     */
+    public static Set<String> fileExtensions(File config) {
+        var extensions = new LinkedHashSet<String>();
+        if (config.isFile()) {
+            try (var in = Files.newInputStream(config.toPath())) {
+                CheckstyleClasspath.parse(in, new DefaultHandler() {
+                    private int depth_;
+
+                    @Override
+                    public void endElement(String uri, String localName, String qName) {
+                        if ("module".equals(qName)) {
+                            depth_--;
+                        }
+                    }
+
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if ("module".equals(qName)) {
+                            depth_++;
+                        } else if (depth_ == 1 && "property".equals(qName)
+                                && "fileExtensions".equals(attributes.getValue("name"))) {
+                            var value = attributes.getValue("value");
+                            if (value == null || value.contains("${")) {
+                                return;
+                            }
+                            for (var extension : value.split(",")) {
+                                var ext = extension.strip();
+                                if (!ext.isEmpty()) {
+                                    extensions.add(ext.startsWith(".") ? ext : '.' + ext);
+                                }
+                            }
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                return Set.of();
+            }
+        }
+        return extensions;
+    }
+
+    /**
+     * Lists the files contained in the given files or directories.
+     *
+     * @param roots        the files or directories to walk
+     * @param exclude      the directories or files to exclude
+     * @param excludeRegex the directory or file patterns to exclude
+     * @return the files to audit
+     */
+    public static List<File> find(Collection<File> roots, Collection<File> exclude, Collection<String> excludeRegex) {
+        return find(roots, exclude, excludeRegex, Set.of());
+    }
+
+    /**
+     * Lists the files with the given extensions, contained in the given files or directories.
+     *
+     * @param roots        the files or directories to walk
+     * @param exclude      the directories or files to exclude
+     * @param excludeRegex the directory or file patterns to exclude
+     * @param extensions   the file extensions, such as {@code .java}, or an empty collection for all files
+     * @return the files to audit
+     * @see #fileExtensions(File)
+     */
+    public static List<File> find(Collection<File> roots, Collection<File> exclude, Collection<String> excludeRegex,
+                                  Collection<String> extensions) {
+        return find(roots, ExclusionMatcher.compile(exclude, excludeRegex), extensions);
+    }
+
+    /**
+     * Lists the files with the given extensions, contained in the given files or directories.
+     *
+     * @param roots      the files or directories to walk
+     * @param exclusions the compiled exclusions
+     * @param extensions the file extensions, such as {@code .java}, or an empty collection for all files
+     * @return the files to audit
+     * @throws IllegalArgumentException if an exclusion pattern exceeds its backtracking budget
+     * @see #fileExtensions(File)
+     */
+    public static List<File> find(Collection<File> roots, ExclusionMatcher exclusions,
+                                  Collection<String> extensions) {
+        return find(roots, exclusions, extensions, false);
+    }
+
+    /**
+     * Lists the files with the given extensions, contained in the given files or directories, optionally skipping
+     * the files and directories ignored by Git.
+     * <p>
+     * Ignored directories are not walked at all. Files or directories given explicitly as roots are never ignored.
+     *
+     * @param roots            the files or directories to walk
+     * @param exclusions       the compiled exclusions
+     * @param extensions       the file extensions, such as {@code .java}, or an empty collection for all files
+     * @param respectGitignore whether to skip the files and directories ignored by Git
+     * @return the files to audit
+     * @throws IllegalArgumentException if an exclusion pattern exceeds its backtracking budget
+     * @see GitIgnore
+     */
+    public static List<File> find(Collection<File> roots, ExclusionMatcher exclusions,
+                                  Collection<String> extensions, boolean respectGitignore) {
+        var walker = new Walker(exclusions, extensions);
+        var files = new ArrayList<File>();
+        for (var root : roots) {
+            var path = root.getAbsoluteFile().toPath();
+            if (walker.isExcluded(path)) {
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                files.addAll(ForkJoinPool.commonPool().invoke(
+                        new WalkTask(walker, path, respectGitignore ? GitIgnore.of(path) : null)));
+            } else if (Files.isRegularFile(path) && Files.isReadable(path)) {
+                // Explicit files are left for the Checker to filter
+                files.add(path.toFile());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Filters the given files, only keeping those that would have been found by walking the given files or
+     * directories.
+     * <p>
+     * A file is kept if it is located within one of the roots, and neither it nor any of its parent directories, up
+     * to the root, are excluded.
+     *
+     * @param roots        the files or directories to walk
+     * @param candidates   the files to filter
+     * @param exclude      the directories or files to exclude
+     * @param excludeRegex the directory or file patterns to exclude
+     * @return the files to audit, in their original order
+     */
+    public static List<File> filter(Collection<File> roots, Collection<File> candidates, Collection<File> exclude,
+                                    Collection<String> excludeRegex) {
+        return filter(roots, candidates, ExclusionMatcher.compile(exclude, excludeRegex));
+    }
+
+    /**
+     * Filters the given files, only keeping those that would have been found by walking the given files or
+     * directories with the given compiled exclusions.
+     *
+     * @param roots      the files or directories to walk
+     * @param candidates the files to filter
+     * @param exclusions the compiled exclusions
+     * @return the files to audit, in their original order
+     * @throws IllegalArgumentException if an exclusion pattern exceeds its backtracking budget
+     */
+    public static List<File> filter(Collection<File> roots, Collection<File> candidates,
+                                    ExclusionMatcher exclusions) {
+        var absoluteRoots = roots.stream().map(File::getAbsoluteFile).toList();
+        var files = new LinkedHashSet<File>();
+        for (var candidate : candidates) {
+            var file = candidate.getAbsoluteFile();
+            if (!file.isFile() || !file.canRead()) {
+                continue;
+            }
+            for (var root : absoluteRoots) {
+                if (isIncluded(root, file, exclusions)) {
+                    files.add(file);
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Reads the files listed in the given file, one path per line.
+     * <p>
+     * Blank lines are ignored and relative paths are resolved against the current directory. Files which are excluded,
+     * missing or unreadable are skipped.
+     *
+     * @param listFile   the file listing the files to audit
+     * @param exclusions the compiled exclusions
+     * @return the files to audit, in their listed order
+     * @throws IOException              if the list could not be read
+     * @throws IllegalArgumentException if an exclusion pattern exceeds its backtracking budget
+     * @see #stream(Path, ExclusionMatcher)
+     */
+    public static List<File> read(Path listFile, ExclusionMatcher exclusions) throws IOException {
+        try (var files = stream(listFile, exclusions)) {
+            return files.collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Only keeps the given files that are also among the candidates.
+     * <p>
+     * Files are compared by their real path, so a file reached through a symbolic link, such as a linked workspace
+     * directory, matches its target.
+     *
+     * @param files      the files, in the form they should be audited
+     * @param candidates the files to keep, such as those reported by Git
+     * @return the files kept, in their original order
+     */
+    public static List<File> retain(List<File> files, Collection<File> candidates) {
+        var keep = new HashSet<Path>(candidates.size() * 4 / 3 + 1);
+        for (var candidate : candidates) {
+            keep.add(realPath(candidate.getAbsoluteFile().toPath()));
+        }
+        var retained = new ArrayList<File>();
+        for (var file : files) {
+            if (keep.contains(realPath(file.getAbsoluteFile().toPath()))) {
+                retained.add(file);
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * Streams the files listed in the given file, one path per line, without keeping them in memory.
+     * <p>
+     * The files are filtered the same way they are {@link #read(Path, ExclusionMatcher) read}. The stream must be
+     * closed, errors occurring while reading the list are thrown as {@link UncheckedIOException}.
+     *
+     * @param listFile   the file listing the files to audit
+     * @param exclusions the compiled exclusions
+     * @return the files to audit, in their listed order
+     * @throws IOException if the list could not be opened
+     */
+    public static Stream<File> stream(Path listFile, ExclusionMatcher exclusions) throws IOException {
+        return Files.lines(listFile)
+                .map(String::strip)
+                .filter(path -> !path.isEmpty())
+                .map(path -> new File(path).getAbsoluteFile())
+                .filter(file -> !exclusions.isExcluded(file.getPath()) && file.isFile() && file.canRead());
+    }
+
+    /*
+     * Determines whether the file is located within the root, without any excluded path in between.
+     */
+    private static boolean isIncluded(File root, File file, ExclusionMatcher exclusions) {
+        var path = file.toPath();
+        var rootPath = root.toPath();
+        if (!path.startsWith(rootPath)) {
+            return false;
+        }
+        if (!exclusions.isEmpty()) {
+            for (var node = path; node != null && node.startsWith(rootPath); node = node.getParent()) {
+                if (exclusions.isExcluded(node.toString())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Returns the key identifying the physical file.
+     */
+    private static Object fileKey(Path path) {
+        try {
+            var key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            return key != null ? key : realPath(path);
+        } catch (IOException e) {
+            return path.normalize();
+        }
+    }
+
+    /*
+     * Returns the real path, or the normalized path if it does not exist.
+     */
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.normalize();
+        }
+    }
+
+    /*
+     * A root to walk, along with its position and real path.
+     */
+    private record Root(File file, int index, Path realPath, boolean isDirectory) {
+    }
+
+    /*
+     * Holds the exclusions and extensions shared by the walk tasks, along with the directories already visited.
+     */
+    private static final class Walker {
+        private final ExclusionMatcher exclusions_;
+        private final Collection<String> extensions_;
+        private final Set<Object> visited_ = ConcurrentHashMap.newKeySet();
+
+        Walker(ExclusionMatcher exclusions, Collection<String> extensions) {
+            exclusions_ = exclusions;
+            extensions_ = extensions;
+        }
+
+        boolean isExcluded(Path path) {
+            return !exclusions_.isEmpty() && exclusions_.isExcluded(path.toString());
+        }
+
+        boolean isMatchingExtension(Path file) {
+            if (extensions_.isEmpty()) {
+                return true;
+            }
+            var name = file.getFileName().toString();
+            for (var extension : extensions_) {
+                if (name.endsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /*
+         * Marks the directory as visited, returns false if it already was, through a symbolic link loop.
+         */
+        boolean visit(Path dir, BasicFileAttributes attrs) {
+            var key = attrs.fileKey();
+            return visited_.add(key != null ? key : dir.toAbsolutePath().normalize());
+        }
+    }
+
+    /*
+     * Lists the files of a directory, walking its subdirectories in parallel.
+     */
+    private static final class WalkTask extends RecursiveTask<List<File>> {
+        private static final long serialVersionUID = 1L;
+        private final transient Path dir_;
+        private final transient GitIgnore ignore_;
+        private final transient Walker walker_;
+
+        WalkTask(Walker walker, Path dir, GitIgnore ignore) {
+            walker_ = walker;
+            dir_ = dir;
+            ignore_ = ignore;
+        }
+
+        @Override
+        protected List<File> compute() {
+            // Either files or forked subdirectory tasks, in the listing order
+            var entries = new ArrayList<Object>();
+            try {
+                Files.walkFileTree(dir_, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        return walker_.visit(dir, attrs) ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (walker_.isExcluded(file)
+                                || ignore_ != null && ignore_.isIgnored(file, attrs.isDirectory())) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        if (attrs.isDirectory()) {
+                            var task = new WalkTask(walker_, file, ignore_ == null ? null : ignore_.child(file));
+                            task.fork();
+                            entries.add(task);
+                        } else if (attrs.isRegularFile() && walker_.isMatchingExtension(file)
+                                && Files.isReadable(file)) {
+                            entries.add(file.toFile());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException ignored) {
+                // unreadable directory
+            }
+
+            var files = new ArrayList<File>(entries.size());
+            for (var entry : entries) {
+                if (entry instanceof WalkTask task) {
+                    files.addAll(task.join());
+                } else {
+                    files.add((File) entry);
+                }
+            }
+            return files;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a timeline of a Checkstyle execution in the
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace event</a>
+ * JSON format, as viewed by Perfetto or {@code chrome://tracing}.
+ * <p>
+ * Each audit, such as a forked process or a parallel shard, gets its own {@link #track(AuditEventListener) track},
+ * with spans for its startup, each file and the end of its report. The events are streamed to the file as they
+ * occur, a write failure being deferred until the writer is {@link #close() closed}, so it never interrupts the audit.
+ * A writer is thread-safe.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class TraceWriter implements Closeable {
+    /**
+     * The track of the operation itself.
+     */
+    public static final int MAIN_TRACK = 0;
+    private final long origin_;
+    private final AtomicInteger tracks_ = new AtomicInteger();
+    private final BufferedWriter writer_;
+    private IOException failure_;
+    private boolean isFirst_ = true;
+
+    /**
+     * Creates a new trace writer, the time of its creation being the origin of the timeline.
+     *
+     * @param file the trace file
+     * @throws IOException if the file could not be created
+     */
+    public TraceWriter(Path file) throws IOException {
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writer_ = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer_.write("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [");
+        origin_ = System.nanoTime();
+        name(MAIN_TRACK, "bld");
+    }
+
+    /*
+     * Formats a time in microseconds since the origin.
+     */
+    private String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000.0);
+    }
+
+    /**
+     * Completes the trace and closes the file.
+     *
+     * @throws IOException if an error occurs, including while writing an event
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try (writer_) {
+            if (failure_ != null) {
+                throw failure_;
+            }
+            writer_.write("\n]}\n");
+        }
+    }
+
+    /*
+     * Writes an event.
+     */
+    private synchronized void event(String event) {
+        if (failure_ != null) {
+            return;
+        }
+        try {
+            writer_.write(isFirst_ ? "\n" : ",\n");
+            writer_.write(event);
+            isFirst_ = false;
+        } catch (IOException e) {
+            failure_ = e;
+        }
+    }
+
+    /*
+     * Names a track.
+     */
+    private void name(int track, String name) {
+        event("{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": " + track
+                + ", \"args\": {\"name\": \"" + ReportWriter.escapeJson(name) + "\"}}");
+    }
+
+    /**
+     * Records a span.
+     *
+     * @param track the track
+     * @param name  the name of the span
+     * @param start the start time, from {@link System#nanoTime()}
+     * @param end   the end time, from {@link System#nanoTime()}
+     */
+    public void span(int track, String name, long start, long end) {
+        span(track, name, start, end, null);
+    }
+
+    /*
+     * Records a span, with an optional file argument.
+     */
+    private void span(int track, String name, long start, long end, String file) {
+        var sb = new StringBuilder(160);
+        sb.append("{\"name\": \"").append(ReportWriter.escapeJson(name)).append("\", \"ph\": \"X\", \"ts\": ")
+                .append(micros(start - origin_)).append(", \"dur\": ").append(micros(Math.max(0L, end - start)))
+                .append(", \"pid\": 1, \"tid\": ").append(track);
+        if (file != null) {
+            sb.append(", \"args\": {\"file\": \"").append(ReportWriter.escapeJson(file)).append("\"}");
+        }
+        event(sb.append('}').toString());
+    }
+
+    /**
+     * Creates a new track for an audit, starting now, recording its events before forwarding them to the given
+     * listener.
+     *
+     * @param delegate the listener to forward the events to
+     * @return the track
+     */
+    public Track track(AuditEventListener delegate) {
+        var id = tracks_.incrementAndGet();
+        name(id, "audit " + id);
+        return new Track(id, delegate);
+    }
+
+    /**
+     * The track of an audit.
+     * <p>
+     * The startup span lasts until the audit starts. Each file spans from the end of the previous one, as the events of
+     * a forked Checkstyle are only received once its buffered report is written, and a span covering the end of the
+     * report is recorded once the audit is {@link #finish() finished}.
+     */
+    public final class Track implements AuditEventListener {
+        private final AuditEventListener delegate_;
+        private final int id_;
+        private long last_;
+
+        private Track(int id, AuditEventListener delegate) {
+            id_ = id;
+            delegate_ = delegate;
+            last_ = System.nanoTime();
+        }
+
+        @Override
+        public void auditFinished() {
+            delegate_.auditFinished();
+        }
+
+        @Override
+        public void auditStarted() {
+            last_ = mark("startup", null);
+            delegate_.auditStarted();
+        }
+
+        @Override
+        public void exception(String file, String stackTrace) {
+            delegate_.exception(file, stackTrace);
+        }
+
+        @Override
+        public void fileFinished(String file) {
+            delegate_.fileFinished(file);
+            last_ = mark(new File(file).getName(), file);
+        }
+
+        @Override
+        public void fileStarted(String file) {
+            delegate_.fileStarted(file);
+        }
+
+        /**
+         * Records the end of the report, once the audit returns.
+         */
+        public void finish() {
+            mark("report", null);
+        }
+
+        /*
+         * Records a span from the previous mark to now, returning now.
+         */
+        private long mark(String name, String file) {
+            var now = System.nanoTime();
+            span(id_, name, last_, now, file);
+            return now;
+        }
+
+        @Override
+        public void violation(Violation violation) {
+            delegate_.violation(violation);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+/**
+ * A violation reported by Checkstyle.
+ *
+ * @param file     the absolute path of the file
+ * @param line     the line number, or {@code 0} if not applicable
+ * @param column   the column number, or {@code 0} if not applicable
+ * @param severity the severity
+ * @param message  the message
+ * @param source   the fully qualified name of the check module that reported the violation
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public record Violation(String file, int line, int column, Severity severity, String message, String source) {
+    /**
+     * Returns the short name of the check module, as displayed by the plain logger.
+     *
+     * @return the check name
+     */
+    public String checkName() {
+        var name = source.substring(source.lastIndexOf('.') + 1);
+        if (name.endsWith("Check") && name.length() > "Check".length()) {
+            return name.substring(0, name.length() - "Check".length());
+        }
+        return name;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+/**
+ * Stops the audit once a maximum number of errors or warnings is reached.
+ * <p>
+ * An {@link ExceededException} is thrown from the violation event crossing the threshold, interrupting the
+ * notification of the audit events.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public class ViolationThreshold implements AuditEventListener {
+    private final int maxErrors_;
+    private final int maxWarnings_;
+    private int errors_;
+    private volatile boolean isExceeded_;
+    private int warnings_;
+
+    /**
+     * Creates a new violation threshold.
+     *
+     * @param maxErrors   the number of errors stopping the audit, {@code 0} for no limit
+     * @param maxWarnings the number of warnings stopping the audit, {@code 0} for no limit
+     */
+    public ViolationThreshold(int maxErrors, int maxWarnings) {
+        maxErrors_ = Math.max(0, maxErrors);
+        maxWarnings_ = Math.max(0, maxWarnings);
+    }
+
+    /*
+     * Stops the audit if the threshold is reached.
+     */
+    private void check() {
+        if ((maxErrors_ > 0 && errors_ >= maxErrors_) || (maxWarnings_ > 0 && warnings_ >= maxWarnings_)) {
+            isExceeded_ = true;
+            throw new ExceededException(this);
+        }
+    }
+
+    /**
+     * Returns the number of errors counted so far.
+     *
+     * @return the error count
+     */
+    public int errors() {
+        return errors_;
+    }
+
+    @Override
+    public void exception(String file, String stackTrace) {
+        if (isExceeded_) {
+            throw new ExceededException(this);
+        }
+        // Counted as an error, as by Checkstyle
+        errors_++;
+        check();
+    }
+
+    /**
+     * Returns whether the threshold was reached.
+     *
+     * @return {@code true} if the audit was stopped
+     */
+    public boolean isExceeded() {
+        return isExceeded_;
+    }
+
+    @Override
+    public void violation(Violation violation) {
+        if (isExceeded_) {
+            throw new ExceededException(this);
+        }
+        if (violation.severity() == Severity.ERROR) {
+            errors_++;
+        } else if (violation.severity() == Severity.WARNING) {
+            warnings_++;
+        }
+        check();
+    }
+
+    /**
+     * Returns the number of warnings counted so far.
+     *
+     * @return the warning count
+     */
+    public int warnings() {
+        return warnings_;
+    }
+
+    /**
+     * Thrown when the violation threshold is reached.
+     */
+    public static class ExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ExceededException(ViolationThreshold threshold) {
+            super(String.format("Violation threshold reached: %d error(s), %d warning(s).", threshold.errors_,
+                    threshold.warnings_));
+        }
+    }
+}
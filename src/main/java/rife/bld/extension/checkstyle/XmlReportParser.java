@@ -0,0 +1,213 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Decodes a Checkstyle XML report into audit events, as it is being read.
+ *
+ * @author <a href="https://erik.thauvin.net">Erik C. Thauvin</a>
+ * @since 1.1
+ */
+public final class XmlReportParser {
+    private XmlReportParser() {
+        // no-op
+    }
+
+    /*
+     * Decodes a numeric character reference, or returns null if invalid.
+     */
+    private static String codePoint(String reference) {
+        try {
+            var codePoint = reference.startsWith("x") ? Integer.parseInt(reference.substring(1), 16)
+                    : Integer.parseInt(reference);
+            return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String value) {
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException ignored) {
+                // not a number
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Parses a Checkstyle XML report.
+     * <p>
+     * Parsing stops at the end of the report's root element, anything written afterward, such as the error count
+     * printed by the command line, is left unread. The stream is not closed, so it can still be drained.
+     *
+     * @param in       the report input stream
+     * @param listener the listener to notify
+     * @return the Checkstyle version found in the report, if any
+     * @throws IOException if the report could not be read or is incomplete
+     */
+    public static String parse(InputStream in, AuditEventListener listener) throws IOException {
+        var handler = new ReportHandler(listener);
+        try {
+            var factory = SAXParserFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            // The parser closes its input once the report ends
+            factory.newSAXParser().parse(new FilterInputStream(in) {
+                @Override
+                public void close() {
+                    // left open
+                }
+            }, handler);
+        } catch (EndOfReport ignored) {
+            // done
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Unable to parse the Checkstyle report: " + e.getMessage(), e);
+        }
+        if (!handler.isFinished_) {
+            throw new IOException("The Checkstyle report is incomplete.");
+        }
+        return handler.version_;
+    }
+
+    /*
+     * Decodes the stack trace of an exception, which Checkstyle escapes even though it is written as character data.
+     */
+    static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        var sb = new StringBuilder(value.length());
+        var i = 0;
+        while (i < value.length()) {
+            var c = value.charAt(i);
+            var end = c == '&' ? value.indexOf(';', i) : -1;
+            if (end > i + 1) {
+                var entity = value.substring(i + 1, end);
+                var decoded = switch (entity) {
+                    case "lt" -> "<";
+                    case "gt" -> ">";
+                    case "amp" -> "&";
+                    case "quot" -> "\"";
+                    case "apos" -> "'";
+                    default -> entity.startsWith("#") ? codePoint(entity.substring(1)) : null;
+                };
+                if (decoded != null) {
+                    sb.append(decoded);
+                    i = end + 1;
+                    continue;
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Thrown to stop parsing at the end of the report.
+     */
+    private static final class EndOfReport extends SAXException {
+        private static final long serialVersionUID = 1L;
+
+        EndOfReport() {
+            super("End of report");
+        }
+    }
+
+    private static final class ReportHandler extends DefaultHandler {
+        private final StringBuilder exception_ = new StringBuilder();
+        private final AuditEventListener listener_;
+        private String file_;
+        private boolean isException_;
+        private boolean isFinished_;
+        private String version_;
+
+        ReportHandler(AuditEventListener listener) {
+            listener_ = listener;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (isException_) {
+                exception_.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (qName) {
+                case "file" -> {
+                    listener_.fileFinished(file_);
+                    file_ = null;
+                }
+                case "exception" -> {
+                    isException_ = false;
+                    listener_.exception(file_, unescape(exception_.toString().strip()));
+                }
+                case "checkstyle" -> {
+                    listener_.auditFinished();
+                    isFinished_ = true;
+                    throw new EndOfReport();
+                }
+                default -> {
+                    // ignore
+                }
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (qName) {
+                case "checkstyle" -> {
+                    version_ = attributes.getValue("version");
+                    listener_.auditStarted();
+                }
+                case "file" -> {
+                    file_ = attributes.getValue("name");
+                    listener_.fileStarted(file_);
+                }
+                case "error" -> listener_.violation(new Violation(file_,
+                        parseInt(attributes.getValue("line")),
+                        parseInt(attributes.getValue("column")),
+                        Severity.of(attributes.getValue("severity")),
+                        Objects.requireNonNullElse(attributes.getValue("message"), ""),
+                        Objects.requireNonNullElse(attributes.getValue("source"), "")));
+                case "exception" -> {
+                    isException_ = true;
+                    exception_.setLength(0);
+                }
+                default -> {
+                    // ignore
+                }
+            }
+        }
+    }
+}
@@ -19,10 +19,22 @@ package rife.bld.extension;
 import org.assertj.core.api.AutoCloseableSoftAssertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import rife.bld.BaseProject;
 import rife.bld.Project;
 import rife.bld.WebProject;
+import rife.bld.dependencies.Dependency;
+import rife.bld.dependencies.Repository;
+import rife.bld.dependencies.Scope;
+import rife.bld.dependencies.VersionNumber;
+import rife.bld.extension.checkstyle.AuditEventListener;
+import rife.bld.extension.checkstyle.Baseline;
+import rife.bld.extension.checkstyle.CheckstyleDaemon;
+import rife.bld.extension.checkstyle.JvmProfile;
 import rife.bld.extension.checkstyle.OutputFormat;
+import rife.bld.extension.checkstyle.PhaseTimer;
+import rife.bld.extension.checkstyle.Severity;
+import rife.bld.extension.checkstyle.Violation;
 import rife.bld.operations.exceptions.ExitStatusException;
 
 import java.io.File;
@@ -30,9 +42,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +60,8 @@ class CheckstyleOperationTest {
     private static final String ADD = "add";
     private static final String BAR = "bar";
     private static final String FOO = "foo";
+    private static final File OUTPUT_FORMAT = new File(SRC_MAIN_JAVA,
+            "rife/bld/extension/checkstyle/OutputFormat.java").getAbsoluteFile();
     private static final String REMOVE = "remove";
 
     @BeforeAll
@@ -57,6 +75,36 @@ class CheckstyleOperationTest {
         logger.setUseParentHandlers(false);
     }
 
+    /*
+     * Writes a configuration only checking for tab characters, so clean files are easily written.
+     */
+    private static Path tabConfig(Path dir) throws IOException {
+        return Files.writeString(dir.resolve("checkstyle.xml"), """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                        "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <module name="FileTabCharacter"/>
+                </module>
+                """);
+    }
+
+
+    @Test
+    void argumentFileThreshold() throws IOException {
+        var op = new CheckstyleOperation().fromProject(new WebProject()).sourceDir(SRC_MAIN_JAVA);
+        assertThat(op.argumentFileThreshold()).isEqualTo(CheckstyleOperation.DEFAULT_ARGUMENT_FILE_THRESHOLD);
+        assertThat(op.executeConstructProcessCommandList()).as("below threshold")
+                .contains(OUTPUT_FORMAT.getPath());
+
+        var args = op.argumentFileThreshold(0).executeConstructProcessCommandList();
+        assertThat(args).hasSize(2);
+        assertThat(args.get(1)).startsWith("@");
+        var argumentFile = Path.of(args.get(1).substring(1));
+        assertThat(Files.readAllLines(argumentFile))
+                .contains("\"-cp\"", "\"com.puppycrawl.tools.checkstyle.Main\"", '"' + OUTPUT_FORMAT.getPath() + '"');
+        Files.delete(argumentFile);
+    }
 
     @Test
     void branchMatchingXpath() {
@@ -64,12 +112,96 @@ class CheckstyleOperationTest {
         assertThat(op.options().get("-b")).isEqualTo(FOO);
     }
 
+    @Test
+    void changedLinesOnly() {
+        var op = new CheckstyleOperation().fromProject(new Project()).changedLinesOnly(true).changedLinesContext(3);
+        assertThat(op.isChangedLinesOnly()).isTrue();
+        assertThat(op.changedLinesContext()).isEqualTo(3);
+        op = op.changedLinesOnly(false).changedLinesContext(-1);
+        assertThat(op.isChangedLinesOnly()).isFalse();
+        assertThat(op.changedLinesContext()).as("negative").isZero();
+    }
+
+    @Test
+    void jvmProfile() {
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .jvmProfile(JvmProfile.QUICK_STARTUP)
+                .jvmOptions("-Xmx512m", " ")
+                .javaHome("/opt/jdk")
+                .sourceDir(SRC_MAIN_JAVA);
+        assertThat(op.jvmProfile()).isEqualTo(JvmProfile.QUICK_STARTUP);
+        assertThat(op.jvmOptions()).containsExactly("-Xmx512m");
+        assertThat(op.javaHome()).isEqualTo(new File("/opt/jdk"));
+
+        var args = op.executeConstructProcessCommandList();
+        assertThat(args.get(0)).isEqualTo(new File("/opt/jdk/bin/java").getPath());
+        assertThat(args).containsSubsequence("-XX:TieredStopAtLevel=1", "-Xmx256m", "-Xmx512m", "-cp");
+
+        op = op.jvmProfile(JvmProfile.THROUGHPUT).javaHome((File) null);
+        args = op.executeConstructProcessCommandList();
+        assertThat(args.get(0)).isEqualTo(op.javaTool());
+        assertThat(args).contains("-XX:+UseParallelGC").anyMatch(arg -> arg.startsWith("-Xms"));
+    }
+
+    @Test
+    void listeners() {
+        var op = new CheckstyleOperation().fromProject(new Project())
+                .listener(new AuditEventListener() {
+                })
+                .listener(null)
+                .onViolation(v -> {
+                })
+                .onFileStarted(f -> {
+                })
+                .onFileFinished(f -> {
+                });
+        assertThat(op.listeners()).hasSize(4);
+    }
+
+    @Test
+    void metricsFile() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.metricsFile()).isNull();
+        assertThat(op.metricsFile("build/checkstyle.prom").metricsFile()).isEqualTo(Path.of("build/checkstyle.prom"));
+        assertThat(op.metricsFile(new File("foo.prom")).metricsFile()).isEqualTo(Path.of("foo.prom"));
+    }
+
+    @Test
+    void minimalClasspath() {
+        var op = new CheckstyleOperation().fromProject(new Project()).minimalClasspath(true);
+        assertThat(op.isMinimalClasspath()).as(ADD).isTrue();
+        op = op.minimalClasspath(false);
+        assertThat(op.isMinimalClasspath()).as(REMOVE).isFalse();
+    }
+
+    @Test
+    void maxErrors() {
+        var op = new CheckstyleOperation().fromProject(new Project()).maxErrors(5).maxWarnings(10);
+        assertThat(op.maxErrors()).isEqualTo(5);
+        assertThat(op.maxWarnings()).isEqualTo(10);
+        op = op.failFast().maxWarnings(-1);
+        assertThat(op.maxErrors()).as("fail fast").isEqualTo(1);
+        assertThat(op.maxWarnings()).as("negative").isZero();
+    }
+
+    @Test
+    void changedSince() {
+        var op = new CheckstyleOperation().fromProject(new Project()).changedSince(FOO);
+        assertThat(op.changedSince()).isEqualTo(FOO);
+        op = op.changedSince(" ");
+        assertThat(op.changedSince()).as("blank").isNull();
+    }
+
     @Test
     void checkAllParameters() throws IOException {
         var args = Files.readAllLines(Paths.get("src", "test", "resources", "checkstyle-args.txt"));
 
         assertThat(args).isNotEmpty();
 
+        // The exclusions are applied when discovering the source files, not on the command line
+        args.removeAll(List.of("-e", "-x"));
+
         var params = new CheckstyleOperation()
                 .fromProject(new Project())
                 .branchMatchingXpath("xpath")
@@ -104,12 +236,38 @@ class CheckstyleOperationTest {
         }
     }
 
+    @Test
+    void classDataSharing() {
+        var op = new CheckstyleOperation().fromProject(new Project()).classDataSharing(true);
+        assertThat(op.isClassDataSharing()).as(ADD).isTrue();
+        op = op.classDataSharing(false);
+        assertThat(op.isClassDataSharing()).as(REMOVE).isFalse();
+    }
+
     @Test
     void configurationFile() {
         var op = new CheckstyleOperation().fromProject(new Project()).configurationFile(FOO);
         assertThat(op.options().get("-c")).isEqualTo(FOO);
     }
 
+    @Test
+    void daemon() {
+        var op = new CheckstyleOperation().fromProject(new Project()).daemon(true);
+        assertThat(op.isDaemon()).as(ADD).isTrue();
+        op = op.daemon(false);
+        assertThat(op.isDaemon()).as(REMOVE).isFalse();
+    }
+
+    @Test
+    void daemonIdleTimeout() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.daemonIdleTimeout()).as("default").isEqualTo(Duration.ofMinutes(30));
+        op = op.daemonIdleTimeout(Duration.ofSeconds(5));
+        assertThat(op.daemonIdleTimeout()).isEqualTo(Duration.ofSeconds(5));
+        op = op.daemonIdleTimeout(Duration.ZERO);
+        assertThat(op.daemonIdleTimeout()).as("zero").isEqualTo(Duration.ofSeconds(5));
+    }
+
     @Test
     void debug() {
         var op = new CheckstyleOperation().fromProject(new Project()).debug(true);
@@ -120,43 +278,65 @@ class CheckstyleOperationTest {
 
     @Test
     void exclude() {
-        var foo = new File(SRC_MAIN_JAVA);
+        var foo = OUTPUT_FORMAT.getParentFile();
         var bar = new File(SRC_TEST_JAVA);
-        var e = "-e ";
+        var kept = new File(SRC_MAIN_JAVA, "rife/bld/extension/CheckstyleOperation.java").getAbsolutePath();
+        var excluded = new File(bar, "rife/bld/extension/CheckstyleOperationTest.java").getAbsolutePath();
 
-        var op = new CheckstyleOperation().fromProject(new Project()).exclude(SRC_MAIN_JAVA, SRC_TEST_JAVA);
-        assertThat(op.executeConstructProcessCommandList()).as("String...")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        var op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .exclude(foo.getPath(), SRC_TEST_JAVA);
+        assertThat(op.executeConstructProcessCommandList()).as("String...").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded).noneMatch(arg -> arg.startsWith("-e"));
 
-        op = new CheckstyleOperation().fromProject(new Project()).excludeStrings(List.of(SRC_MAIN_JAVA, SRC_TEST_JAVA));
-        assertThat(op.executeConstructProcessCommandList()).as("List(String...)")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .excludeStrings(List.of(foo.getPath(), SRC_TEST_JAVA));
+        assertThat(op.executeConstructProcessCommandList()).as("List(String...)").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded);
 
-        op = new CheckstyleOperation().fromProject(new Project()).exclude(foo, bar);
-        assertThat(op.executeConstructProcessCommandList()).as("File...")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .exclude(foo, bar);
+        assertThat(op.executeConstructProcessCommandList()).as("File...").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded);
 
-        op = new CheckstyleOperation().fromProject(new Project()).exclude(List.of(foo, bar));
-        assertThat(op.executeConstructProcessCommandList()).as("List(File...)")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .exclude(List.of(foo, bar));
+        assertThat(op.executeConstructProcessCommandList()).as("List(File...)").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded);
 
-        op = new CheckstyleOperation().fromProject(new Project()).exclude(foo.toPath(), bar.toPath());
-        assertThat(op.executeConstructProcessCommandList()).as("Path...")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .exclude(foo.toPath(), bar.toPath());
+        assertThat(op.executeConstructProcessCommandList()).as("Path...").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded);
 
-        op = new CheckstyleOperation().fromProject(new Project()).excludePaths(List.of(foo.toPath(), bar.toPath()));
-        assertThat(op.executeConstructProcessCommandList()).as("List(Path...)")
-                .contains(e + foo.getAbsolutePath()).contains(e + bar.getAbsolutePath());
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .excludePaths(List.of(foo.toPath(), bar.toPath()));
+        assertThat(op.executeConstructProcessCommandList()).as("List(Path...)").contains(kept)
+                .doesNotContain(OUTPUT_FORMAT.getPath(), excluded);
     }
 
     @Test
     void excludeRegex() {
-        var op = new CheckstyleOperation().fromProject(new Project()).excludeRegex(FOO, BAR);
-        var x = "-x ";
-        assertThat(op.executeConstructProcessCommandList()).contains(x + FOO, x + BAR);
+        var op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA)
+                .excludeRegex("OutputFormat", BAR);
+        assertThat(op.executeConstructProcessCommandList()).isNotEmpty().doesNotContain(OUTPUT_FORMAT.getPath())
+                .noneMatch(arg -> arg.startsWith("-x"));
+
+        op = new CheckstyleOperation().fromProject(new Project()).sourceDir(SRC_MAIN_JAVA)
+                .excludeRegex(List.of("OutputFormat", BAR));
+        assertThat(op.executeConstructProcessCommandList()).as("as list").doesNotContain(OUTPUT_FORMAT.getPath());
+    }
+
+    @Test
+    void exclusionMatcher() {
+        var op = new CheckstyleOperation().fromProject(new Project()).exclude(SRC_TEST_JAVA).excludeRegex(FOO, " ");
+        var matcher = op.exclusionMatcher();
+        assertThat(matcher.size()).isEqualTo(2);
+        assertThat(matcher.isExcluded(new File(SRC_TEST_JAVA).getAbsolutePath())).isTrue();
+        assertThat(op.exclusionMatcher()).as("reused").isSameAs(matcher);
 
-        op = new CheckstyleOperation().fromProject(new Project()).excludeRegex(List.of(FOO, BAR));
-        assertThat(op.executeConstructProcessCommandList()).as("as list").contains(x + FOO, x + BAR);
+        op.excludeRegex(BAR);
+        assertThat(op.exclusionMatcher()).as("recompiled").isNotSameAs(matcher);
+        assertThat(op.exclusionMatcher().size()).isEqualTo(3);
     }
 
     @Test
@@ -181,16 +361,29 @@ class CheckstyleOperationTest {
                 .debug(true)
                 .executeIgnoredModules(true)
                 .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA);
-        assertThat(String.join(" ", op.executeConstructProcessCommandList()))
+        var args = op.executeConstructProcessCommandList();
+        assertThat(String.join(" ", args))
                 .startsWith("java -cp ")
-                .endsWith(
+                .contains(
                         "com.puppycrawl.tools.checkstyle.Main " +
                                 "-p config/checkstyle.properties " +
                                 "-b xpath " +
                                 "-c config/checkstyle.xml " +
                                 "-d -E " +
-                                new File(SRC_MAIN_JAVA).getAbsolutePath() + " " +
-                                new File(SRC_TEST_JAVA).getAbsolutePath());
+                                new File(SRC_MAIN_JAVA).getAbsolutePath() + File.separator);
+        assertThat(args).as("source files").contains(OUTPUT_FORMAT.getPath())
+                .contains(new File(SRC_TEST_JAVA, "rife/bld/extension/CheckstyleOperationTest.java")
+                        .getAbsolutePath())
+                .doesNotContain(new File(SRC_MAIN_JAVA).getAbsolutePath(), new File(SRC_TEST_JAVA).getAbsolutePath());
+    }
+
+    @Test
+    void executeConstructProcessCommandListOverlapping() {
+        var op = new CheckstyleOperation().fromProject(new BaseProject())
+                .sourceDir(SRC_MAIN_JAVA, "src", new File("src").getAbsolutePath());
+        assertThat(op.executeConstructProcessCommandList())
+                .containsOnlyOnce(OUTPUT_FORMAT.getPath())
+                .doesNotContain(new File("src").getAbsolutePath(), new File(SRC_MAIN_JAVA).getAbsolutePath());
     }
 
     @Test
@@ -201,12 +394,693 @@ class CheckstyleOperationTest {
         assertThat(op.options().containsKey("-E")).as(REMOVE).isFalse();
     }
 
+    @Test
+    void executeChangedLinesOnly() throws IOException, ExitStatusException, InterruptedException {
+        var tmpFile = File.createTempFile("checkstyle-google-changed-lines", ".xml");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .changedLinesOnly(true)
+                .changedLinesContext(2)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .format(OutputFormat.XML)
+                .outputPath(tmpFile.toPath());
+        op.execute();
+        assertThat(Files.readString(tmpFile.toPath())).contains("<checkstyle", "</checkstyle>");
+    }
+
+    @Test
+    void executeChangedSince() throws IOException, ExitStatusException, InterruptedException {
+        var tmpFile = File.createTempFile("checkstyle-google-changed", ".xml");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .changedSince("HEAD")
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .format(OutputFormat.XML)
+                .outputPath(tmpFile.toPath());
+        op.execute();
+        assertThat(Files.readString(tmpFile.toPath())).contains("<checkstyle", "</checkstyle>");
+    }
+
+    @Test
+    void executeDaemon() throws IOException, ExitStatusException, InterruptedException {
+        var project = new WebProject();
+        var stateFile = new File(project.buildDirectory(), "checkstyle/daemon.properties");
+        try {
+            for (var i = 0; i < 2; i++) {
+                var tmpFile = File.createTempFile("checkstyle-google-daemon", ".txt");
+                tmpFile.deleteOnExit();
+                var op = new CheckstyleOperation()
+                        .fromProject(project)
+                        .daemon(true)
+                        .daemonIdleTimeout(Duration.ofMinutes(1))
+                        .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                        .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                        .outputPath(tmpFile.toPath());
+                op.execute();
+                assertThat(tmpFile).as("run " + i).exists().isNotEmpty();
+                assertThat(stateFile).as("run " + i).exists();
+            }
+        } finally {
+            CheckstyleDaemon.shutdown(stateFile);
+        }
+    }
+
+    @Test
+    void executeIncremental() throws IOException {
+        var project = new WebProject();
+        var reports = new ArrayList<String>();
+        for (var i = 0; i < 2; i++) {
+            var tmpFile = File.createTempFile("checkstyle-sun-incremental", ".xml");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(project)
+                    .incremental(true)
+                    .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                    .configurationFile("src/test/resources/sun_checks.xml")
+                    .format(OutputFormat.XML)
+                    .outputPath(tmpFile.getAbsolutePath());
+            assertThatCode(op::execute).as("run " + i).isInstanceOf(ExitStatusException.class);
+            reports.add(Files.readString(tmpFile.toPath()));
+        }
+        assertThat(new File(project.buildDirectory(), "checkstyle/incremental.idx")).exists();
+        assertThat(reports.get(0)).contains("<error ").isEqualTo(reports.get(1));
+    }
+
+    @Test
+    void executeInProcess() throws IOException, ExitStatusException, InterruptedException {
+        var tmpFile = File.createTempFile("checkstyle-google-in-process", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .outputPath(tmpFile.toPath());
+        op.execute();
+        assertThat(tmpFile).exists().isNotEmpty();
+    }
+
+    @Test
+    void executeInProcessSunChecks() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-in-process", ".xml");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .format(OutputFormat.XML)
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(Files.readString(tmpFile.toPath())).contains("<checkstyle", "<error ");
+    }
+
     @Test
     void executeNoProject() {
         var op = new CheckstyleOperation();
         assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
     }
 
+    @Test
+    void executeListeners() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-listeners", ".xml");
+        tmpFile.deleteOnExit();
+        var started = new ArrayList<String>();
+        var finished = new ArrayList<String>();
+        var violations = new ArrayList<Violation>();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .format(OutputFormat.XML)
+                .outputPath(tmpFile.getAbsolutePath())
+                .onFileStarted(started::add)
+                .onFileFinished(finished::add)
+                .onViolation(violations::add);
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class)
+                .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                .isEqualTo(op.result().errors());
+        assertThat(started).isNotEmpty().isEqualTo(finished);
+        assertThat(violations).isNotEmpty().allMatch(v -> started.contains(v.file()));
+        var result = op.result();
+        assertThat(result.filesAudited()).isEqualTo(started.size());
+        assertThat(result.errors()).isPositive()
+                .isEqualTo(violations.stream().filter(v -> v.severity() == Severity.ERROR).count());
+        assertThat(result.countsByFile().values().stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(violations.size());
+        assertThat(Files.readString(tmpFile.toPath())).contains(violations.get(0).source());
+    }
+
+    @Test
+    void executeListenersClean(@TempDir Path tmp) throws IOException, ExitStatusException, InterruptedException {
+        var config = tabConfig(tmp);
+        var clean = Files.writeString(Files.createDirectories(tmp.resolve("src")).resolve("Clean.java"),
+                "class Clean {\n}\n");
+        var started = new ArrayList<String>();
+        var violations = new ArrayList<Violation>();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .sourceDir(tmp.resolve("src").toString())
+                .configurationFile(config.toString())
+                .format(OutputFormat.XML)
+                .outputPath(tmp.resolve("report.xml"))
+                .onFileStarted(started::add)
+                .onViolation(violations::add);
+        op.execute();
+        assertThat(op.result().exitCode()).isZero();
+        assertThat(started).containsExactly(clean.toFile().getAbsolutePath());
+        assertThat(violations).isEmpty();
+        assertThat(tmp.resolve("report.xml")).content().contains("<file ", "</checkstyle>");
+    }
+
+    @Test
+    void executeUnsupportedOptions(@TempDir Path tmp) throws IOException, ExitStatusException,
+            InterruptedException {
+        Files.writeString(Files.createDirectories(tmp.resolve("src")).resolve("Clean.java"), "class Clean {\n}\n");
+        var warnings = new ArrayList<String>();
+        var handler = new Handler() {
+            @Override
+            public void close() {
+                // no-op
+            }
+
+            @Override
+            public void flush() {
+                // no-op
+            }
+
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING) {
+                    warnings.add(record.getMessage());
+                }
+            }
+        };
+        var logger = Logger.getLogger(CheckstyleOperation.class.getName());
+        logger.addHandler(handler);
+        try {
+            new CheckstyleOperation()
+                    .fromProject(new WebProject())
+                    .sourceDir(tmp.resolve("src").toString())
+                    .configurationFile(tabConfig(tmp).toString())
+                    .outputPath(tmp.resolve("report.txt"))
+                    .debug(true)
+                    .maxErrors(5)
+                    .execute();
+        } finally {
+            logger.removeHandler(handler);
+        }
+        assertThat(warnings).anyMatch(w -> w.contains("-d") && w.contains("maxErrors"));
+    }
+
+    @Test
+    void executeResult() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-result", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThat(op.result()).isNull();
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+
+        var result = op.result();
+        assertThat(result.isDetailed()).isTrue();
+        assertThat(result.errors()).isPositive().isEqualTo(result.exitCode());
+        assertThat(result.filesAudited()).isPositive();
+        assertThat(result.countsByModule()).isNotEmpty();
+        assertThat(result.countsByFile().values().stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(result.errors() + result.warnings() + result.count(Severity.INFO));
+        assertThat(result.phaseTimes()).containsKeys("discovery", "audit", "total");
+    }
+
+    @Test
+    void executeRespectGitignore(@TempDir Path tmp) throws IOException {
+        var src = Files.createDirectories(tmp.resolve("src"));
+        Files.copy(Path.of(SRC_MAIN_JAVA, "rife/bld/extension/checkstyle/OutputFormat.java"),
+                src.resolve("OutputFormat.java"));
+        Files.createDirectories(src.resolve("generated"));
+        Files.copy(Path.of(SRC_MAIN_JAVA, "rife/bld/extension/checkstyle/Severity.java"),
+                src.resolve("generated/Severity.java"));
+        Files.createDirectories(tmp.resolve(".git"));
+        Files.writeString(tmp.resolve(".gitignore"), "generated/\n");
+
+        var tmpFile = File.createTempFile("checkstyle-sun-gitignore", ".xml");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .respectGitignore(true)
+                .sourceDir(src.toFile())
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .format(OutputFormat.XML)
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class)
+                .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                .isEqualTo(op.result().errors());
+        assertThat(op.result().filesAudited()).isEqualTo(1);
+        assertThat(op.result().errors()).isPositive();
+        assertThat(op.result().countsByFile()).containsOnlyKeys(src.resolve("OutputFormat.java").toString());
+        assertThat(Files.readString(tmpFile.toPath())).contains("OutputFormat.java").doesNotContain("Severity.java");
+    }
+
+    @Test
+    void executeTiming() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-timing", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .timing(true)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().phaseTimes()).containsKeys(PhaseTimer.STARTUP, PhaseTimer.CONFIGURATION, "discovery",
+                PhaseTimer.CHECKS, PhaseTimer.REPORT, "audit", "total").doesNotContainKey(PhaseTimer.PROCESS);
+    }
+
+    @Test
+    void executeTimingForked() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-timing-forked", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .timing(true)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().phaseTimes()).containsKeys("discovery", PhaseTimer.PROCESS, "audit", "total")
+                .doesNotContainKeys(PhaseTimer.STARTUP, PhaseTimer.CHECKS, PhaseTimer.REPORT);
+    }
+
+    @Test
+    void executeTimingForkedFailure(@TempDir Path tmp) throws IOException {
+        Files.writeString(Files.createDirectories(tmp.resolve("src")).resolve("Clean.java"), "class Clean {\n}\n");
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .timing(true)
+                .sourceDir(tmp.resolve("src").toString())
+                .configurationFile(tmp.resolve("missing.xml").toString())
+                .outputPath(tmp.resolve("report.txt"));
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().phaseTimes()).containsKey(PhaseTimer.PROCESS);
+    }
+
+    @Test
+    void executeMetricsFile(@TempDir Path tmp) throws IOException {
+        var metrics = tmp.resolve("checkstyle.prom");
+        var tmpFile = File.createTempFile("checkstyle-sun-metrics", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .metricsFile(metrics)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class)
+                .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                .isEqualTo(op.result().errors());
+        var result = op.result();
+        assertThat(result.bytesRead()).isPositive();
+        assertThat(result.filesAudited()).isPositive();
+        assertThat(result.errors()).isPositive();
+        assertThat(result.exitCode()).isEqualTo(result.errors());
+        assertThat(Files.readString(metrics)).contains("checkstyle_exit_code " + result.exitCode(),
+                        "checkstyle_files_audited " + result.filesAudited(),
+                        "checkstyle_violations{severity=\"error\"} " + result.errors(),
+                        "checkstyle_phase_duration_seconds{phase=\"total\"}")
+                .endsWith("# EOF\n");
+    }
+
+    @Test
+    void executeTraceFile(@TempDir Path tmp) throws IOException {
+        var trace = tmp.resolve("trace.json");
+        var tmpFile = File.createTempFile("checkstyle-sun-trace", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .parallelism(2)
+                .traceFile(trace)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(Files.readString(trace)).startsWith("{").endsWith("]}\n")
+                .contains("\"discovery\"", "\"configuration\"", "\"startup\"", "\"OutputFormat.java\"",
+                        "\"report\"", "\"total\"", "\"audit 1\"", "\"audit 2\"");
+    }
+
+    @Test
+    void executeBaseline(@TempDir Path tmp) throws IOException {
+        var baseline = tmp.resolve("baseline.bin");
+        var tmpFile = File.createTempFile("checkstyle-sun-baseline", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .baseline(baseline)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).as("recording").doesNotThrowAnyException();
+        assertThat(Baseline.load(baseline).size()).isPositive();
+        assertThat(op.result().errors()).isZero();
+
+        assertThatCode(op::execute).as("filtering").doesNotThrowAnyException();
+        assertThat(op.result().errors()).isZero();
+
+        Baseline.write(baseline);
+        assertThatCode(op::execute).as("empty baseline").isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().errors()).isPositive();
+    }
+
+    @Test
+    void executeBaselinePartial(@TempDir Path tmp) throws IOException, InterruptedException {
+        var baseline = tmp.resolve("baseline.bin");
+        var tmpFile = File.createTempFile("checkstyle-sun-baseline-partial", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .baseline(baseline)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).as("recording").doesNotThrowAnyException();
+        var size = Baseline.load(baseline).size();
+        assertThat(size).isPositive();
+
+        op = op.updateBaseline(true).changedSince("HEAD");
+        try {
+            op.execute();
+        } catch (ExitStatusException e) {
+            // New violations in the files changed in the working tree
+        }
+        assertThat(Baseline.load(baseline).size()).as("not overwritten").isEqualTo(size);
+    }
+
+    @Test
+    void executeBaselinePartialNew(@TempDir Path tmp) throws IOException, ExitStatusException,
+            InterruptedException {
+        var baseline = tmp.resolve("baseline.bin");
+        var tabs = Files.writeString(tmp.resolve("Tabs.java"), "class Tabs {\n\tint i;\n}\n");
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .baseline(baseline)
+                .sourceFilesFrom(Files.writeString(tmp.resolve("files.txt"), tabs.toString()))
+                .configurationFile(tabConfig(tmp).toString())
+                .outputPath(tmp.resolve("report.txt"));
+        assertThatCode(op::execute).as("not baselined").isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().errors()).isEqualTo(1);
+        assertThat(baseline).as("not recorded").doesNotExist();
+    }
+
+    @Test
+    void executeFlightRecording(@TempDir Path tmp) throws IOException {
+        var recording = tmp.resolve("jfr/checkstyle.jfr");
+        var tmpFile = File.createTempFile("checkstyle-sun-jfr", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .flightRecording(recording)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(recording).isRegularFile();
+        var summary = op.result().flightSummary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.duration()).isPositive();
+        assertThat(op.result().phaseTimes()).containsKey("flight recording");
+    }
+
+    @Test
+    void executeProfileChecks() throws IOException {
+        var project = new WebProject();
+        var tmpFile = File.createTempFile("checkstyle-sun-profile", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(project)
+                .profileChecks(true)
+                .profileTop(3)
+                .sourceDir(SRC_MAIN_JAVA + "/rife/bld/extension/checkstyle/OutputFormat.java")
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class)
+                .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                .isEqualTo(op.result().errors());
+        assertThat(op.result().filesAudited()).isEqualTo(1);
+        assertThat(op.result().errors()).isPositive();
+
+        var profile = op.result().checkProfile();
+        assertThat(profile).isNotNull();
+        assertThat(profile.checkTimes()).containsKeys("LineLength", "JavadocMethod", "FinalParameters")
+                .doesNotContainKeys("SuppressionFilter", "TreeWalker");
+        assertThat(profile.fileTimes()).hasSize(1);
+        assertThat(op.result().phaseTimes()).containsKey("profile");
+        assertThat(new File(project.buildDirectory(), "checkstyle/profile.json")).content()
+                .contains("\"checks\"", "\"files\"", "OutputFormat.java");
+    }
+
+    @Test
+    void executeResultOverlapping() throws IOException {
+        var tmpFile = File.createTempFile("checkstyle-sun-overlapping", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile("src/test/resources/sun_checks.xml")
+                .outputPath(tmpFile.getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        var expected = op.result();
+
+        op.sourceDir("src/main", new File(SRC_MAIN_JAVA).getAbsolutePath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        var result = op.result();
+        assertThat(result.duplicates()).isEqualTo(2);
+        assertThat(result.filesAudited()).isEqualTo(expected.filesAudited());
+        assertThat(result.errors()).isEqualTo(expected.errors());
+    }
+
+    @Test
+    void executeResultForked() throws IOException, ExitStatusException, InterruptedException {
+        var tmpFile = File.createTempFile("checkstyle-google-result", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .outputPath(tmpFile.toPath());
+        op.execute();
+        assertThat(op.result().exitCode()).isZero();
+        assertThat(op.result().isDetailed()).isFalse();
+        assertThat(op.result().phaseTimes()).containsKey("total");
+    }
+
+    @Test
+    void executeFailFast() throws IOException {
+        for (var inProcess : new boolean[]{true, false}) {
+            var tmpFile = File.createTempFile("checkstyle-sun-fail-fast", ".xml");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(new WebProject())
+                    .inProcess(inProcess)
+                    .failFast()
+                    .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                    .configurationFile("src/test/resources/sun_checks.xml")
+                    .format(OutputFormat.XML)
+                    .outputPath(tmpFile.getAbsolutePath());
+            assertThatCode(op::execute).as("in-process " + inProcess)
+                    .isInstanceOf(ExitStatusException.class)
+                    .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                    .isEqualTo(CheckstyleOperation.EXIT_THRESHOLD_EXCEEDED);
+            assertThat(op.result().isAborted()).isTrue();
+            assertThat(op.result().errors()).isEqualTo(1);
+            assertThat(Files.readString(tmpFile.toPath())).contains("<error ", "</checkstyle>");
+        }
+    }
+
+    @Test
+    void executeFailFastIncremental() throws IOException {
+        var project = new WebProject();
+        var index = new File(project.buildDirectory(), "checkstyle/incremental.idx");
+        for (var inProcess : new boolean[]{true, false}) {
+            Files.deleteIfExists(index.toPath());
+            var tmpFile = File.createTempFile("checkstyle-sun-fail-fast-incremental", ".xml");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(project)
+                    .inProcess(inProcess)
+                    .incremental(true)
+                    .failFast()
+                    .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                    .configurationFile("src/test/resources/sun_checks.xml")
+                    .format(OutputFormat.XML)
+                    .outputPath(tmpFile.getAbsolutePath());
+            assertThatCode(op::execute).as("in-process " + inProcess)
+                    .isInstanceOf(ExitStatusException.class)
+                    .extracting(e -> ((ExitStatusException) e).getExitStatus())
+                    .isEqualTo(CheckstyleOperation.EXIT_THRESHOLD_EXCEEDED);
+            assertThat(op.result().isAborted()).isTrue();
+            assertThat(op.result().errors()).isEqualTo(1);
+            // Stopped while the changed files were audited, before the index could be saved
+            assertThat(index).as("in-process " + inProcess).doesNotExist();
+            assertThat(Files.readString(tmpFile.toPath())).contains("<error ", "</checkstyle>");
+        }
+    }
+
+    @Test
+    void executeMaxWarningsParallel() throws IOException {
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .inProcess(true)
+                .parallelism(2)
+                .maxWarnings(3)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .outputPath(File.createTempFile("checkstyle-google-max-warnings", ".txt").toPath());
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+        assertThat(op.result().isAborted()).isTrue();
+        assertThat(op.result().warnings()).isEqualTo(3);
+    }
+
+    @Test
+    void executeMinimalClasspath() throws IOException, ExitStatusException, InterruptedException {
+        var project = new WebProject();
+        project.repositories(Repository.MAVEN_CENTRAL);
+        project.dependencies().scope(Scope.test)
+                .include(new Dependency("com.puppycrawl.tools", "checkstyle", new VersionNumber(10, 21, 2)));
+        var tmpFile = File.createTempFile("checkstyle-google-minimal", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(project)
+                .minimalClasspath(true)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .outputPath(tmpFile.toPath());
+
+        var cp = op.executeConstructProcessCommandList().get(2);
+        assertThat(cp).contains("checkstyle-").doesNotContain("junit", "assertj", "*",
+                project.buildMainDirectory().getPath());
+        assertThat(new File(project.buildDirectory(), "checkstyle/classpath.txt")).isFile();
+
+        op.execute();
+        assertThat(tmpFile).isNotEmpty();
+    }
+
+    @Test
+    void executeMinimalClasspathUnresolved() {
+        var project = new WebProject();
+        var cp = new CheckstyleOperation()
+                .fromProject(project)
+                .minimalClasspath(true)
+                .sourceDir(SRC_MAIN_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .executeConstructProcessCommandList().get(2);
+        // Saxon-HE and picocli embed no POM, their dependencies are unknown
+        assertThat(cp).contains("checkstyle-", "xmlresolver-", project.buildMainDirectory().getPath());
+    }
+
+    @Test
+    void executeClassDataSharing() throws IOException, ExitStatusException, InterruptedException {
+        var project = new WebProject();
+        for (var i = 0; i < 2; i++) {
+            var tmpFile = File.createTempFile("checkstyle-google-cds", ".txt");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(project)
+                    .classDataSharing(true)
+                    .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                    .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                    .outputPath(tmpFile.toPath());
+            op.execute();
+            assertThat(tmpFile).as("run " + i).isNotEmpty();
+        }
+        // Either the archive, or the record that this runtime could not create it
+        assertThat(new File(project.buildDirectory(), "checkstyle/cds").list())
+                .anyMatch(name -> name.endsWith(".jsa") || name.endsWith(".jsa.failed"));
+
+        // The archive is only mapped with the exact classpath it was dumped with
+        var args = new CheckstyleOperation().fromProject(project).classDataSharing(true)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .executeConstructProcessCommandList();
+        assertThat(args.get(args.indexOf("-cp") + 1)).doesNotContain("*")
+                .doesNotContain(project.buildMainDirectory().getPath());
+    }
+
+    @Test
+    void executeJvmProfile() throws IOException, ExitStatusException, InterruptedException {
+        var tmpFile = File.createTempFile("checkstyle-google-profile", ".txt");
+        tmpFile.deleteOnExit();
+        var op = new CheckstyleOperation()
+                .fromProject(new WebProject())
+                .jvmProfile(JvmProfile.QUICK_STARTUP)
+                .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                .configurationFile(Path.of("src/test/resources/google_checks.xml"))
+                .outputPath(tmpFile.toPath());
+        op.execute();
+        assertThat(tmpFile).isNotEmpty();
+    }
+
+    @Test
+    void executeParallel() throws IOException {
+        var reports = new ArrayList<List<String>>();
+        for (var parallelism : new int[]{1, 3}) {
+            var tmpFile = File.createTempFile("checkstyle-sun-parallel", ".xml");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(new WebProject())
+                    .parallelism(parallelism)
+                    .sourceDir(SRC_MAIN_JAVA, SRC_TEST_JAVA)
+                    .configurationFile("src/test/resources/sun_checks.xml")
+                    .format(OutputFormat.XML)
+                    .outputPath(tmpFile.getAbsolutePath());
+            assertThatCode(op::execute).as("parallelism " + parallelism).isInstanceOf(ExitStatusException.class);
+            reports.add(Files.readAllLines(tmpFile.toPath()).stream()
+                    .filter(line -> line.startsWith("<file ") || line.startsWith("<error "))
+                    .map(line -> line.startsWith("<error ") ? line.substring(0, line.indexOf(" message=")) : line)
+                    .toList());
+        }
+        assertThat(reports.get(1)).isNotEmpty().isEqualTo(reports.get(0));
+    }
+
+    @Test
+    void executeSourceFilesFrom(@TempDir Path tmp) throws IOException {
+        var listFile = tmp.resolve("files.txt");
+        Files.writeString(listFile, "src/main/java/rife/bld/extension/checkstyle/OutputFormat.java\n");
+        var project = new WebProject();
+
+        for (var inProcess : List.of(false, true)) {
+            var tmpFile = File.createTempFile("checkstyle-sun-files-from", ".xml");
+            tmpFile.deleteOnExit();
+            var op = new CheckstyleOperation()
+                    .fromProject(project)
+                    .inProcess(inProcess)
+                    .argumentFileThreshold(0)
+                    .sourceFilesFrom(listFile)
+                    .configurationFile("src/test/resources/sun_checks.xml")
+                    .format(OutputFormat.XML)
+                    .outputPath(tmpFile.getAbsolutePath());
+            assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+            assertThat(Files.readString(tmpFile.toPath())).as("inProcess=" + inProcess)
+                    .contains("OutputFormat.java").doesNotContain("CheckstyleOperation.java");
+        }
+        try (var files = Files.list(new File(project.buildDirectory(), "checkstyle").toPath())) {
+            assertThat(files.map(Path::getFileName).map(Path::toString)).as("argument files deleted")
+                    .noneMatch(name -> name.startsWith("args-"));
+        }
+    }
+
     @Test
     void executeSunChecks() throws IOException {
         var tmpFile = File.createTempFile("checkstyle-sun", ".txt");
@@ -220,6 +1094,36 @@ class CheckstyleOperationTest {
         assertThat(tmpFile).exists();
     }
 
+    @Test
+    void baseline() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.baseline()).isNull();
+        assertThat(op.isUpdateBaseline()).isFalse();
+        assertThat(op.baseline("checkstyle-baseline.bin").baseline()).isEqualTo(Path.of("checkstyle-baseline.bin"));
+        assertThat(op.baseline(new File("foo.bin")).baseline()).isEqualTo(Path.of("foo.bin"));
+        assertThat(op.updateBaseline(true).isUpdateBaseline()).isTrue();
+    }
+
+    @Test
+    void flightRecording() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.flightRecording()).isNull();
+        assertThat(op.flightRecording("build/checkstyle.jfr").flightRecording())
+                .isEqualTo(Path.of("build/checkstyle.jfr"));
+        assertThat(op.flightRecording(new File("foo.jfr")).flightRecording()).isEqualTo(Path.of("foo.jfr"));
+    }
+
+    @Test
+    void flightRecordingOptions(@TempDir Path tmp) {
+        var op = new CheckstyleOperation().fromProject(new Project())
+                .flightRecording(tmp.resolve("checkstyle.jfr"));
+        assertThat(op.executeConstructProcessCommandList()).contains("-Xlog:jfr+startup=off",
+                "-XX:StartFlightRecording=settings=profile,dumponexit=true,filename=" + tmp.resolve("checkstyle.jfr"));
+        assertThat(op.executeConstructProcessCommandList()).as("numbered")
+                .contains("-XX:StartFlightRecording=settings=profile,dumponexit=true,filename="
+                        + tmp.resolve("checkstyle-2.jfr"));
+    }
+
     @Test
     void format() {
         var op = new CheckstyleOperation().fromProject(new Project()).format(OutputFormat.XML);
@@ -234,6 +1138,22 @@ class CheckstyleOperationTest {
         assertThat(op.options().containsKey("-g")).as(REMOVE).isFalse();
     }
 
+    @Test
+    void incremental() {
+        var op = new CheckstyleOperation().fromProject(new Project()).incremental(true);
+        assertThat(op.isIncremental()).as(ADD).isTrue();
+        op = op.incremental(false);
+        assertThat(op.isIncremental()).as(REMOVE).isFalse();
+    }
+
+    @Test
+    void inProcess() {
+        var op = new CheckstyleOperation().fromProject(new Project()).inProcess(true);
+        assertThat(op.isInProcess()).as(ADD).isTrue();
+        op = op.inProcess(false);
+        assertThat(op.isInProcess()).as(REMOVE).isFalse();
+    }
+
     @Test
     void javadocTree() {
         var op = new CheckstyleOperation().fromProject(new Project()).javadocTree(true);
@@ -248,6 +1168,14 @@ class CheckstyleOperationTest {
         assertThat(op.options().get("-o")).isEqualTo(FOO);
     }
 
+    @Test
+    void parallelism() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.parallelism()).as("default").isEqualTo(1);
+        assertThat(op.parallelism(4).parallelism()).isEqualTo(4);
+        assertThat(op.parallelism(0).parallelism()).as("minimum").isEqualTo(1);
+    }
+
     @Test
     void propertiesFile() {
         var op = new CheckstyleOperation().fromProject(new Project()).propertiesFile(FOO);
@@ -258,6 +1186,40 @@ class CheckstyleOperationTest {
         assertThat(op.options().get("-p")).isEqualTo(fooPath.toFile().getAbsolutePath());
     }
 
+    @Test
+    void profileChecks() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.isProfileChecks()).isFalse();
+        assertThat(op.profileTop()).isEqualTo(10);
+        assertThat(op.profileChecks(true).isProfileChecks()).isTrue();
+        assertThat(op.profileTop(5).profileTop()).isEqualTo(5);
+        assertThat(op.profileTop(0).profileTop()).isEqualTo(5);
+    }
+
+    @Test
+    void respectGitignore() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.isRespectGitignore()).isFalse();
+        assertThat(op.respectGitignore(true).isRespectGitignore()).isTrue();
+    }
+
+    @Test
+    void traceFile() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.traceFile()).isNull();
+        assertThat(op.traceFile("build/trace.json").traceFile()).isEqualTo(Path.of("build/trace.json"));
+        assertThat(op.traceFile(new File("foo.json")).traceFile()).isEqualTo(Path.of("foo.json"));
+    }
+
+    @Test
+    void timing() {
+        var op = new CheckstyleOperation().fromProject(new Project());
+        assertThat(op.isTiming()).isFalse();
+        assertThat(op.timingLevel()).isEqualTo(Level.INFO);
+        assertThat(op.timing(true).isTiming()).isTrue();
+        assertThat(op.timingLevel(Level.FINE).timingLevel()).isEqualTo(Level.FINE);
+    }
+
     @Test
     void sourceDir() {
         var foo = new File(FOO);
@@ -288,6 +1250,45 @@ class CheckstyleOperationTest {
         op.sourceDir().clear();
     }
 
+    @Test
+    void sourceFilesFrom(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var bar = Files.writeString(tmp.resolve("Bar.java"), "class Bar {}").toFile();
+        var listFile = tmp.resolve("files.txt");
+        Files.writeString(listFile, foo + "\n\n  " + bar + '\n');
+
+        var op = new CheckstyleOperation().fromProject(new Project()).sourceFilesFrom(listFile);
+        assertThat(op.sourceFilesFrom()).isEqualTo(listFile);
+        var args = op.executeConstructProcessCommandList();
+        assertThat(args.get(args.size() - 1)).as("argument file").startsWith("@");
+        var argumentFile = Path.of(args.get(args.size() - 1).substring(1));
+        assertThat(Files.readAllLines(argumentFile))
+                .endsWith('"' + foo.getAbsolutePath() + '"', '"' + bar.getAbsolutePath() + '"')
+                .doesNotContain('"' + OUTPUT_FORMAT.getPath() + '"');
+        Files.delete(argumentFile);
+        assertThat(op.sourceDir()).as("no default").isEmpty();
+
+        op = new CheckstyleOperation().sourceFilesFrom(listFile.toString());
+        assertThat(op.sourceFilesFrom()).isEqualTo(listFile);
+    }
+
+    @Test
+    void sourceFilesFromUnwritable(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var listFile = Files.writeString(tmp.resolve("files.txt"), foo.getAbsolutePath());
+        // The argument file can't be written in a build directory that is a file
+        var build = Files.writeString(tmp.resolve("build"), "").toFile();
+        var project = new Project() {
+            {
+                buildDirectory = build;
+            }
+        };
+
+        var op = new CheckstyleOperation().fromProject(project).sourceFilesFrom(listFile);
+        assertThat(op.executeConstructProcessCommandList()).isEmpty();
+        assertThatCode(op::execute).isInstanceOf(ExitStatusException.class);
+    }
+
 
     @Test
     void suppressionLineColumnNumber() {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaselineFilterTest {
+    private static Violation violation(Path file, int line, String source) {
+        return new Violation(file.toString(), line, 1, Severity.ERROR, "Magic number.", source);
+    }
+
+    @Test
+    void filterViolations(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("src/A.java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "class A {\n    int x = 42;\n    int y = 42;\n}\n");
+
+        var lines = new ArrayList<Integer>();
+        AuditEventListener listener = new AuditEventListener() {
+            @Override
+            public void exception(String file, String stackTrace) {
+                lines.add(0);
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                lines.add(violation.line());
+            }
+        };
+
+        var recorder = new BaselineFilter(listener, null, tmp);
+        recorder.fileStarted(file.toString());
+        recorder.violation(violation(file, 2, "MagicNumberCheck"));
+        recorder.violation(violation(file, 3, "MagicNumberCheck"));
+        recorder.exception(file.toString(), "java.lang.IllegalStateException");
+        recorder.fileFinished(file.toString());
+        assertThat(lines).as("recording").containsExactly(0);
+        assertThat(recorder.fingerprints()).hasSize(2).doesNotHaveDuplicates();
+
+        // Shift the lines, reformat one of them and add a new violation
+        Files.writeString(file, "// A\nclass A {\n  int x  = 42;\n    int y = 42;\n    int z = 42;\n}\n");
+        lines.clear();
+        var filter = new BaselineFilter(listener, Baseline.of(recorder.fingerprints()), tmp);
+        filter.fileStarted(file.toString());
+        for (var line : List.of(3, 4, 5)) {
+            filter.violation(violation(file, line, "MagicNumberCheck"));
+        }
+        filter.fileFinished(file.toString());
+        assertThat(lines).containsExactly(5);
+        assertThat(filter.matched()).isEqualTo(2);
+    }
+
+    @Test
+    void identicalLines(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("A.java");
+        Files.writeString(file, "}\n}\n}\n");
+
+        var recorder = new BaselineFilter(new AuditEventListener() {
+        }, null, tmp);
+        recorder.violation(violation(file, 1, "RightCurlyCheck"));
+        recorder.violation(violation(file, 2, "RightCurlyCheck"));
+
+        var lines = new ArrayList<Integer>();
+        var filter = new BaselineFilter(new AuditEventListener() {
+            @Override
+            public void violation(Violation violation) {
+                lines.add(violation.line());
+            }
+        }, Baseline.of(recorder.fingerprints()), tmp);
+        for (var line : List.of(1, 2, 3)) {
+            filter.violation(violation(file, line, "RightCurlyCheck"));
+        }
+        assertThat(lines).as("only the extra occurrence").containsExactly(3);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BaselineTest {
+    @Test
+    void contains() {
+        var baseline = Baseline.of(1L, 2L, -3L, Long.MIN_VALUE, 2L);
+        assertThat(baseline.size()).isEqualTo(4);
+        assertThat(baseline.contains(2L)).isTrue();
+        assertThat(baseline.contains(-3L)).isTrue();
+        assertThat(baseline.contains(Long.MIN_VALUE)).isTrue();
+        assertThat(baseline.contains(4L)).isFalse();
+        assertThat(baseline.contains(0L)).isFalse();
+        assertThat(Baseline.of().contains(1L)).as("empty").isFalse();
+    }
+
+    @Test
+    void fingerprint() {
+        var fingerprint = Baseline.fingerprint("src/A.java", "Check", "message", "int x = 42;", 0);
+        assertThat(Baseline.fingerprint("src/A.java", "Check", "message", "  int  x = 42;\t", 0))
+                .as("whitespace").isEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/A.java", "Check", "message", "int x = 42;", 1))
+                .as("occurrence").isNotEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/A.java", "Check", "message", "int x = 43;", 0))
+                .as("line").isNotEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/B.java", "Check", "message", "int x = 42;", 0))
+                .as("file").isNotEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/A.java", "Other", "message", "int x = 42;", 0))
+                .as("check").isNotEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/A.java", "Check", "other", "int x = 42;", 0))
+                .as("message").isNotEqualTo(fingerprint);
+        assertThat(Baseline.fingerprint("src/A.javaCheck", "", "message", "int x = 42;", 0))
+                .as("separated").isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void loadInvalid(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("baseline.bin");
+        Files.writeString(file, "not a baseline");
+        assertThatThrownBy(() -> Baseline.load(file)).isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Not a Checkstyle baseline");
+
+        Baseline.write(file, 1L, 2L, 3L);
+        var bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> Baseline.load(file)).isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Truncated Checkstyle baseline");
+    }
+
+    @Test
+    void normalize() {
+        assertThat(Baseline.normalize("\t  int   x =\t42;  ")).isEqualTo("int x = 42;");
+        assertThat(Baseline.normalize("   ")).isEmpty();
+    }
+
+    @Test
+    void writeAndLoad(@TempDir Path tmp) throws IOException {
+        var random = new SplittableRandom(42);
+        var fingerprints = new long[10_000];
+        for (var i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = random.nextLong();
+        }
+        fingerprints[1] = fingerprints[0];
+
+        var file = tmp.resolve("checkstyle/baseline.bin");
+        assertThat(Baseline.write(file, fingerprints)).as("distinct").isEqualTo(fingerprints.length - 1);
+
+        var baseline = Baseline.load(file);
+        assertThat(baseline.size()).isEqualTo(fingerprints.length - 1);
+        for (var fingerprint : fingerprints) {
+            assertThat(baseline.contains(fingerprint)).isTrue();
+        }
+        assertThat(baseline.contains(random.nextLong())).isFalse();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangedLinesFilterTest {
+    private static final String FILE = "/repo/src/A.java";
+
+    private static Violation violation(int line, String source) {
+        return new Violation(FILE, line, 1, Severity.ERROR, String.valueOf(line), source);
+    }
+
+    @Test
+    void filterViolations() {
+        var lines = new ArrayList<String>();
+        var filter = new ChangedLinesFilter(new AuditEventListener() {
+            @Override
+            public void exception(String file, String stackTrace) {
+                lines.add(stackTrace);
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                lines.add(violation.message());
+            }
+        }, Map.of(FILE, new int[]{3, 3, 11, 14}), 0);
+
+        filter.fileStarted(FILE);
+        for (var line : new int[]{0, 2, 3, 4, 10, 11, 14, 15}) {
+            filter.violation(violation(line, "Check"));
+        }
+        filter.exception(FILE, "0");
+        filter.fileFinished(FILE);
+
+        filter.fileStarted("/repo/src/B.java");
+        filter.violation(new Violation("/repo/src/B.java", 3, 1, Severity.ERROR, "B", "Check"));
+        filter.fileFinished("/repo/src/B.java");
+
+        assertThat(lines).containsExactly("3", "11", "14", "0");
+    }
+
+    @Test
+    void filterViolationsWithContext() {
+        var lines = new ArrayList<String>();
+        var filter = new ChangedLinesFilter(new AuditEventListener() {
+            @Override
+            public void violation(Violation violation) {
+                lines.add(violation.message());
+            }
+        }, Map.of(FILE, new int[]{3, 3, 11, 14}), 2);
+
+        filter.fileStarted(FILE);
+        for (var line : new int[]{0, 1, 5, 6, 8, 9, 16, 17}) {
+            filter.violation(violation(line, "Check"));
+        }
+        filter.fileFinished(FILE);
+
+        assertThat(lines).containsExactly("1", "5", "9", "16");
+    }
+}
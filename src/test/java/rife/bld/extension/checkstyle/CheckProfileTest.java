@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckProfileTest {
+    private static final CheckProfile PROFILE = new CheckProfile(List.of("LineLength", "JavadocMethod", "Regexp"),
+            List.of("/src/A.java", "/src/B.java"),
+            new long[][]{{1_000_000, 2_000_000}, {30_000_000, 5_000_000}, {0, 12_000_000}});
+
+    private static Map.Entry<String, Duration> entry(String key, long millis) {
+        return Map.entry(key, Duration.ofMillis(millis));
+    }
+
+    @Test
+    void checkTimes() {
+        assertThat(PROFILE.checkTimes()).containsExactly(
+                entry("LineLength", 3), entry("JavadocMethod", 35), entry("Regexp", 12));
+    }
+
+    @Test
+    void fileTimes() {
+        assertThat(PROFILE.fileTimes()).containsExactly(entry("/src/A.java", 31), entry("/src/B.java", 19));
+    }
+
+    @Test
+    void toJson() {
+        assertThat(PROFILE.toJson(2)).isEqualTo("""
+                {
+                  "totalCpuMillis": 50.000,
+                  "checks": [
+                    {"rank": 1, "name": "JavadocMethod", "cpuMillis": 35.000, "slowestFile": "/src/A.java", \
+                "slowestFileCpuMillis": 30.000},
+                    {"rank": 2, "name": "Regexp", "cpuMillis": 12.000, "slowestFile": "/src/B.java", \
+                "slowestFileCpuMillis": 12.000}
+                  ],
+                  "files": [
+                    {"rank": 1, "file": "/src/A.java", "cpuMillis": 31.000},
+                    {"rank": 2, "file": "/src/B.java", "cpuMillis": 19.000}
+                  ]
+                }
+                """);
+    }
+
+    @Test
+    void toJsonEmpty() {
+        var profile = new CheckProfile(List.of(), List.of(), new long[0][]);
+        assertThat(profile.toJson(10)).isEqualTo("""
+                {
+                  "totalCpuMillis": 0.000,
+                  "checks": [],
+                  "files": []
+                }
+                """);
+    }
+
+    @Test
+    void toText() {
+        var lines = PROFILE.toText(1).lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("Top 1 check modules by CPU time:");
+        assertThat(lines.get(1)).contains("1.", "35.000 ms", "70.0%", "JavadocMethod", "slowest: /src/A.java");
+        assertThat(lines.get(2)).isEqualTo("Top 1 files by CPU time:");
+        assertThat(lines.get(3)).contains("1.", "31.000 ms", "/src/A.java");
+    }
+}
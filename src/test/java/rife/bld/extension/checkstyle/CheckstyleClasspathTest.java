@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckstyleClasspathTest {
+    private static File jar(Path dir, String name, String pom, String... classes) throws IOException {
+        var file = dir.resolve(name).toFile();
+        try (var out = new JarOutputStream(Files.newOutputStream(file.toPath()))) {
+            if (pom != null) {
+                var artifactId = name.substring(0, name.lastIndexOf('-'));
+                out.putNextEntry(new JarEntry("META-INF/maven/group/" + artifactId + "/pom.xml"));
+                out.write(("<project><artifactId>" + artifactId + "</artifactId><dependencies>" + pom
+                        + "</dependencies></project>").getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+            for (var c : classes) {
+                out.putNextEntry(new JarEntry("com/puppycrawl/tools/checkstyle/checks/" + c + ".class"));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static String dependency(String artifactId, String version, String scope) {
+        return "<dependency><groupId>group</groupId><artifactId>" + artifactId + "</artifactId>"
+                + (version == null ? "" : "<version>" + version + "</version>")
+                + (scope == null ? "" : "<scope>" + scope + "</scope>") + "</dependency>";
+    }
+
+    @Test
+    void isBuiltinOnly(@TempDir Path dir) throws IOException {
+        var checkstyle = jar(dir, "checkstyle-10.21.2.jar", null, "LineLengthCheck", "SuppressWarningsHolder");
+        var config = dir.resolve("config.xml");
+
+        Files.writeString(config, "<module name=\"Checker\"><module name=\"LineLength\"/>"
+                + "<module name=\"SuppressWarningsHolder\"/></module>");
+        assertThat(CheckstyleClasspath.isBuiltinOnly(config.toFile(), checkstyle)).as("builtin").isFalse();
+
+        checkstyle = jar(dir, "checkstyle-10.21.2.jar", null, "Checker", "LineLengthCheck",
+                "SuppressWarningsHolder");
+        assertThat(CheckstyleClasspath.isBuiltinOnly(config.toFile(), checkstyle)).as("with checker").isTrue();
+
+        Files.writeString(config, "<module name=\"Checker\"><module name=\"com.example.CustomCheck\"/></module>");
+        assertThat(CheckstyleClasspath.isBuiltinOnly(config.toFile(), checkstyle)).as("custom").isFalse();
+
+        assertThat(CheckstyleClasspath.isBuiltinOnly(new File("/google_checks.xml"), checkstyle)).as("resource")
+                .isTrue();
+    }
+
+    @Test
+    void resolve(@TempDir Path dir) throws IOException {
+        var checkstyle = jar(dir, "checkstyle-10.21.2.jar", dependency("guava", null, null)
+                + dependency("picocli", "4.7.6", null) + dependency("junit", "5.0", "test"));
+        var guava = jar(dir, "guava-33.4.0-jre.jar", dependency("failureaccess", "1.0.2", null)
+                + dependency("checker-qual", "3.0", "provided"));
+        var failureAccess = jar(dir, "failureaccess-1.0.2.jar", "");
+        var picocli = jar(dir, "picocli-4.7.6.jar", "");
+        var picocliOld = jar(dir, "picocli-4.7.5.jar", null);
+        var junit = jar(dir, "junit-5.0.jar", null);
+        var checker = jar(dir, "checker-qual-3.0.jar", null);
+        var assertj = jar(dir, "assertj-core-3.27.3.jar", null);
+        var jars = List.of(assertj, checker, checkstyle, failureAccess, guava, junit, picocliOld, picocli);
+
+        assertThat(CheckstyleClasspath.resolve(jars))
+                .containsExactly(checkstyle, guava, picocli, failureAccess);
+
+        var cache = dir.resolve("cache/classpath.txt").toFile();
+        assertThat(CheckstyleClasspath.resolve(jars, null, cache)).containsExactly(checkstyle, guava, picocli,
+                failureAccess);
+        assertThat(cache).isFile();
+        assertThat(CheckstyleClasspath.resolve(jars, null, cache)).as("cached")
+                .containsExactly(checkstyle, guava, picocli, failureAccess);
+
+        assertThat(CheckstyleClasspath.resolve(List.of(guava, junit))).as("no checkstyle").isEmpty();
+    }
+
+    @Test
+    void resolveWithoutPom(@TempDir Path dir) throws IOException {
+        var checkstyle = jar(dir, "checkstyle-10.21.2.jar", dependency("Saxon-HE", "12.5", null));
+        var saxon = jar(dir, "Saxon-HE-12.5.jar", null);
+        var xmlResolver = jar(dir, "xmlresolver-5.2.2.jar", "");
+
+        assertThat(CheckstyleClasspath.resolve(List.of(checkstyle, saxon, xmlResolver))).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class CheckstyleResultTest {
+    private static final String CHECKS = "com.puppycrawl.tools.checkstyle.checks.";
+
+    @Test
+    void collect() {
+        var collector = new CheckstyleResult.Collector();
+        collector.auditStarted();
+        collector.fileStarted("/A.java");
+        collector.violation(new Violation("/A.java", 1, 1, Severity.ERROR, "a", CHECKS + "FinalParametersCheck"));
+        collector.violation(new Violation("/A.java", 2, 1, Severity.WARNING, "b", CHECKS + "MagicNumberCheck"));
+        collector.violation(new Violation("/A.java", 3, 1, Severity.IGNORE, "c", CHECKS + "MagicNumberCheck"));
+        collector.fileFinished("/A.java");
+        collector.fileStarted("/B.java");
+        collector.fileFinished("/B.java");
+        collector.fileStarted("/C.java");
+        collector.violation(new Violation("/C.java", 1, 1, Severity.ERROR, "d", CHECKS + "FinalParametersCheck"));
+        collector.fileFinished("/C.java");
+        collector.auditFinished();
+        collector.phase("audit", Duration.ofMillis(5));
+        collector.phase("audit", Duration.ofMillis(10));
+
+        var result = collector.build(2);
+        assertThat(result.isDetailed()).isTrue();
+        assertThat(result.exitCode()).isEqualTo(2);
+        assertThat(result.filesAudited()).isEqualTo(3);
+        assertThat(result.errors()).isEqualTo(2);
+        assertThat(result.warnings()).isEqualTo(1);
+        assertThat(result.count(Severity.IGNORE)).isZero();
+        assertThat(result.countsByFile()).containsExactly(
+                entry("/A.java", 2),
+                entry("/C.java", 1));
+        assertThat(result.countsByModule()).containsEntry(CHECKS + "FinalParametersCheck", 2)
+                .containsEntry(CHECKS + "MagicNumberCheck", 1)
+                .hasSize(2);
+        assertThat(result.phaseTimes()).containsEntry("audit", Duration.ofMillis(15));
+    }
+
+    @Test
+    void collectManyFiles() {
+        var collector = new CheckstyleResult.Collector();
+        collector.auditStarted();
+        for (var i = 0; i < 1000; i++) {
+            collector.violation(new Violation("/F" + i + ".java", 1, 1, Severity.INFO, "m", "Check" + i % 100));
+        }
+        var result = collector.build(0);
+        assertThat(result.countsByFile()).hasSize(1000);
+        assertThat(result.countsByModule()).hasSize(100).allSatisfy((module, count) -> assertThat(count).isEqualTo(10));
+        assertThat(result.count(Severity.INFO)).isEqualTo(1000);
+    }
+
+    @Test
+    void collectSameNamedModules() {
+        var collector = new CheckstyleResult.Collector();
+        collector.auditStarted();
+        collector.violation(new Violation("/A.java", 1, 1, Severity.ERROR, "a", CHECKS + "coding.MagicNumberCheck"));
+        collector.violation(new Violation("/A.java", 2, 1, Severity.ERROR, "b", "com.example.MagicNumberCheck"));
+        assertThat(collector.build(2).countsByModule()).containsExactly(
+                entry(CHECKS + "coding.MagicNumberCheck", 1),
+                entry("com.example.MagicNumberCheck", 1));
+    }
+
+    @Test
+    void notDetailed() {
+        var result = new CheckstyleResult.Collector().build(1);
+        assertThat(result.isDetailed()).isFalse();
+        assertThat(result.exitCode()).isEqualTo(1);
+        assertThat(result.countsBySeverity()).containsEntry(Severity.ERROR, 0);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassDataSharingTest {
+    @Test
+    void dumpFailed(@TempDir Path dir) throws IOException {
+        var home = dir.resolve("jdk");
+        Files.createDirectories(home.resolve("lib"));
+        Files.writeString(home.resolve("release"), "JAVA_VERSION=\"17.0.9\"\n");
+        var jar = Files.writeString(dir.resolve("checkstyle-10.21.2.jar"), "jar").toFile();
+        var archiveDir = dir.resolve("cds").toFile();
+
+        var options = ClassDataSharing.jvmOptions(archiveDir, home.toFile(), List.of(jar));
+        assertThat(ClassDataSharing.dumpFailed(options)).isTrue();
+        assertThat(ClassDataSharing.jvmOptions(archiveDir, home.toFile(), List.of(jar))).as("not again").isEmpty();
+        assertThat(ClassDataSharing.dumpFailed(List.of("-Xshare:auto"))).as("not dumping").isFalse();
+        assertThat(ClassDataSharing.dumpFailed(null)).as("null").isFalse();
+    }
+
+    @Test
+    void featureVersion(@TempDir Path dir) throws IOException {
+        assertThat(ClassDataSharing.featureVersion(dir.toFile())).as("missing").isZero();
+        Files.writeString(dir.resolve("release"), "IMPLEMENTOR=\"Eclipse Adoptium\"\nJAVA_VERSION=\"21.0.1\"\n");
+        assertThat(ClassDataSharing.featureVersion(dir.toFile())).isEqualTo(21);
+        Files.writeString(dir.resolve("release"), "JAVA_VERSION=\"1.8.0_392\"\n");
+        assertThat(ClassDataSharing.featureVersion(dir.toFile())).isEqualTo(8);
+    }
+
+    @Test
+    void javaHome() {
+        var home = ClassDataSharing.javaHome("java");
+        if (home != null) {
+            assertThat(new File(home, "bin")).isDirectory();
+        }
+        assertThat(ClassDataSharing.javaHome("no-such-java-0123456789")).isNull();
+    }
+
+    @Test
+    void jvmOptions(@TempDir Path dir) throws IOException {
+        var home = dir.resolve("jdk");
+        Files.createDirectories(home.resolve("lib"));
+        Files.writeString(home.resolve("release"), "JAVA_VERSION=\"17.0.9\"\n");
+        Files.writeString(home.resolve("lib/modules"), "modules");
+        var jar = Files.writeString(dir.resolve("checkstyle-10.21.2.jar"), "jar").toFile();
+        var archiveDir = dir.resolve("cds").toFile();
+        var stale = new File(archiveDir, "checkstyle-stale.jsa");
+        Files.createDirectories(archiveDir.toPath());
+        Files.writeString(stale.toPath(), "stale");
+
+        var archive = ClassDataSharing.archive(archiveDir, home.toFile(), List.of(jar));
+        assertThat(ClassDataSharing.jvmOptions(archiveDir, home.toFile(), List.of(jar)))
+                .contains("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        assertThat(stale).doesNotExist();
+        assertThat(ClassDataSharing.jvmOptions(archiveDir, home.toFile(), List.of(jar))).as("dumping").isEmpty();
+
+        Files.writeString(archive.toPath(), "archive");
+        assertThat(ClassDataSharing.jvmOptions(archiveDir, home.toFile(), List.of(jar)))
+                .contains("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+
+        Files.writeString(jar.toPath(), "changed jar");
+        assertThat(ClassDataSharing.archive(archiveDir, home.toFile(), List.of(jar))).as("jar changed")
+                .isNotEqualTo(archive);
+    }
+
+    @Test
+    void jvmOptionsNotSupported(@TempDir Path dir) throws IOException {
+        var home = dir.resolve("jdk");
+        Files.createDirectories(home);
+        Files.writeString(home.resolve("release"), "JAVA_VERSION=\"11.0.21\"\n");
+        var jar = Files.writeString(dir.resolve("checkstyle-10.21.2.jar"), "jar").toFile();
+        assertThat(ClassDataSharing.jvmOptions(dir.toFile(), home.toFile(), List.of(jar))).as("java 11").isEmpty();
+
+        Files.writeString(home.resolve("release"), "JAVA_VERSION=\"21\"\n");
+        assertThat(ClassDataSharing.jvmOptions(dir.toFile(), home.toFile(), List.of(jar, dir.toFile())))
+                .as("directory").isEmpty();
+        assertThat(ClassDataSharing.jvmOptions(dir.toFile(), null, List.of(jar))).as("no home").isEmpty();
+    }
+}
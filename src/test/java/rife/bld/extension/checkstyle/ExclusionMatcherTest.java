@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExclusionMatcherTest {
+    private static final String MAIN = new File("src/main/java").getAbsolutePath();
+
+    @Test
+    void backtracking() {
+        var matcher = ExclusionMatcher.compile(List.of(), List.of("Foo\\.java$", "(.*a){12}x"));
+        assertThatThrownBy(() -> matcher.isExcluded("/" + "a".repeat(40) + "!"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("(.*a){12}x")
+                .hasMessageNotContaining("Foo");
+        assertThat(matcher.isExcluded("/src/Foo.java")).isTrue();
+    }
+
+    @Test
+    void backReference() {
+        var matcher = ExclusionMatcher.compile(List.of(), List.of("(foo)/\\1", "bar$"));
+        assertThat(matcher.isExcluded("/src/foo/foo/A.java")).isTrue();
+        assertThat(matcher.isExcluded("/src/foo/A.java")).isFalse();
+        assertThat(matcher.isExcluded("/src/bar")).isTrue();
+    }
+
+    @Test
+    void empty() {
+        var matcher = ExclusionMatcher.compile(List.of(), List.of());
+        assertThat(matcher).isSameAs(ExclusionMatcher.NONE);
+        assertThat(matcher.isEmpty()).isTrue();
+        assertThat(matcher.isExcluded(MAIN)).isFalse();
+    }
+
+    @Test
+    void invalidPattern() {
+        assertThatThrownBy(() -> ExclusionMatcher.compile(List.of(), List.of("foo(")))
+                .isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    void manyPaths() {
+        var exclude = new ArrayList<File>();
+        for (var i = 0; i < 5000; i++) {
+            exclude.add(new File("src/main/java/gen" + i));
+        }
+        var matcher = ExclusionMatcher.compile(exclude, List.of());
+        assertThat(matcher.size()).isEqualTo(5000);
+        assertThat(matcher.isExcluded(MAIN + "/gen4999")).isTrue();
+        assertThat(matcher.isExcluded(MAIN + "/gen5000")).isFalse();
+        assertThat(matcher.isExcluded(MAIN)).as("parent").isFalse();
+        assertThat(matcher.isExcluded(MAIN + "/gen1/Foo.java")).as("child").isFalse();
+    }
+
+    @Test
+    void mergedPatterns() {
+        var matcher = ExclusionMatcher.compile(List.of(), List.of("(?i)generated", "Test\\.java$", "\\Qa|b\\E"));
+        assertThat(matcher.isExcluded("/src/GENERATED/Foo.java")).isTrue();
+        assertThat(matcher.isExcluded("/src/FooTest.java")).isTrue();
+        assertThat(matcher.isExcluded("/src/test.java")).as("flag scoped to its pattern").isFalse();
+        assertThat(matcher.isExcluded("/src/a|b/Foo.java")).isTrue();
+        assertThat(matcher.isExcluded("/src/a/Foo.java")).isFalse();
+    }
+
+    @Test
+    void paths() {
+        var matcher = ExclusionMatcher.compile(List.of(new File("src/main/java/rife")), List.of());
+        assertThat(matcher.isExcluded(MAIN + "/rife")).isTrue();
+        assertThat(matcher.isExcluded(MAIN + "/rifeX")).isFalse();
+        assertThat(matcher.isExcluded(MAIN)).isFalse();
+    }
+}
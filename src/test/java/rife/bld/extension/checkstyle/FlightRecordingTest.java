@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingTest {
+    @Test
+    void jvmOptions(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("jfr/checkstyle.jfr");
+        assertThat(FlightRecording.jvmOptions(file)).containsExactly("-Xlog:jfr+startup=off",
+                "-XX:StartFlightRecording=settings=profile,dumponexit=true,filename=" + file);
+        assertThat(file.getParent()).isDirectory();
+    }
+
+    @Test
+    void start(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("checkstyle.jfr");
+        try (var recording = FlightRecording.start(file)) {
+            assertThat(recording.file()).isEqualTo(file);
+        }
+        assertThat(file).isRegularFile();
+    }
+}
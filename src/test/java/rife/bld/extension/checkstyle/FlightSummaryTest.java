@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class FlightSummaryTest {
+    // Recorded from a short allocation loop, with only the events read by the summary enabled
+    private static final Path RECORDING = Path.of("src/test/resources/checkstyle.jfr");
+
+    @Test
+    void summarize() throws IOException {
+        var summary = FlightSummary.read(List.of(RECORDING));
+        assertThat(summary.duration()).isEqualTo(Duration.ofNanos(302_922_567L));
+        assertThat(summary.gcCount()).isEqualTo(16);
+        assertThat(summary.gcPauses()).isPositive();
+        assertThat(summary.allocatedBytes()).isEqualTo(121_135_328L);
+        assertThat(summary.allocationRate()).isPositive();
+        assertThat(summary.peakHeap()).isEqualTo(26_279_936L);
+        assertThat(summary.samples()).isEqualTo(1);
+        assertThat(summary.hotMethods()).containsExactly(entry("Spin.main", 1));
+        assertThat(summary.toText(3)).startsWith("Flight recording summary (1 recording(s), 302 ms):")
+                .contains("GC pauses:", "in 16 collection(s)", "Allocation rate:", "Peak heap:",
+                        "Top 1 hot methods by samples:", "Spin.main");
+    }
+
+    @Test
+    void summarizeMultiple() throws IOException {
+        var summary = FlightSummary.read(List.of(RECORDING, RECORDING));
+        assertThat(summary.gcCount()).isEqualTo(32);
+        assertThat(summary.allocatedBytes()).isEqualTo(2 * 121_135_328L);
+        assertThat(summary.peakHeap()).isEqualTo(26_279_936L);
+        assertThat(summary.hotMethods()).containsExactly(entry("Spin.main", 2));
+        assertThat(summary.toText(3)).startsWith("Flight recording summary (2 recording(s), ");
+    }
+
+    @Test
+    void summarizeNothing() throws IOException {
+        var summary = FlightSummary.read(List.of());
+        assertThat(summary.duration()).isZero();
+        assertThat(summary.allocationRate()).isZero();
+        assertThat(summary.peakHeap()).isEqualTo(-1L);
+        assertThat(summary.hotMethods()).isEmpty();
+        assertThat(summary.toText(10)).contains("Top 0 hot methods");
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class GitDiffTest {
+    @Test
+    void changedLines() throws IOException {
+        var lines = GitDiff.changedLines(new File("."), "HEAD");
+        assertThat(lines.keySet()).allMatch(path -> new File(path).isAbsolute());
+        assertThat(lines.values()).allMatch(ranges -> ranges.length % 2 == 0);
+    }
+
+    @Test
+    void changedLinesMnemonicPrefix(@TempDir Path tmp) throws IOException, InterruptedException {
+        assertChangedLines(tmp, "diff.mnemonicPrefix");
+    }
+
+    @Test
+    void changedLinesNoPrefix(@TempDir Path tmp) throws IOException, InterruptedException {
+        assertChangedLines(tmp, "diff.noprefix");
+    }
+
+    @Test
+    void changedLinesSpacedPath(@TempDir Path tmp) throws IOException, InterruptedException {
+        git(tmp, "init", "-q");
+        var file = Files.writeString(Files.createDirectories(tmp.resolve("my src")).resolve("My A.java"),
+                "class A {\n}\n");
+        git(tmp, "add", ".");
+        git(tmp, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "A");
+        Files.writeString(file, "class A {\n    int a;\n}\n");
+        var lines = GitDiff.changedLines(tmp.toFile(), "HEAD");
+        var path = file.toRealPath().toString();
+        assertThat(lines).containsOnlyKeys(path);
+        assertThat(lines.get(path)).containsExactly(2, 2);
+    }
+
+    @Test
+    void changedFiles() throws IOException {
+        var files = GitDiff.changedFiles(new File("."), "HEAD");
+        assertThat(files).allMatch(File::isFile).allMatch(File::isAbsolute);
+    }
+
+    @Test
+    void changedFilesInvalidRef() {
+        assertThatCode(() -> GitDiff.changedFiles(new File("."), "no-such-ref-0123456789"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void parseHunks() {
+        var root = new File("/repo");
+        var diff = """
+                diff --git a/src/A.java b/src/A.java
+                index 1111111..2222222 100644
+                --- a/src/A.java
+                +++ b/src/A.java
+                @@ -3 +3 @@ class A {
+                -    int a;
+                +    int b;
+                @@ -10,0 +11,4 @@ class A {
+                +
+                @@ -20,2 +24,0 @@ class A {
+                -    void c() {}
+                diff --git a/src/B.java b/src/B.java
+                deleted file mode 100644
+                --- a/src/B.java
+                +++ /dev/null
+                @@ -1,2 +0,0 @@
+                -class B {
+                """;
+        var lines = GitDiff.parseHunks(diff, root);
+        assertThat(lines).containsOnlyKeys(new File(root, "src/A.java").getAbsolutePath());
+        assertThat(lines.get(new File(root, "src/A.java").getAbsolutePath())).containsExactly(3, 3, 11, 14);
+    }
+
+    @Test
+    void parseHunksSpecialNames() {
+        var root = new File("/repo");
+        var diff = """
+                diff --git a/my src/A.java b/my src/A.java
+                --- a/my src/A.java\t
+                +++ b/my src/A.java\t
+                @@ -1 +1 @@
+                diff --git "a/src/B\\"q\\".java" "b/src/B\\"q\\".java"
+                --- "a/src/B\\"q\\".java"
+                +++ "b/src/B\\"q\\".java"
+                @@ -2 +2 @@
+                +++ "b/src/\\303\\251t\\303\\251.java"
+                @@ -3 +3 @@
+                """;
+        var lines = GitDiff.parseHunks(diff, root);
+        assertThat(lines).containsOnlyKeys(new File(root, "my src/A.java").getAbsolutePath(),
+                new File(root, "src/B\"q\".java").getAbsolutePath(),
+                new File(root, "src/\u00e9t\u00e9.java").getAbsolutePath());
+    }
+
+    /*
+     * Modifies a committed file in a new repository with the given diff configuration enabled.
+     */
+    private static void assertChangedLines(Path tmp, String key) throws IOException, InterruptedException {
+        git(tmp, "init", "-q");
+        git(tmp, "config", key, "true");
+        var file = Files.writeString(tmp.resolve("A.java"), "class A {\n}\n");
+        git(tmp, "add", "A.java");
+        git(tmp, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "A");
+        Files.writeString(file, "class A {\n    int a;\n}\n");
+        var lines = GitDiff.changedLines(tmp.toFile(), "HEAD");
+        var path = file.toRealPath().toString();
+        assertThat(lines).as(key).containsOnlyKeys(path);
+        assertThat(lines.get(path)).containsExactly(2, 2);
+    }
+
+    private static void git(Path dir, String... args) throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add("git");
+        command.addAll(List.of(args));
+        var process = new ProcessBuilder(command).directory(dir.toFile()).redirectErrorStream(true).start();
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        assertThat(process.waitFor()).as(String.join(" ", command)).isZero();
+    }
+}
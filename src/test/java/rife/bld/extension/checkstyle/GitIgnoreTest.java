@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitIgnoreTest {
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    @Test
+    void anchored(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve(".gitignore"), "/out\nsrc/*.gen\n");
+        var ignore = GitIgnore.of(tmp);
+        assertThat(ignore.isIgnored(tmp.resolve("out"), true)).isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("src/A.gen"), false)).isTrue();
+
+        var src = ignore.child(tmp.resolve("src"));
+        assertThat(src.isIgnored(tmp.resolve("src/out"), true)).as("only at the root").isFalse();
+        assertThat(src.isIgnored(tmp.resolve("src/a/A.gen"), false)).as("single level").isFalse();
+    }
+
+    @Test
+    void directoryOnly(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve(".gitignore"), "build/\n");
+        var ignore = GitIgnore.of(tmp);
+        assertThat(ignore.isIgnored(tmp.resolve("build"), true)).isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("build"), false)).isFalse();
+        assertThat(ignore.child(tmp.resolve("src")).isIgnored(tmp.resolve("src/build"), true)).isTrue();
+    }
+
+    @Test
+    void gitDirectory(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve(".git/info/exclude"), "*.tmp\n");
+        write(tmp.resolve("src/.gitignore"), "*.bak\n");
+        var ignore = GitIgnore.of(tmp.resolve("src"));
+        assertThat(ignore.isIgnored(tmp.resolve(".git"), true)).isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("src/A.tmp"), false)).as("info/exclude").isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("src/A.bak"), false)).as("parent .gitignore").isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("src/A.java"), false)).isFalse();
+    }
+
+    @Test
+    void negation(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve(".gitignore"), "*.java\n!Keep.java\n");
+        write(tmp.resolve("sub/.gitignore"), "Keep.java\n!*.java\n");
+        var ignore = GitIgnore.of(tmp);
+        assertThat(ignore.isIgnored(tmp.resolve("A.java"), false)).isTrue();
+        assertThat(ignore.isIgnored(tmp.resolve("Keep.java"), false)).isFalse();
+
+        var sub = ignore.child(tmp.resolve("sub"));
+        assertThat(sub.isIgnored(tmp.resolve("sub/A.java"), false)).as("deeper file wins").isFalse();
+        assertThat(sub.isIgnored(tmp.resolve("sub/Keep.java"), false)).as("last rule wins").isFalse();
+    }
+
+    @Test
+    void toRegex() {
+        assertThat(GitIgnore.Rule.toRegex("*.java")).isEqualTo("[^/]*\\.java");
+        assertThat("Foojava").doesNotMatch(GitIgnore.Rule.toRegex("*.java"));
+        assertThat("docs/a/b/r.md").matches(GitIgnore.Rule.toRegex("docs/**/*.md"));
+        assertThat("docs/r.md").matches(GitIgnore.Rule.toRegex("docs/**/*.md"));
+        assertThat("a/b/foo").matches(GitIgnore.Rule.toRegex("**/foo"));
+        assertThat("foo").matches(GitIgnore.Rule.toRegex("**/foo"));
+        assertThat("foo/a/b").matches(GitIgnore.Rule.toRegex("foo/**"));
+        assertThat("foo").doesNotMatch(GitIgnore.Rule.toRegex("foo/**"));
+        assertThat("A1.java").matches(GitIgnore.Rule.toRegex("[A-Z]?.java"));
+        assertThat("a1.java").doesNotMatch(GitIgnore.Rule.toRegex("[!a-z]?.java"));
+        assertThat("a*b").matches(GitIgnore.Rule.toRegex("a\\*b"));
+        assertThat("a/b").doesNotMatch(GitIgnore.Rule.toRegex("a*"));
+    }
+
+    @Test
+    void parse() {
+        assertThat(GitIgnore.Rule.parse("# comment", "")).isNull();
+        assertThat(GitIgnore.Rule.parse("", "")).isNull();
+        assertThat(GitIgnore.Rule.parse("/", "")).isNull();
+        assertThat(GitIgnore.Rule.parse("\\#hash", "").matches("#hash", "#hash", false)).isTrue();
+        assertThat(GitIgnore.Rule.parse("trailing  ", "").matches("trailing", "trailing", false)).isTrue();
+        assertThat(GitIgnore.Rule.parse("!keep", "").isNegated()).isTrue();
+        assertThat(GitIgnore.Rule.parse("a/b", "sub").matches("sub/a/b", "b", false)).isTrue();
+        assertThat(GitIgnore.Rule.parse("a/b", "sub").matches("a/b", "b", false)).as("outside base").isFalse();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalIndexTest {
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String SOURCE = "com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck";
+
+    private static void audit(IncrementalIndex index, List<File> files) {
+        var recorder = index.recorder(new AuditEventListener() {
+        });
+        for (var file : files) {
+            audit(recorder, file);
+        }
+    }
+
+    private static void audit(AuditEventListener recorder, File file) {
+        var path = file.getAbsolutePath();
+        recorder.fileStarted(path);
+        recorder.violation(new Violation(path, 1, 1, Severity.ERROR, "Tab", SOURCE));
+        recorder.fileFinished(path);
+    }
+
+    private static List<Violation> replay(IncrementalIndex index, List<File> files) {
+        var violations = new ArrayList<Violation>();
+        index.replay(files, new AuditEventListener() {
+            @Override
+            public void violation(Violation violation) {
+                violations.add(violation);
+            }
+        });
+        return violations;
+    }
+
+    @Test
+    void invalidated(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var bar = Files.writeString(tmp.resolve("Bar.java"), "class Bar {}").toFile();
+        var files = List.of(foo, bar);
+        var indexFile = tmp.resolve("index").toFile();
+
+        var index = IncrementalIndex.load(indexFile, FINGERPRINT);
+        assertThat(index.invalidated(files)).as("first run").containsExactly(foo, bar);
+        audit(index, files);
+        assertThat(replay(index, files)).hasSize(2);
+        index.save();
+
+        Files.writeString(bar.toPath(), "class Bar { }");
+        assertThat(bar.setLastModified(bar.lastModified() + 2000)).isTrue();
+        index = IncrementalIndex.load(indexFile, FINGERPRINT);
+        var invalidated = index.invalidated(files);
+        assertThat(invalidated).as("changed").containsExactly(bar);
+        assertThat(index.hits()).isEqualTo(1);
+        assertThat(index.misses()).isEqualTo(1);
+        audit(index, invalidated);
+        assertThat(replay(index, files)).as("replay").hasSize(2)
+                .extracting(Violation::file).containsExactly(foo.getAbsolutePath(), bar.getAbsolutePath());
+        index.save();
+
+        assertThat(bar.setLastModified(bar.lastModified() + 2000)).isTrue();
+        index = IncrementalIndex.load(indexFile, FINGERPRINT);
+        assertThat(index.invalidated(files)).as("touched").isEmpty();
+
+        index = IncrementalIndex.load(indexFile, "other");
+        assertThat(index.invalidated(files)).as("fingerprint").containsExactly(foo, bar);
+    }
+
+    @Test
+    void recorder(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var index = IncrementalIndex.load(tmp.resolve("index").toFile(), FINGERPRINT);
+        assertThat(index.invalidated(List.of(foo))).containsExactly(foo);
+
+        var events = new ArrayList<String>();
+        var recorder = index.recorder(new AuditEventListener() {
+            @Override
+            public void auditFinished() {
+                events.add("auditFinished");
+            }
+
+            @Override
+            public void auditStarted() {
+                events.add("auditStarted");
+            }
+
+            @Override
+            public void fileFinished(String file) {
+                events.add("fileFinished");
+            }
+
+            @Override
+            public void fileStarted(String file) {
+                events.add("fileStarted");
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                events.add(violation.message());
+            }
+        });
+        recorder.auditStarted();
+        audit(recorder, foo);
+        recorder.auditFinished();
+        assertThat(events).as("forwarded").containsExactly("fileStarted", "Tab", "fileFinished");
+        assertThat(replay(index, List.of(foo))).as("recorded").hasSize(1);
+    }
+}
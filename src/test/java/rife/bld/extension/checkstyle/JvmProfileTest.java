@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JvmProfileTest {
+    @Test
+    void heapSize() {
+        assertThat(JvmProfile.heapSize(0, 0)).as("minimum").isEqualTo(256);
+        assertThat(JvmProfile.heapSize(10_000, 200L * 1024 * 1024)).isEqualTo(256 + 625 + 800);
+        assertThat(JvmProfile.heapSize(1_000_000, 10L * 1024 * 1024 * 1024)).as("maximum").isEqualTo(4096);
+    }
+
+    @Test
+    void quickStartup() {
+        assertThat(JvmProfile.QUICK_STARTUP.jvmOptions(100, 1024))
+                .contains("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Xmx256m");
+    }
+
+    @Test
+    void throughput() {
+        assertThat(JvmProfile.THROUGHPUT.jvmOptions(10_000, 200L * 1024 * 1024))
+                .containsExactly("-XX:+UseParallelGC", "-Xms1681m", "-Xmx1681m");
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenMetricsTest {
+    private static CheckstyleResult result() {
+        var collector = new CheckstyleResult.Collector();
+        collector.auditStarted();
+        collector.fileStarted("/src/A.java");
+        collector.violation(new Violation("/src/A.java", 1, 1, Severity.ERROR, "Too long",
+                "com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck"));
+        collector.violation(new Violation("/src/A.java", 2, 1, Severity.WARNING, "Quote", "My\"Check"));
+        collector.bytesRead(1024);
+        collector.cache(3, 1);
+        collector.peakRss(64L * 1024 * 1024);
+        collector.phase("audit", Duration.ofMillis(1500));
+        return collector.build(1);
+    }
+
+    @Test
+    void format() {
+        var metrics = OpenMetrics.format(result(), 1_700_000_000_123L);
+        assertThat(metrics.lines()).contains(
+                "# TYPE checkstyle_files_audited gauge",
+                "checkstyle_last_run_timestamp_seconds 1700000000.123",
+                "checkstyle_exit_code 1",
+                "checkstyle_aborted 0",
+                "checkstyle_files_audited 1",
+                "checkstyle_read_bytes 1024",
+                "checkstyle_violations{severity=\"error\"} 1",
+                "checkstyle_violations{severity=\"warning\"} 1",
+                "checkstyle_violations{severity=\"info\"} 0",
+                "checkstyle_check_violations{check=\"com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck\"} 1",
+                "checkstyle_check_violations{check=\"My\\\"Check\"} 1",
+                "checkstyle_phase_duration_seconds{phase=\"audit\"} 1.500",
+                "checkstyle_peak_rss_bytes 67108864",
+                "checkstyle_cache_hits 3",
+                "checkstyle_cache_misses 1",
+                "checkstyle_cache_hit_ratio 0.750000");
+        assertThat(metrics).endsWith("# EOF\n").doesNotContain("severity=\"ignore\"");
+    }
+
+    @Test
+    void formatNotDetailed() {
+        var metrics = OpenMetrics.format(new CheckstyleResult.Collector().build(0), 0L);
+        assertThat(metrics).contains("checkstyle_exit_code 0")
+                .doesNotContain("checkstyle_files_audited", "checkstyle_peak_rss_bytes", "checkstyle_cache_hits");
+    }
+
+    @Test
+    void write(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("metrics/checkstyle.prom");
+        OpenMetrics.write(file, result());
+        OpenMetrics.write(file, result());
+        assertThat(Files.readString(file)).contains("checkstyle_exit_code 1").endsWith("# EOF\n");
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+}
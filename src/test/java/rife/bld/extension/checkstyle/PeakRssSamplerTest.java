@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PeakRssSamplerTest {
+    @Test
+    void peakRss() {
+        assumeTrue(Files.isReadable(Path.of("/proc/self/status")));
+        assertThat(PeakRssSampler.peakRss(ProcessHandle.current().pid())).isPositive();
+    }
+
+    @Test
+    void peakRssUnknownProcess() {
+        assertThat(PeakRssSampler.peakRss(-1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    void sampleWhileForwarding() {
+        var events = new ArrayList<String>();
+        var sampler = new PeakRssSampler(new AuditEventListener() {
+            @Override
+            public void auditFinished() {
+                events.add("auditFinished");
+            }
+
+            @Override
+            public void auditStarted() {
+                events.add("auditStarted");
+            }
+
+            @Override
+            public void fileFinished(String file) {
+                events.add("fileFinished");
+            }
+
+            @Override
+            public void fileStarted(String file) {
+                events.add("fileStarted");
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                events.add("violation");
+            }
+        }, ProcessHandle.current().pid());
+        assertThat(sampler.peakRss()).isEqualTo(-1L);
+
+        sampler.auditStarted();
+        sampler.fileStarted("A.java");
+        sampler.violation(new Violation("A.java", 1, 1, Severity.ERROR, "message", "Check"));
+        sampler.fileFinished("A.java");
+        sampler.auditFinished();
+
+        assertThat(events).containsExactly("auditStarted", "fileStarted", "violation", "fileFinished",
+                "auditFinished");
+        if (Files.isReadable(Path.of("/proc/self/status"))) {
+            assertThat(sampler.peakRss()).isPositive();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseTimerTest {
+    @Test
+    void forwardEvents() {
+        var events = new ArrayList<String>();
+        var timer = new PhaseTimer(new AuditEventListener() {
+            @Override
+            public void auditFinished() {
+                events.add("auditFinished");
+            }
+
+            @Override
+            public void auditStarted() {
+                events.add("auditStarted");
+            }
+
+            @Override
+            public void fileFinished(String file) {
+                events.add("fileFinished " + file);
+            }
+
+            @Override
+            public void fileStarted(String file) {
+                events.add("fileStarted " + file);
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                events.add("violation " + violation.line());
+            }
+        }, (phase, duration) -> {
+            // ignore
+        });
+
+        timer.auditStarted();
+        timer.fileStarted("A.java");
+        timer.violation(new Violation("A.java", 3, 1, Severity.ERROR, "message", "Check"));
+        timer.fileFinished("A.java");
+        timer.auditFinished();
+
+        assertThat(events).containsExactly("auditStarted", "fileStarted A.java", "violation 3",
+                "fileFinished A.java", "auditFinished");
+    }
+
+    @Test
+    void recordPhases() throws InterruptedException {
+        var phases = new LinkedHashMap<String, Duration>();
+        var timer = new PhaseTimer(new AuditEventListener() {
+        }, phases::put);
+
+        timer.mark(PhaseTimer.CONFIGURATION);
+        Thread.sleep(5);
+        timer.auditStarted();
+        timer.fileStarted("A.java");
+        timer.fileFinished("A.java");
+        timer.auditFinished();
+        timer.mark(PhaseTimer.REPORT);
+
+        assertThat(phases).containsOnlyKeys(PhaseTimer.CONFIGURATION, PhaseTimer.STARTUP, PhaseTimer.CHECKS,
+                PhaseTimer.REPORT);
+        assertThat(phases.keySet()).containsExactly(PhaseTimer.CONFIGURATION, PhaseTimer.STARTUP,
+                PhaseTimer.CHECKS, PhaseTimer.REPORT);
+        assertThat(phases.get(PhaseTimer.STARTUP)).isGreaterThanOrEqualTo(Duration.ofMillis(5));
+        assertThat(phases.values()).allMatch(duration -> !duration.isNegative());
+    }
+}
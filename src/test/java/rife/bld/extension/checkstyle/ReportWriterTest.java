@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportWriterTest {
+    private static final String FILE = "/src/Foo.java";
+    private static final Violation ERROR = new Violation(FILE, 4, 0, Severity.ERROR, "Missing 'javadoc' & <tag>",
+            "com.puppycrawl.tools.checkstyle.checks.javadoc.MissingJavadocMethodCheck");
+    private static final Violation WARNING = new Violation(FILE, 3, 5, Severity.WARNING, "Line is \"longer\"",
+            "com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck");
+
+    private static String write(OutputFormat format) {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ReportWriter(format, out, true, "10.21.2")) {
+            writer.auditStarted();
+            writer.fileStarted(FILE);
+            writer.violation(WARNING);
+            writer.violation(ERROR);
+            writer.fileFinished(FILE);
+            writer.auditFinished();
+            assertThat(writer.errorCount()).isEqualTo(1);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exceptionPlain() {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ReportWriter(OutputFormat.PLAIN, out, true, "10.21.2")) {
+            writer.auditStarted();
+            writer.fileStarted(FILE);
+            writer.exception(FILE, "java.lang.IllegalStateException: oops");
+            writer.fileFinished(FILE);
+            writer.auditFinished();
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualToNormalizingNewlines(
+                "Starting audit...\n" +
+                        "Error auditing /src/Foo.java\n" +
+                        "java.lang.IllegalStateException: oops\n" +
+                        "Audit done.\n");
+    }
+
+    @Test
+    void exceptionRoundTrip() throws IOException {
+        var stackTrace = "java.lang.IllegalStateException: <unexpected> & \"quoted\"\n\tat Foo.bar(Foo.java:1)";
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ReportWriter(OutputFormat.XML, out, true, "10.21.2")) {
+            writer.auditStarted();
+            writer.fileStarted(FILE);
+            writer.exception(FILE, stackTrace);
+            writer.violation(ERROR);
+            writer.fileFinished(FILE);
+            writer.auditFinished();
+            assertThat(writer.errorCount()).as("exceptions are errors").isEqualTo(2);
+        }
+        var report = out.toString(StandardCharsets.UTF_8);
+        assertThat(report.indexOf("<exception>")).as("after the errors").isGreaterThan(report.indexOf("<error "));
+        assertThat(report).doesNotContain("source=\"com.puppycrawl.tools.checkstyle.Checker\"");
+
+        var events = new ArrayList<String>();
+        XmlReportParser.parse(new ByteArrayInputStream(out.toByteArray()), new AuditEventListener() {
+            @Override
+            public void exception(String file, String trace) {
+                events.add(file + ": " + trace);
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                events.add(violation.message());
+            }
+        });
+        assertThat(events).containsExactly(ERROR.message(), FILE + ": " + stackTrace);
+    }
+
+    @Test
+    void interruptedAudit() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ReportWriter(OutputFormat.XML, out, true, "10.21.2")) {
+            writer.auditStarted();
+            writer.fileStarted(FILE);
+            writer.violation(ERROR);
+            writer.auditFinished();
+        }
+        var report = out.toString(StandardCharsets.UTF_8);
+        assertThat(report).contains("</file>", "</checkstyle>");
+        assertThat(XmlReportParser.parse(new ByteArrayInputStream(out.toByteArray()), new AuditEventListener() {
+        })).isEqualTo("10.21.2");
+    }
+
+    @Test
+    void plain() {
+        assertThat(write(OutputFormat.PLAIN)).isEqualToNormalizingNewlines(
+                "Starting audit...\n" +
+                        "[WARN] /src/Foo.java:3:5: Line is \"longer\" [LineLength]\n" +
+                        "[ERROR] /src/Foo.java:4: Missing 'javadoc' & <tag> [MissingJavadocMethod]\n" +
+                        "Audit done.\n");
+    }
+
+    @Test
+    void sarif() {
+        assertThat(write(OutputFormat.SARIF))
+                .contains("\"version\": \"2.1.0\"", "\"semanticVersion\": \"10.21.2\"")
+                .contains("\"level\": \"warning\"", "\"startColumn\": 5, \"startLine\": 3")
+                .contains("\"text\": \"Line is \\\"longer\\\"\"");
+    }
+
+    @Test
+    void sarifRules() {
+        assertThat(write(OutputFormat.SARIF).replace(System.lineSeparator(), "\n"))
+                .contains("\"ruleId\": \"" + WARNING.source() + "\", \"ruleIndex\": 0}")
+                .contains("\"ruleId\": \"" + ERROR.source() + "\", \"ruleIndex\": 1}")
+                .contains("\"rules\": [\n            {\"id\": \"" + WARNING.source() + "\"},\n            {\"id\": \""
+                        + ERROR.source() + "\"}\n          ],");
+
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ReportWriter(OutputFormat.SARIF, out, true, null)) {
+            writer.auditStarted();
+            writer.auditFinished();
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n")).as("no results")
+                .contains("\"results\": [\n      ],", "\"rules\": [],", "\"version\": \"\"");
+    }
+
+    @Test
+    void xmlRoundTrip() throws IOException {
+        var report = write(OutputFormat.XML) + "Checkstyle ends with 1 errors.\n";
+        var violations = new ArrayList<Violation>();
+        var version = XmlReportParser.parse(new ByteArrayInputStream(report.getBytes(StandardCharsets.UTF_8)),
+                new AuditEventListener() {
+                    @Override
+                    public void violation(Violation violation) {
+                        violations.add(violation);
+                    }
+                });
+        assertThat(version).isEqualTo("10.21.2");
+        assertThat(violations).containsExactly(WARNING, ERROR);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardMergerTest {
+    @Test
+    void mergeInOriginalOrder() {
+        var a = new File("A.java");
+        var b = new File("B.java");
+        var c = new File("C.txt");
+        var d = new File("D.java");
+        var events = new ArrayList<String>();
+        var merger = new ShardMerger(List.of(a, b, c, d), new AuditEventListener() {
+            @Override
+            public void fileStarted(String file) {
+                events.add(new File(file).getName());
+            }
+
+            @Override
+            public void violation(Violation violation) {
+                events.add(violation.message());
+            }
+        });
+
+        var first = merger.shardListener(List.of(a, c));
+        var second = merger.shardListener(List.of(b, d));
+
+        second.fileStarted(b.getAbsolutePath());
+        second.violation(new Violation(b.getAbsolutePath(), 1, 1, Severity.ERROR, "b", "Check"));
+        second.fileFinished(b.getAbsolutePath());
+        second.fileStarted(d.getAbsolutePath());
+        second.fileFinished(d.getAbsolutePath());
+        second.auditFinished();
+        assertThat(events).as("waiting for A").isEmpty();
+
+        first.fileStarted(a.getAbsolutePath());
+        first.violation(new Violation(a.getAbsolutePath(), 1, 1, Severity.ERROR, "a", "Check"));
+        first.fileFinished(a.getAbsolutePath());
+        assertThat(events).as("waiting for C").containsExactly("A.java", "a", "B.java", "b");
+
+        // C is never started, as if skipped by Checkstyle
+        first.auditFinished();
+        merger.finish();
+        assertThat(events).containsExactly("A.java", "a", "B.java", "b", "D.java");
+    }
+}
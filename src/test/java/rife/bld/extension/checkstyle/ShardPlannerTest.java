@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardPlannerTest {
+    @Test
+    void split(@TempDir Path tmp) throws IOException {
+        var files = new ArrayList<File>();
+        for (var size : new int[]{100, 10, 60, 50, 40, 30, 20, 10}) {
+            var dir = Files.createDirectories(tmp.resolve("p" + files.size()));
+            files.add(Files.write(dir.resolve("F" + files.size() + ".java"), new byte[size]).toFile());
+        }
+
+        var shards = ShardPlanner.split(files, 3);
+        assertThat(shards).hasSize(3);
+        assertThat(shards.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(files);
+        assertThat(shards).allSatisfy(shard -> {
+            assertThat(shard.stream().mapToLong(File::length).sum()).isBetween(100L, 120L);
+            assertThat(shard).isSortedAccordingTo((a, b) -> Integer.compare(files.indexOf(a), files.indexOf(b)));
+        });
+    }
+
+    @Test
+    void splitDirectories(@TempDir Path tmp) throws IOException {
+        var files = new ArrayList<File>();
+        for (var name : new String[]{"a/Foo.java", "b/Foo.java", "a/Bar.java", "b/Bar.java", "c/Foo.java"}) {
+            var file = Files.createDirectories(tmp.resolve(name).getParent()).resolve(name.substring(2));
+            files.add(Files.write(file, new byte[10]).toFile());
+        }
+
+        var shards = ShardPlanner.split(files, 2);
+        assertThat(shards).hasSize(2);
+        assertThat(shards.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(files);
+        assertThat(shards.stream().flatMap(shard -> shard.stream().map(File::getParentFile).distinct()))
+                .as("directories kept together").doesNotHaveDuplicates();
+        assertThat(ShardPlanner.split(files.subList(0, 1), 2)).hasSize(1);
+        assertThat(ShardPlanner.split(List.of(files.get(0), files.get(2)), 2)).as("single directory").hasSize(1);
+    }
+
+    @Test
+    void splitFewerFiles() {
+        var files = List.of(new File("foo/Foo.java"), new File("bar/Bar.java"));
+        assertThat(ShardPlanner.split(files, 8)).hasSize(2);
+        assertThat(ShardPlanner.split(files, 1)).containsExactly(files);
+        assertThat(ShardPlanner.split(List.of(), 4)).isEmpty();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceFileFinderTest {
+    private static final File MAIN = new File("src/main/java");
+    private static final File OUTPUT_FORMAT = new File(MAIN, "rife/bld/extension/checkstyle/OutputFormat.java");
+
+    @Test
+    void find() {
+        var files = SourceFileFinder.find(List.of(MAIN), List.of(), List.of());
+        assertThat(files).contains(OUTPUT_FORMAT.getAbsoluteFile()).allMatch(File::isFile);
+    }
+
+    @Test
+    void findExclude() {
+        var files = SourceFileFinder.find(List.of(MAIN), List.of(new File(MAIN, "rife/bld/extension/checkstyle")),
+                List.of());
+        assertThat(files).isNotEmpty().doesNotContain(OUTPUT_FORMAT.getAbsoluteFile());
+    }
+
+    @Test
+    void filter() {
+        var candidates = List.of(OUTPUT_FORMAT, new File("README.md"), new File("src/test/resources/sun_checks.xml"));
+        assertThat(SourceFileFinder.filter(List.of(MAIN), candidates, List.of(), List.of()))
+                .containsExactly(OUTPUT_FORMAT.getAbsoluteFile());
+        assertThat(SourceFileFinder.filter(List.of(MAIN), candidates, List.of(new File(MAIN, "rife/bld")),
+                List.of())).as("excluded parent").isEmpty();
+        assertThat(SourceFileFinder.filter(List.of(MAIN), candidates, List.of(), List.of("/checkstyle$")))
+                .as("excluded parent regex").isEmpty();
+    }
+
+    @Test
+    void findExcludeRegex() {
+        var files = SourceFileFinder.find(List.of(MAIN), List.of(), List.of("Format\\.java$"));
+        assertThat(files).isNotEmpty().doesNotContain(OUTPUT_FORMAT.getAbsoluteFile());
+    }
+
+    @Test
+    void collapse(@TempDir Path tmp) throws IOException {
+        var missing = new File("foo");
+        assertThat(SourceFileFinder.collapse(List.of(MAIN, new File("src"), OUTPUT_FORMAT, missing,
+                new File("src").getAbsoluteFile(), new File("src/main/../main/java"))))
+                .containsExactly(new File("src"), missing);
+
+        var dir = Files.createDirectories(tmp.resolve("dir"));
+        try {
+            var link = Files.createSymbolicLink(tmp.resolve("link"), dir);
+            assertThat(SourceFileFinder.collapse(List.of(link.toFile(), dir.toFile())))
+                    .as("symbolic link").containsExactly(link.toFile());
+        } catch (UnsupportedOperationException | IOException ignored) {
+            // symbolic links not supported
+        }
+    }
+
+    @Test
+    void deduplicate(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var bar = Files.writeString(tmp.resolve("Bar.java"), "class Bar {}").toFile();
+        var files = new ArrayList<>(List.of(foo, bar, new File(tmp.toFile(), "./Foo.java"), foo));
+        assertThat(SourceFileFinder.deduplicate(files)).isEqualTo(2);
+        assertThat(files).containsExactly(foo, bar);
+
+        try {
+            var link = Files.createSymbolicLink(tmp.resolve("Link.java"), foo.toPath()).toFile();
+            files = new ArrayList<>(List.of(link, foo, bar));
+            assertThat(SourceFileFinder.deduplicate(files)).as("symbolic link").isEqualTo(1);
+            assertThat(files).containsExactly(link, bar);
+        } catch (UnsupportedOperationException | IOException ignored) {
+            // symbolic links not supported
+        }
+    }
+
+    @Test
+    void fileExtensions(@TempDir Path tmp) throws IOException {
+        var config = tmp.resolve("checks.xml");
+        Files.writeString(config, """
+                <?xml version="1.0"?>
+                <module name="Checker">
+                  <property name="charset" value="UTF-8"/>
+                  <property name="fileExtensions" value="java, .properties,"/>
+                  <module name="TreeWalker">
+                    <property name="fileExtensions" value="xml"/>
+                  </module>
+                </module>
+                """);
+        assertThat(SourceFileFinder.fileExtensions(config.toFile())).containsExactly(".java", ".properties");
+
+        Files.writeString(config, """
+                <module name="Checker">
+                  <property name="fileExtensions" value="${extensions}"/>
+                </module>
+                """);
+        assertThat(SourceFileFinder.fileExtensions(config.toFile())).as("property reference").isEmpty();
+        assertThat(SourceFileFinder.fileExtensions(new File("foo.xml"))).as("missing").isEmpty();
+        assertThat(SourceFileFinder.fileExtensions(new File("src/test/resources/sun_checks.xml")))
+                .containsExactly(".java", ".properties", ".xml");
+    }
+
+    @Test
+    void findExtensions() {
+        var files = SourceFileFinder.find(List.of(new File("src")), List.of(), List.of(), Set.of(".java"));
+        assertThat(files).contains(OUTPUT_FORMAT.getAbsoluteFile()).isNotEmpty()
+                .allMatch(f -> f.getName().endsWith(".java"));
+    }
+
+    @Test
+    void findMatchesWalk() throws IOException {
+        try (var walk = Files.walk(MAIN.getAbsoluteFile().toPath())) {
+            var expected = walk.filter(Files::isRegularFile).map(Path::toFile).toList();
+            assertThat(SourceFileFinder.find(List.of(MAIN), List.of(), List.of()))
+                    .doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void findRespectGitignore(@TempDir Path tmp) throws IOException {
+        Files.createDirectories(tmp.resolve(".git/info"));
+        Files.writeString(tmp.resolve(".git/info/exclude"), "*.tmp\n");
+        Files.writeString(tmp.resolve(".gitignore"), "build/\n*.gen.java\n");
+        for (var file : List.of("src/A.java", "src/A.gen.java", "src/A.tmp", "build/B.java", "src/build/C.java",
+                "src/nested/D.java", "src/nested/E.java")) {
+            Files.createDirectories(tmp.resolve(file).getParent());
+            Files.writeString(tmp.resolve(file), "");
+        }
+        Files.writeString(tmp.resolve("src/nested/.gitignore"), "E.java\n");
+
+        var files = SourceFileFinder.find(List.of(tmp.resolve("src").toFile()), ExclusionMatcher.NONE,
+                Set.of(".java"), true);
+        assertThat(files).containsExactlyInAnyOrder(tmp.resolve("src/A.java").toFile(),
+                tmp.resolve("src/nested/D.java").toFile());
+        assertThat(SourceFileFinder.find(List.of(tmp.resolve("src").toFile()), ExclusionMatcher.NONE,
+                Set.of(".java"), false)).as("ignore rules not honored").hasSize(5);
+    }
+
+    @Test
+    void findSymbolicLinkLoop(@TempDir Path tmp) throws IOException {
+        var dir = Files.createDirectories(tmp.resolve("a/b"));
+        Files.writeString(dir.resolve("Foo.java"), "class Foo {}");
+        try {
+            Files.createSymbolicLink(dir.resolve("loop"), tmp.resolve("a"));
+        } catch (UnsupportedOperationException | IOException e) {
+            return;
+        }
+        assertThat(SourceFileFinder.find(List.of(tmp.toFile()), List.of(), List.of())).hasSize(1);
+    }
+
+    @Test
+    void retain(@TempDir Path tmp) throws IOException {
+        var dir = Files.createDirectories(tmp.resolve("src"));
+        var foo = Files.writeString(dir.resolve("Foo.java"), "class Foo {}").toFile();
+        var bar = Files.writeString(dir.resolve("Bar.java"), "class Bar {}").toFile();
+        assertThat(SourceFileFinder.retain(List.of(foo, bar), List.of(bar))).containsExactly(bar);
+        Path link;
+        try {
+            link = Files.createSymbolicLink(tmp.resolve("link"), dir);
+        } catch (UnsupportedOperationException | IOException e) {
+            return;
+        }
+        var linked = link.resolve("Foo.java").toFile();
+        assertThat(SourceFileFinder.retain(List.of(linked), List.of(foo))).as("symbolic link")
+                .containsExactly(linked);
+    }
+
+    @Test
+    void stream(@TempDir Path tmp) throws IOException {
+        var foo = Files.writeString(tmp.resolve("Foo.java"), "class Foo {}").toFile();
+        var bar = Files.writeString(tmp.resolve("Bar.java"), "class Bar {}").toFile();
+        var listFile = Files.writeString(tmp.resolve("files.txt"),
+                foo + "\n\n  " + bar + '\n' + tmp.resolve("Missing.java") + '\n' + foo + '\n');
+        try (var files = SourceFileFinder.stream(listFile, ExclusionMatcher.NONE)) {
+            assertThat(files).as("not deduplicated").containsExactly(foo, bar, foo);
+        }
+        try (var files = SourceFileFinder.stream(listFile, ExclusionMatcher.compile(List.of(bar), List.of()))) {
+            assertThat(files).as("excluded").containsExactly(foo, foo);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceWriterTest {
+    @Test
+    void trace(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("trace/trace.json");
+        var collector = new CheckstyleResult.Collector();
+        try (var writer = new TraceWriter(file)) {
+            var start = System.nanoTime();
+            var track = writer.track(collector);
+            track.auditStarted();
+            track.fileStarted("/src/A.java");
+            track.violation(new Violation("/src/A.java", 1, 1, Severity.ERROR, "message", "Check"));
+            track.fileFinished("/src/A.java");
+            track.auditFinished();
+            track.finish();
+            writer.span(TraceWriter.MAIN_TRACK, "total", start, System.nanoTime());
+        }
+
+        assertThat(collector.build(0).errors()).as("forwarded").isEqualTo(1);
+        var json = Files.readString(file);
+        assertThat(json).startsWith("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [").endsWith("\n]}\n")
+                .contains("{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": 0, "
+                                + "\"args\": {\"name\": \"bld\"}}",
+                        "\"args\": {\"name\": \"audit 1\"}",
+                        "{\"name\": \"startup\", \"ph\": \"X\", \"ts\": ",
+                        "{\"name\": \"A.java\", \"ph\": \"X\", \"ts\": ",
+                        "\"tid\": 1, \"args\": {\"file\": \"/src/A.java\"}}",
+                        "{\"name\": \"report\", \"ph\": \"X\", \"ts\": ",
+                        "{\"name\": \"total\", \"ph\": \"X\", \"ts\": ")
+                .doesNotContain(",\n]");
+    }
+
+    @Test
+    void tracks(@TempDir Path tmp) throws IOException {
+        var file = tmp.resolve("trace.json");
+        try (var writer = new TraceWriter(file)) {
+            writer.track(new CheckstyleResult.Collector());
+            writer.track(new CheckstyleResult.Collector());
+        }
+        assertThat(Files.readString(file)).contains("\"tid\": 1, \"args\": {\"name\": \"audit 1\"}",
+                "\"tid\": 2, \"args\": {\"name\": \"audit 2\"}");
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rife.bld.extension.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ViolationThresholdTest {
+    private static Violation violation(Severity severity) {
+        return new Violation("/A.java", 1, 1, severity, "message", "Check");
+    }
+
+    @Test
+    void maxErrors() {
+        var threshold = new ViolationThreshold(2, 0);
+        threshold.violation(violation(Severity.ERROR));
+        threshold.violation(violation(Severity.WARNING));
+        threshold.violation(violation(Severity.INFO));
+        assertThat(threshold.isExceeded()).isFalse();
+        assertThatCode(() -> threshold.violation(violation(Severity.ERROR)))
+                .isInstanceOf(ViolationThreshold.ExceededException.class);
+        assertThat(threshold.isExceeded()).isTrue();
+        assertThat(threshold.errors()).isEqualTo(2);
+        assertThat(threshold.warnings()).isEqualTo(1);
+        assertThatCode(() -> threshold.violation(violation(Severity.INFO))).as("after exceeded")
+                .isInstanceOf(ViolationThreshold.ExceededException.class);
+    }
+
+    @Test
+    void maxWarnings() {
+        var threshold = new ViolationThreshold(0, 1);
+        threshold.violation(violation(Severity.ERROR));
+        assertThatCode(() -> threshold.violation(violation(Severity.WARNING)))
+                .isInstanceOf(ViolationThreshold.ExceededException.class);
+        assertThat(threshold.isExceeded()).isTrue();
+    }
+
+    @Test
+    void noLimit() {
+        var threshold = new ViolationThreshold(0, 0);
+        for (var i = 0; i < 100; i++) {
+            threshold.violation(violation(Severity.ERROR));
+            threshold.violation(violation(Severity.WARNING));
+        }
+        assertThat(threshold.isExceeded()).isFalse();
+    }
+}